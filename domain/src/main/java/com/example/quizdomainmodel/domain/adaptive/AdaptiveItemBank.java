@@ -0,0 +1,240 @@
+package com.example.quizdomainmodel.domain.adaptive;
+
+import com.example.quizdomainmodel.domain.model.ItemParameters;
+import com.example.quizdomainmodel.domain.model.MaterialQuestion;
+import com.example.quizdomainmodel.domain.model.Question;
+import com.example.quizdomainmodel.domain.model.Quiz;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+/**
+ * A calibrated item bank for computerized adaptive testing, shared by all sessions on a node.
+ * <p>
+ * The ability scale from -4 to 4 is split into bins of 0.1. For each bin the bank precomputes, once,
+ * the items ordered by the Fisher information they provide at the bin center, keeping the best
+ * {@link AdaptivePolicy#getCandidatesPerBin()}. Selecting the next item is then a walk down one short
+ * list, skipping items the candidate has seen or that are over-exposed, instead of evaluating the
+ * information of every item in the bank; it costs microseconds regardless of the bank size. Only
+ * if a whole list is used up does selection fall back to a scan of the bank.
+ * <p>
+ * Only top-level questions with {@link ItemParameters} are administered. Uncalibrated questions
+ * (e.g. pretest items) and material questions, which are answered as a unit, are left out.
+ * <p>
+ * The bank is thread-safe. Exposure counts are updated atomically by the sessions selecting items.
+ */
+public final class AdaptiveItemBank {
+
+    static final double THETA_MIN = -4.0;
+    static final double THETA_STEP = 0.1;
+    static final int THETA_POINTS = 81;
+
+    private final String quizId;
+    private final AdaptivePolicy policy;
+    private final Question[] questions;
+    // Item parameters in primitive arrays, in the order of questions
+    private final double[] discrimination;
+    private final double[] difficulty;
+    private final double[] guessing;
+    // Per ability bin: item indices by decreasing information at the bin center
+    private final int[][] candidates;
+    private final AtomicIntegerArray exposures;
+    private final AtomicLong sessions = new AtomicLong();
+
+    /**
+     * Builds the bank and its selection index from the calibrated questions of a quiz.
+     *
+     * @param quiz The quiz holding the item pool. Cannot be null.
+     * @param policy Selection, exposure and stopping rules. Cannot be null.
+     * @throws IllegalArgumentException if the quiz has no calibrated questions.
+     */
+    public AdaptiveItemBank(Quiz quiz, AdaptivePolicy policy) {
+        if (quiz == null) {
+            throw new IllegalArgumentException("Quiz cannot be null.");
+        }
+        if (policy == null) {
+            throw new IllegalArgumentException("Adaptive policy cannot be null.");
+        }
+        policy.validate();
+
+        List<Question> items = new ArrayList<>();
+        for (Question question : quiz.getQuestions()) {
+            if (!(question instanceof MaterialQuestion) && question.getItemParameters() != null) {
+                items.add(question);
+            }
+        }
+        if (items.isEmpty()) {
+            throw new IllegalArgumentException("Quiz has no calibrated questions.");
+        }
+
+        this.quizId = quiz.getId();
+        this.policy = policy;
+        this.questions = items.toArray(new Question[0]);
+        this.discrimination = new double[questions.length];
+        this.difficulty = new double[questions.length];
+        this.guessing = new double[questions.length];
+        for (int i = 0; i < questions.length; i++) {
+            ItemParameters parameters = questions[i].getItemParameters();
+            discrimination[i] = parameters.getDiscrimination();
+            difficulty[i] = parameters.getDifficulty();
+            guessing[i] = parameters.getGuessing();
+        }
+        this.exposures = new AtomicIntegerArray(questions.length);
+        this.candidates = new int[THETA_POINTS][];
+        IntStream.range(0, THETA_POINTS).parallel().forEach(bin -> candidates[bin] = rankByInformation(theta(bin)));
+    }
+
+    /**
+     * Starts a session with a random seed for the randomesque choice.
+     */
+    public AdaptiveSession startSession(String userId) {
+        return startSession(userId, ThreadLocalRandom.current().nextLong());
+    }
+
+    /**
+     * Starts a session; the same seed and answers reproduce the same item sequence as long as
+     * exposure counts are equal.
+     *
+     * @param userId The candidate. Cannot be null or empty.
+     * @param seed Seed for the randomesque choice among the best items.
+     */
+    public AdaptiveSession startSession(String userId, long seed) {
+        if (userId == null || userId.isEmpty()) {
+            throw new IllegalArgumentException("User ID cannot be null or empty.");
+        }
+        sessions.incrementAndGet();
+        return new AdaptiveSession(this, userId, new SplittableRandom(seed));
+    }
+
+    /**
+     * Picks the next item for a candidate and counts its exposure.
+     *
+     * @param theta The candidate's current ability estimate.
+     * @param administered Indices of the items already administered.
+     * @param administeredCount Number of valid entries in {@code administered}.
+     * @return The item index, or -1 if the candidate has seen every item.
+     */
+    int select(double theta, int[] administered, int administeredCount, SplittableRandom random) {
+        int[] ranked = candidates[bin(theta)];
+        long sessionCount = sessions.get();
+        boolean limitExposure = policy.getMaxExposureRate() < 1 && sessionCount >= policy.getExposureWarmupSessions();
+        long exposureLimit = (long) (policy.getMaxExposureRate() * sessionCount);
+
+        int[] group = new int[policy.getRandomesque()];
+        int found = 0;
+        // First pass honors the exposure limit; the second only runs if every candidate is over it
+        for (int pass = limitExposure ? 0 : 1; pass < 2 && found == 0; pass++) {
+            for (int item : ranked) {
+                if (contains(administered, administeredCount, item)
+                        || (pass == 0 && exposures.get(item) >= exposureLimit)) {
+                    continue;
+                }
+                group[found++] = item;
+                if (found == group.length) {
+                    break;
+                }
+            }
+        }
+        int chosen = found > 0 ? group[random.nextInt(found)] : mostInformative(theta, administered, administeredCount);
+        if (chosen >= 0) {
+            exposures.incrementAndGet(chosen);
+        }
+        return chosen;
+    }
+
+    private int mostInformative(double theta, int[] administered, int administeredCount) {
+        int best = -1;
+        double bestInformation = -1;
+        for (int i = 0; i < questions.length; i++) {
+            double information = information(i, theta);
+            if (information > bestInformation && !contains(administered, administeredCount, i)) {
+                best = i;
+                bestInformation = information;
+            }
+        }
+        return best;
+    }
+
+    private int[] rankByInformation(double theta) {
+        // Information as float bits in the high word keeps the sort on primitives; float is
+        // precise enough to rank items
+        long[] keys = new long[questions.length];
+        for (int i = 0; i < questions.length; i++) {
+            keys[i] = (long) Float.floatToIntBits((float) information(i, theta)) << 32 | i;
+        }
+        Arrays.sort(keys);
+        int size = Math.min(policy.getCandidatesPerBin(), keys.length);
+        int[] ranked = new int[size];
+        for (int r = 0; r < size; r++) {
+            ranked[r] = (int) keys[keys.length - 1 - r];
+        }
+        return ranked;
+    }
+
+    private static boolean contains(int[] items, int count, int item) {
+        for (int i = 0; i < count; i++) {
+            if (items[i] == item) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    double probability(int item, double theta) {
+        return ItemParameters.probability(discrimination[item], difficulty[item], guessing[item], theta);
+    }
+
+    double information(int item, double theta) {
+        return ItemParameters.information(discrimination[item], difficulty[item], guessing[item], theta);
+    }
+
+    Question question(int item) {
+        return questions[item];
+    }
+
+    static double theta(int point) {
+        return THETA_MIN + point * THETA_STEP;
+    }
+
+    private static int bin(double theta) {
+        int bin = (int) Math.round((theta - THETA_MIN) / THETA_STEP);
+        return Math.max(0, Math.min(THETA_POINTS - 1, bin));
+    }
+
+    public String getQuizId() {
+        return quizId;
+    }
+
+    public AdaptivePolicy getPolicy() {
+        return policy;
+    }
+
+    /**
+     * @return The number of calibrated items the bank administers.
+     */
+    public int getItemCount() {
+        return questions.length;
+    }
+
+    public long getSessionCount() {
+        return sessions.get();
+    }
+
+    /**
+     * @return The highest fraction of sessions any single item has been administered in.
+     */
+    public double getMaxExposureRate() {
+        long sessionCount = sessions.get();
+        int max = 0;
+        for (int i = 0; i < exposures.length(); i++) {
+            max = Math.max(max, exposures.get(i));
+        }
+        return sessionCount == 0 ? 0 : (double) max / sessionCount;
+    }
+}
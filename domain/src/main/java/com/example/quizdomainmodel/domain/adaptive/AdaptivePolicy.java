@@ -0,0 +1,56 @@
+package com.example.quizdomainmodel.domain.adaptive;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Item selection, exposure control and stopping rules of an adaptive exam.
+ */
+@Getter
+@ToString
+@Builder(toBuilder = true)
+public final class AdaptivePolicy {
+
+    /** The exam stops after this many items. */
+    @Builder.Default private final int maxItems = 30;
+    /** The exam never stops on precision before this many items. */
+    @Builder.Default private final int minItems = 5;
+    /** The exam stops once the posterior standard deviation of the ability falls below this. */
+    @Builder.Default private final double targetStandardError = 0.3;
+    /**
+     * Randomesque exposure control: the next item is picked at random among this many of the
+     * most informative eligible items, instead of always the single best one.
+     */
+    @Builder.Default private final int randomesque = 5;
+    /**
+     * Items administered in more than this fraction of sessions are skipped while a less exposed
+     * item is available. 1 disables the limit.
+     */
+    @Builder.Default private final double maxExposureRate = 0.25;
+    /** Sessions started before the exposure limit is enforced, so early rates are meaningful. */
+    @Builder.Default private final int exposureWarmupSessions = 20;
+    /** Items kept per ability bin in the precomputed selection index. */
+    @Builder.Default private final int candidatesPerBin = 256;
+
+    void validate() {
+        if (maxItems < 1 || minItems < 0 || minItems > maxItems) {
+            throw new IllegalArgumentException("Item limits must satisfy 0 <= min <= max and max >= 1.");
+        }
+        if (!(targetStandardError > 0)) {
+            throw new IllegalArgumentException("Target standard error must be > 0.");
+        }
+        if (randomesque < 1) {
+            throw new IllegalArgumentException("Randomesque group size must be >= 1.");
+        }
+        if (!(maxExposureRate > 0 && maxExposureRate <= 1)) {
+            throw new IllegalArgumentException("Max exposure rate must be in (0, 1].");
+        }
+        if (exposureWarmupSessions < 0) {
+            throw new IllegalArgumentException("Exposure warm-up cannot be negative.");
+        }
+        if (candidatesPerBin < randomesque) {
+            throw new IllegalArgumentException("Candidates per bin must be at least the randomesque group size.");
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package com.example.quizdomainmodel.domain.adaptive;
+
+import com.example.quizdomainmodel.domain.model.AnswerSheet;
+import com.example.quizdomainmodel.domain.model.Question;
+import com.example.quizdomainmodel.domain.model.UserAnswer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+/**
+ * One candidate's adaptive exam over an {@link AdaptiveItemBank}.
+ * <p>
+ * The ability estimate is the expected a posteriori (EAP) value over a fixed quadrature grid with a
+ * standard normal prior. The session keeps the log posterior on the grid and adds one log
+ * likelihood term per answer, so an update costs one pass over 81 grid points regardless of how
+ * many items have been answered.
+ * <p>
+ * Usage: call {@link #nextQuestion()}, present the question, {@link #submit(UserAnswer)} the answer,
+ * and repeat until {@link #nextQuestion()} returns null. The session is not thread-safe; confine it
+ * to the candidate's connection.
+ */
+public final class AdaptiveSession {
+
+    // Keeps log(P) finite for items answered against near-certain odds
+    private static final double MIN_PROBABILITY = 1e-12;
+
+    private final AdaptiveItemBank bank;
+    private final String userId;
+    private final SplittableRandom random;
+    private final double[] logPosterior;
+    private final int[] administered;
+    private final List<UserAnswer> answers;
+    private int administeredCount;
+    private int pending = -1;
+    private boolean exhausted;
+    private double theta;
+    private double standardError;
+
+    AdaptiveSession(AdaptiveItemBank bank, String userId, SplittableRandom random) {
+        this.bank = bank;
+        this.userId = userId;
+        this.random = random;
+        this.logPosterior = new double[AdaptiveItemBank.THETA_POINTS];
+        for (int k = 0; k < logPosterior.length; k++) {
+            double point = AdaptiveItemBank.theta(k);
+            logPosterior[k] = -0.5 * point * point;
+        }
+        this.administered = new int[bank.getPolicy().getMaxItems()];
+        this.answers = new ArrayList<>(administered.length);
+        updateEstimate();
+    }
+
+    /**
+     * Returns the question to present next. Calling it again before submitting returns the same
+     * question.
+     *
+     * @return The next question, or null once a stopping rule is met.
+     */
+    public Question nextQuestion() {
+        if (pending >= 0) {
+            return bank.question(pending);
+        }
+        if (isFinished()) {
+            return null;
+        }
+        pending = bank.select(theta, administered, administeredCount, random);
+        if (pending < 0) {
+            exhausted = true;
+            return null;
+        }
+        return bank.question(pending);
+    }
+
+    /**
+     * Scores the answer to the current question and updates the ability estimate. An answer is
+     * correct when it earns points under the usual {@link AnswerSheet} scoring.
+     *
+     * @param answer The answer to the question last returned by {@link #nextQuestion()}. Cannot be null.
+     */
+    public void submit(UserAnswer answer) {
+        if (answer == null) {
+            throw new IllegalArgumentException("Answer cannot be null.");
+        }
+        if (pending < 0) {
+            throw new IllegalStateException("No question is awaiting an answer.");
+        }
+        Question question = bank.question(pending);
+        if (!question.getId().equals(answer.getQuestionId())) {
+            throw new IllegalArgumentException("Answer is for question " + answer.getQuestionId()
+                    + " but " + question.getId() + " was asked.");
+        }
+        boolean correct = AnswerSheet.calculateAnswerScore(answer, question) > 0;
+
+        for (int k = 0; k < logPosterior.length; k++) {
+            double p = bank.probability(pending, AdaptiveItemBank.theta(k));
+            p = Math.min(1 - MIN_PROBABILITY, Math.max(MIN_PROBABILITY, p));
+            logPosterior[k] += Math.log(correct ? p : 1 - p);
+        }
+        updateEstimate();
+
+        administered[administeredCount++] = pending;
+        answers.add(answer);
+        pending = -1;
+    }
+
+    private void updateEstimate() {
+        double max = Double.NEGATIVE_INFINITY;
+        for (double value : logPosterior) {
+            max = Math.max(max, value);
+        }
+        double weightSum = 0;
+        double mean = 0;
+        double meanSquare = 0;
+        for (int k = 0; k < logPosterior.length; k++) {
+            double weight = Math.exp(logPosterior[k] - max);
+            double point = AdaptiveItemBank.theta(k);
+            weightSum += weight;
+            mean += weight * point;
+            meanSquare += weight * point * point;
+        }
+        mean /= weightSum;
+        this.theta = mean;
+        this.standardError = Math.sqrt(Math.max(0, meanSquare / weightSum - mean * mean));
+    }
+
+    /**
+     * @return true if the maximum length is reached, the estimate is precise enough after the
+     * minimum length, or the bank has no unseen items left.
+     */
+    public boolean isFinished() {
+        AdaptivePolicy policy = bank.getPolicy();
+        return exhausted
+                || administeredCount >= policy.getMaxItems()
+                || (administeredCount >= policy.getMinItems() && standardError <= policy.getTargetStandardError());
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    /**
+     * @return The current EAP ability estimate.
+     */
+    public double getTheta() {
+        return theta;
+    }
+
+    /**
+     * @return The posterior standard deviation of the ability estimate.
+     */
+    public double getStandardError() {
+        return standardError;
+    }
+
+    public int getItemsAdministered() {
+        return administeredCount;
+    }
+
+    /**
+     * @return The answered questions, in the order they were asked.
+     */
+    public List<Question> getAdministeredQuestions() {
+        List<Question> questions = new ArrayList<>(administeredCount);
+        for (int i = 0; i < administeredCount; i++) {
+            questions.add(bank.question(administered[i]));
+        }
+        return questions;
+    }
+
+    /**
+     * Records the session as an answer sheet, so adaptive exams go through the same grading,
+     * export and storage as fixed ones.
+     */
+    public AnswerSheet toAnswerSheet() {
+        return new AnswerSheet(UUID.randomUUID().toString(), bank.getQuizId(), userId,
+                System.currentTimeMillis(), new ArrayList<>(answers));
+    }
+}
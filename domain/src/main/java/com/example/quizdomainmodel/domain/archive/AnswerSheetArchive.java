@@ -0,0 +1,474 @@
+package com.example.quizdomainmodel.domain.archive;
+
+import com.example.quizdomainmodel.domain.archive.ColumnCodec.ByteSource;
+import com.example.quizdomainmodel.domain.model.UserAnswer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Read access to an archive written by {@link AnswerSheetArchiveWriter}.
+ * <p>
+ * Opening reads only the footer. A {@link #scan(ArchiveScan)} then skips row groups whose
+ * statistics fail the scan's filter and, for the remaining ones, reads and decodes only the column
+ * chunks it projects, one row group per task when the scan is parallel. Chunks are read with
+ * positional reads, so concurrent scans of one archive do not interfere.
+ */
+public final class AnswerSheetArchive implements Closeable {
+
+    private static final int TAIL_LENGTH = 4 + ColumnCodec.MAGIC.length;
+    // Fixed chunks in file order; the ANSWERS slot holds the overflow answers
+    private static final ArchiveColumn[] FIXED_COLUMNS = ArchiveColumn.values();
+
+    private final FileChannel channel;
+    private final long fileSize;
+    private final AtomicLong bytesRead = new AtomicLong();
+
+    private final String quizId;
+    private final String[] quizIds;
+    private final String[] keyQuestionIds;
+    private final String[][] keyChoiceIds;
+    private final int[][] keyChildren;
+    private final int[] topLevelKeys;
+    private final Map<String, Integer> topLevelKeyIndex = new HashMap<>();
+    private final List<RowGroup> rowGroups;
+    private final long rowCount;
+
+    private AnswerSheetArchive(FileChannel channel) throws IOException {
+        this.channel = channel;
+        this.fileSize = channel.size();
+        if (fileSize < ColumnCodec.MAGIC.length + TAIL_LENGTH) {
+            throw new IllegalStateException("Not an answer sheet archive: file is too short.");
+        }
+        byte[] tail = read(fileSize - TAIL_LENGTH, TAIL_LENGTH);
+        if (!Arrays.equals(ColumnCodec.MAGIC, Arrays.copyOfRange(tail, 4, TAIL_LENGTH))
+                || !Arrays.equals(ColumnCodec.MAGIC, read(0, ColumnCodec.MAGIC.length))) {
+            throw new IllegalStateException("Not an answer sheet archive: magic bytes are missing.");
+        }
+        int footerLength = (tail[0] & 0xFF) << 24 | (tail[1] & 0xFF) << 16 | (tail[2] & 0xFF) << 8 | (tail[3] & 0xFF);
+        if (footerLength < 0 || footerLength > fileSize - TAIL_LENGTH - ColumnCodec.MAGIC.length) {
+            throw new IllegalStateException("Corrupt archive: invalid footer length.");
+        }
+        ByteSource footer = new ByteSource(read(fileSize - TAIL_LENGTH - footerLength, footerLength));
+        int version = footer.readVarInt();
+        if (version != ColumnCodec.VERSION) {
+            throw new IllegalStateException("Unsupported archive version: " + version);
+        }
+        this.quizId = footer.readString();
+        this.quizIds = new String[footer.readVarInt()];
+        for (int i = 0; i < quizIds.length; i++) {
+            quizIds[i] = footer.readString();
+        }
+
+        int keyCount = footer.readVarInt();
+        this.keyQuestionIds = new String[keyCount];
+        this.keyChoiceIds = new String[keyCount][];
+        Map<String, Integer> keyByPath = new HashMap<>();
+        List<List<Integer>> children = new ArrayList<>();
+        List<Integer> topLevel = new ArrayList<>();
+        for (int key = 0; key < keyCount; key++) {
+            String path = footer.readString();
+            keyChoiceIds[key] = new String[footer.readVarInt()];
+            for (int c = 0; c < keyChoiceIds[key].length; c++) {
+                keyChoiceIds[key][c] = footer.readString();
+            }
+            keyByPath.put(path, key);
+            children.add(new ArrayList<>());
+            int separator = path.lastIndexOf(ColumnCodec.PATH_SEPARATOR);
+            keyQuestionIds[key] = path.substring(separator + 1);
+            if (separator < 0) {
+                topLevel.add(key);
+                topLevelKeyIndex.put(path, key);
+            } else {
+                // Parents are always registered before their sub-questions
+                children.get(keyByPath.get(path.substring(0, separator))).add(key);
+            }
+        }
+        this.keyChildren = children.stream().map(list -> list.stream().mapToInt(Integer::intValue).toArray())
+                .toArray(int[][]::new);
+        this.topLevelKeys = topLevel.stream().mapToInt(Integer::intValue).toArray();
+
+        int groupCount = footer.readVarInt();
+        List<RowGroup> groups = new ArrayList<>(groupCount);
+        long firstRow = 0;
+        for (int g = 0; g < groupCount; g++) {
+            RowGroup group = RowGroup.read(footer, firstRow);
+            groups.add(group);
+            firstRow += group.stats.getRowCount();
+        }
+        this.rowGroups = Collections.unmodifiableList(groups);
+        this.rowCount = firstRow;
+    }
+
+    /**
+     * Opens an archive and reads its footer.
+     *
+     * @throws IllegalStateException if the file is not a valid archive.
+     */
+    public static AnswerSheetArchive open(Path path) throws IOException {
+        if (path == null) {
+            throw new IllegalArgumentException("Path cannot be null.");
+        }
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            return new AnswerSheetArchive(channel);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Scans the archive. Rows come in archive order; decoding is lazy per row group, so the
+     * stream should be consumed before the archive is closed.
+     *
+     * @param scan The projection and row group filter. Cannot be null.
+     * @throws UncheckedIOException if reading a chunk fails while the stream is consumed.
+     */
+    public Stream<ArchiveRow> scan(ArchiveScan scan) {
+        if (scan == null) {
+            throw new IllegalArgumentException("Scan cannot be null.");
+        }
+        Set<ArchiveColumn> columns = scan.getColumns().isEmpty()
+                ? EnumSet.noneOf(ArchiveColumn.class) : EnumSet.copyOf(scan.getColumns());
+        String[] questionIds = scan.getQuestionIds().toArray(new String[0]);
+        List<RowGroup> selected = rowGroups.stream()
+                .filter(group -> scan.getRowGroupFilter().test(group.stats))
+                .collect(Collectors.toList());
+        IntStream groups = IntStream.range(0, selected.size());
+        if (scan.isParallel()) {
+            groups = groups.parallel();
+        }
+        return groups.mapToObj(g -> decode(selected.get(g), columns, questionIds))
+                .flatMap(group -> IntStream.range(0, group.rowCount).mapToObj(row -> new ArchiveRow(group, row)));
+    }
+
+    private DecodedGroup decode(RowGroup group, Set<ArchiveColumn> columns, String[] questionIds) {
+        int rows = group.stats.getRowCount();
+        DecodedGroup decoded = new DecodedGroup(rows, columns, questionIds);
+        if (columns.contains(ArchiveColumn.SHEET_ID)) {
+            decoded.sheetIds = readStrings(fixedChunk(group, ArchiveColumn.SHEET_ID), rows);
+        }
+        if (columns.contains(ArchiveColumn.QUIZ_ID)) {
+            ByteSource source = fixedChunk(group, ArchiveColumn.QUIZ_ID);
+            decoded.quizIds = new String[rows];
+            for (int row = 0; row < rows; row++) {
+                decoded.quizIds[row] = quizIds[source.readVarInt()];
+            }
+        }
+        if (columns.contains(ArchiveColumn.USER_ID)) {
+            decoded.userIds = readStrings(fixedChunk(group, ArchiveColumn.USER_ID), rows);
+        }
+        if (columns.contains(ArchiveColumn.SUBMISSION_TIME)) {
+            decoded.submissionTimes = readDeltas(fixedChunk(group, ArchiveColumn.SUBMISSION_TIME), rows);
+        }
+        if (columns.contains(ArchiveColumn.SCORE)) {
+            long[] scores = readDeltas(fixedChunk(group, ArchiveColumn.SCORE), rows);
+            decoded.scores = new int[rows];
+            for (int row = 0; row < rows; row++) {
+                decoded.scores[row] = (int) scores[row];
+            }
+        }
+
+        Map<Integer, UserAnswer[]> decodedKeys = new HashMap<>();
+        decoded.projected = new UserAnswer[questionIds.length][];
+        for (int q = 0; q < questionIds.length; q++) {
+            Integer key = topLevelKeyIndex.get(questionIds[q]);
+            decoded.projected[q] = key == null ? new UserAnswer[rows] : decodeKey(group, key, decodedKeys);
+        }
+        if (columns.contains(ArchiveColumn.ANSWERS)) {
+            List<UserAnswer[]> perKey = new ArrayList<>(topLevelKeys.length);
+            for (int key : topLevelKeys) {
+                perKey.add(decodeKey(group, key, decodedKeys));
+            }
+            decoded.answers = new ArrayList<>(rows);
+            for (int row = 0; row < rows; row++) {
+                List<UserAnswer> answers = new ArrayList<>();
+                for (UserAnswer[] values : perKey) {
+                    if (values[row] != null) {
+                        answers.add(values[row]);
+                    }
+                }
+                decoded.answers.add(answers);
+            }
+            ByteSource overflow = fixedChunk(group, ArchiveColumn.ANSWERS);
+            int overflowCount = overflow.readVarInt();
+            for (int i = 0; i < overflowCount; i++) {
+                int row = overflow.readVarInt();
+                decoded.answers.get(row).add(readFullAnswer(overflow));
+            }
+        }
+        return decoded;
+    }
+
+    /**
+     * Decodes the answers of one question and, for a material question, of its sub-questions.
+     *
+     * @return The answer of every row, null where the row has none.
+     */
+    private UserAnswer[] decodeKey(RowGroup group, int key, Map<Integer, UserAnswer[]> decodedKeys) {
+        UserAnswer[] cached = decodedKeys.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        int rows = group.stats.getRowCount();
+        UserAnswer[] values = new UserAnswer[rows];
+        int chunk = Arrays.binarySearch(group.keys, key);
+        if (chunk >= 0) {
+            decodeLeaves(group, chunk, key, values);
+        }
+        int[] subKeys = keyChildren[key];
+        if (subKeys.length > 0) {
+            List<UserAnswer[]> subValues = new ArrayList<>(subKeys.length);
+            for (int subKey : subKeys) {
+                subValues.add(decodeKey(group, subKey, decodedKeys));
+            }
+            for (int row = 0; row < rows; row++) {
+                List<UserAnswer> subAnswers = null;
+                for (UserAnswer[] sub : subValues) {
+                    if (sub[row] != null) {
+                        if (subAnswers == null) {
+                            subAnswers = new ArrayList<>(subKeys.length);
+                        }
+                        subAnswers.add(sub[row]);
+                    }
+                }
+                if (subAnswers != null) {
+                    values[row] = UserAnswer.createMaterialAnswer(keyQuestionIds[key], subAnswers);
+                }
+            }
+        }
+        decodedKeys.put(key, values);
+        return values;
+    }
+
+    private void decodeLeaves(RowGroup group, int chunk, int key, UserAnswer[] values) {
+        ByteSource source = chunk(group.keyChunks[chunk]);
+        int presentCount = source.readVarInt();
+        int rows = values.length;
+        int[] presentRows = new int[presentCount];
+        int present = 0;
+        for (int row = 0; row < rows; row++) {
+            if (source.readBits(1) != 0) {
+                presentRows[present++] = row;
+            }
+        }
+        source.alignToByte();
+        if (present != presentCount) {
+            throw new IllegalStateException("Corrupt archive: presence bitmap does not match its count.");
+        }
+
+        String questionId = keyQuestionIds[key];
+        String[] choiceIds = keyChoiceIds[key];
+        int width = choiceIds.length + 1;
+        long[] packed = new long[presentCount];
+        for (int i = 0; i < presentCount; i++) {
+            packed[i] = source.readBits(width);
+        }
+        source.alignToByte();
+        for (int i = 0; i < presentCount; i++) {
+            if ((packed[i] & 1) == 0) {
+                List<String> selected = new ArrayList<>(Long.bitCount(packed[i]));
+                for (long mask = packed[i] >>> 1; mask != 0; mask &= mask - 1) {
+                    selected.add(choiceIds[Long.numberOfTrailingZeros(mask)]);
+                }
+                values[presentRows[i]] = UserAnswer.createChoiceAnswer(questionId, selected);
+            }
+        }
+        for (int i = 0; i < presentCount; i++) {
+            if ((packed[i] & 1) != 0) {
+                List<String> selected = readStringList(source);
+                String filledText = source.readString();
+                values[presentRows[i]] = filledText != null
+                        ? new UserAnswer(questionId, filledText)
+                        : UserAnswer.createChoiceAnswer(questionId, selected);
+            }
+        }
+    }
+
+    private static UserAnswer readFullAnswer(ByteSource source) {
+        String questionId = source.readString();
+        List<String> selected = readStringList(source);
+        String filledText = source.readString();
+        int subCount = source.readVarInt();
+        if (subCount > 0) {
+            List<UserAnswer> subAnswers = new ArrayList<>(subCount);
+            for (int i = 0; i < subCount; i++) {
+                subAnswers.add(readFullAnswer(source));
+            }
+            return UserAnswer.createMaterialAnswer(questionId, subAnswers);
+        }
+        return filledText != null
+                ? new UserAnswer(questionId, filledText)
+                : UserAnswer.createChoiceAnswer(questionId, selected);
+    }
+
+    private static List<String> readStringList(ByteSource source) {
+        int count = source.readVarInt();
+        List<String> values = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            values.add(source.readString());
+        }
+        return values;
+    }
+
+    private static String[] readStrings(ByteSource source, int rows) {
+        String[] values = new String[rows];
+        for (int row = 0; row < rows; row++) {
+            values[row] = source.readString();
+        }
+        return values;
+    }
+
+    private static long[] readDeltas(ByteSource source, int rows) {
+        long[] values = new long[rows];
+        long previous = 0;
+        for (int row = 0; row < rows; row++) {
+            previous += source.readSignedVarLong();
+            values[row] = previous;
+        }
+        return values;
+    }
+
+    private ByteSource fixedChunk(RowGroup group, ArchiveColumn column) {
+        return chunk(group.fixedChunks[column.ordinal()]);
+    }
+
+    private ByteSource chunk(long[] descriptor) {
+        try {
+            byte[] compressed = read(descriptor[0], (int) descriptor[1]);
+            return new ByteSource(ColumnCodec.inflate(compressed, (int) descriptor[2]));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private byte[] read(long offset, int length) throws IOException {
+        if (offset < 0 || length < 0 || offset + length > fileSize) {
+            throw new IllegalStateException("Corrupt archive: chunk lies outside the file.");
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, offset + buffer.position()) < 0) {
+                throw new IllegalStateException("Corrupt archive: unexpected end of file.");
+            }
+        }
+        bytesRead.addAndGet(length);
+        return buffer.array();
+    }
+
+    /**
+     * @return The ID of the quiz the archive was written for.
+     */
+    public String getQuizId() {
+        return quizId;
+    }
+
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    public long getFileSize() {
+        return fileSize;
+    }
+
+    /**
+     * @return The bytes read from the file so far, footer included; useful to check how much of
+     * the archive a scan touched.
+     */
+    public long getBytesRead() {
+        return bytesRead.get();
+    }
+
+    public List<RowGroupStats> getRowGroupStats() {
+        return rowGroups.stream().map(group -> group.stats).collect(Collectors.toList());
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Footer entry of a row group: its statistics and chunk descriptors (offset, compressed
+     * length, raw length).
+     */
+    private static final class RowGroup {
+        private final RowGroupStats stats;
+        private final long[][] fixedChunks;
+        // Keys with a chunk in this group, ascending
+        private final int[] keys;
+        private final long[][] keyChunks;
+
+        private RowGroup(RowGroupStats stats, long[][] fixedChunks, int[] keys, long[][] keyChunks) {
+            this.stats = stats;
+            this.fixedChunks = fixedChunks;
+            this.keys = keys;
+            this.keyChunks = keyChunks;
+        }
+
+        static RowGroup read(ByteSource footer, long firstRow) {
+            int rows = footer.readVarInt();
+            long minTime = footer.readSignedVarLong();
+            long maxTime = footer.readSignedVarLong();
+            int minScore = (int) footer.readSignedVarLong();
+            int maxScore = (int) footer.readSignedVarLong();
+            long[][] fixed = new long[FIXED_COLUMNS.length][];
+            for (int i = 0; i < fixed.length; i++) {
+                fixed[i] = readDescriptor(footer);
+            }
+            int keyCount = footer.readVarInt();
+            int[] keys = new int[keyCount];
+            long[][] keyChunks = new long[keyCount][];
+            for (int i = 0; i < keyCount; i++) {
+                keys[i] = footer.readVarInt();
+                keyChunks[i] = readDescriptor(footer);
+            }
+            return new RowGroup(new RowGroupStats(firstRow, rows, minTime, maxTime, minScore, maxScore),
+                    fixed, keys, keyChunks);
+        }
+
+        private static long[] readDescriptor(ByteSource footer) {
+            return new long[]{footer.readVarLong(), footer.readVarLong(), footer.readVarLong()};
+        }
+    }
+
+    /**
+     * The projected columns of one row group, shared by its {@link ArchiveRow}s.
+     */
+    static final class DecodedGroup {
+        final int rowCount;
+        final Set<ArchiveColumn> columns;
+        final String[] questionIds;
+        String[] sheetIds;
+        String[] quizIds;
+        String[] userIds;
+        long[] submissionTimes;
+        int[] scores;
+        List<List<UserAnswer>> answers;
+        UserAnswer[][] projected;
+
+        DecodedGroup(int rowCount, Set<ArchiveColumn> columns, String[] questionIds) {
+            this.rowCount = rowCount;
+            this.columns = columns;
+            this.questionIds = questionIds;
+        }
+    }
+}
@@ -0,0 +1,507 @@
+package com.example.quizdomainmodel.domain.archive;
+
+import com.example.quizdomainmodel.domain.archive.ColumnCodec.ByteSink;
+import com.example.quizdomainmodel.domain.model.AnswerSheet;
+import com.example.quizdomainmodel.domain.model.Choice;
+import com.example.quizdomainmodel.domain.model.MaterialQuestion;
+import com.example.quizdomainmodel.domain.model.Question;
+import com.example.quizdomainmodel.domain.model.Quiz;
+import com.example.quizdomainmodel.domain.model.UserAnswer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+/**
+ * Writes graded answer sheets into the columnar archive format read by {@link AnswerSheetArchive}.
+ * <p>
+ * Sheets are buffered into row groups of {@link #DEFAULT_ROW_GROUP_SIZE} rows. Each row group
+ * stores every column as its own Deflate-compressed chunk:
+ * <ul>
+ *     <li>sheet and user IDs as length-prefixed strings;</li>
+ *     <li>quiz IDs as codes into a dictionary in the footer;</li>
+ *     <li>submission times and scores as zigzag varint deltas from the previous row;</li>
+ *     <li>one chunk per question (and per sub-question of a material question), keyed by the
+ *     question dictionary in the footer: a presence bitmap, then each answer bit-packed as a
+ *     selection mask over the question's choices. Text answers, choices outside the question and
+ *     selections not in choice order take a raw section after the packed values instead.</li>
+ * </ul>
+ * A question answered twice on one sheet cannot share a column cell; such answers go to an
+ * overflow chunk stored with the {@link ArchiveColumn#ANSWERS} column.
+ * <p>
+ * The footer lists the dictionaries and, per row group, min/max submission time and score plus the
+ * position of every chunk, so readers fetch only the chunks a scan projects. It is followed by its
+ * length and the magic bytes, which makes the file readable from its end.
+ * <p>
+ * Answers are stored by question, so a restored sheet lists its answers in quiz order (sub-answers
+ * in the order of their sub-questions), followed by any overflow answers. Question IDs must not
+ * contain the character U+001F, which joins material and sub-question IDs in the dictionary.
+ * <p>
+ * The writer is not thread-safe. Column chunks of a row group are encoded in parallel.
+ */
+public final class AnswerSheetArchiveWriter implements Closeable {
+
+    public static final int DEFAULT_ROW_GROUP_SIZE = 16_384;
+
+    private final OutputStream out;
+    private final int rowGroupSize;
+    private final Map<String, Question> questionsById = new HashMap<>();
+
+    // Question dictionary: one column key per question and sub-question path
+    private final List<String> keyPaths = new ArrayList<>();
+    private final List<String[]> keyChoiceIds = new ArrayList<>();
+    private final List<Map<String, Integer>> keyChoiceIndex = new ArrayList<>();
+    private final Map<String, Integer> keyIndex = new HashMap<>();
+
+    private final List<String> quizIds = new ArrayList<>();
+    private final Map<String, Integer> quizIdIndex = new HashMap<>();
+
+    private final List<AnswerSheet> pendingSheets;
+    private int[] pendingScores;
+    private final List<RowGroupMeta> rowGroups = new ArrayList<>();
+    private final String quizId;
+    private long position;
+    private long rowCount;
+    private boolean closed;
+
+    /**
+     * Creates a writer with the default row group size.
+     *
+     * @see #AnswerSheetArchiveWriter(OutputStream, Quiz, int)
+     */
+    public AnswerSheetArchiveWriter(OutputStream out, Quiz quiz) throws IOException {
+        this(out, quiz, DEFAULT_ROW_GROUP_SIZE);
+    }
+
+    /**
+     * Creates a writer for the sheets of one quiz and writes the file header.
+     *
+     * @param out Destination of the archive; closed with the writer. Cannot be null.
+     * @param quiz The quiz the sheets answer. Its questions seed the dictionary and score
+     *             sheets appended without a score. Cannot be null.
+     * @param rowGroupSize Rows per row group. Must be positive.
+     */
+    public AnswerSheetArchiveWriter(OutputStream out, Quiz quiz, int rowGroupSize) throws IOException {
+        if (out == null) {
+            throw new IllegalArgumentException("Output stream cannot be null.");
+        }
+        if (quiz == null) {
+            throw new IllegalArgumentException("Quiz cannot be null.");
+        }
+        if (rowGroupSize < 1) {
+            throw new IllegalArgumentException("Row group size must be positive.");
+        }
+        this.out = out;
+        this.rowGroupSize = rowGroupSize;
+        this.quizId = quiz.getId();
+        this.pendingSheets = new ArrayList<>(Math.min(rowGroupSize, DEFAULT_ROW_GROUP_SIZE));
+        this.pendingScores = new int[Math.min(rowGroupSize, DEFAULT_ROW_GROUP_SIZE)];
+        for (Question question : quiz.getQuestions()) {
+            questionsById.put(question.getId(), question);
+            registerQuestion(question, question.getId());
+        }
+        write(ColumnCodec.MAGIC, ColumnCodec.MAGIC.length);
+    }
+
+    private void registerQuestion(Question question, String path) {
+        registerKey(path, question.getChoices());
+        if (question instanceof MaterialQuestion) {
+            for (Question subQuestion : ((MaterialQuestion) question).getSubQuestions()) {
+                registerQuestion(subQuestion, path + ColumnCodec.PATH_SEPARATOR + subQuestion.getId());
+            }
+        }
+    }
+
+    private int registerKey(String path, List<Choice> choices) {
+        Integer existing = keyIndex.get(path);
+        if (existing != null) {
+            return existing;
+        }
+        // Bit-packing covers up to 63 choices; larger questions store every answer raw
+        String[] choiceIds = choices.size() > 63 ? new String[0] : new String[choices.size()];
+        Map<String, Integer> index = new HashMap<>();
+        for (int i = 0; i < choiceIds.length; i++) {
+            choiceIds[i] = choices.get(i).getId();
+            index.putIfAbsent(choiceIds[i], i);
+        }
+        int key = keyPaths.size();
+        keyPaths.add(path);
+        keyChoiceIds.add(choiceIds);
+        keyChoiceIndex.add(index);
+        keyIndex.put(path, key);
+        return key;
+    }
+
+    /**
+     * Scores a sheet against the quiz and appends it.
+     */
+    public void append(AnswerSheet sheet) throws IOException {
+        if (sheet == null) {
+            throw new IllegalArgumentException("Answer sheet cannot be null.");
+        }
+        int score = 0;
+        for (UserAnswer answer : sheet.getUserAnswers()) {
+            Question question = questionsById.get(answer.getQuestionId());
+            if (question != null) {
+                score += AnswerSheet.calculateAnswerScore(answer, question);
+            }
+        }
+        append(sheet, score);
+    }
+
+    /**
+     * Appends a sheet with a score computed elsewhere, e.g. by the grading pipeline.
+     */
+    public void append(AnswerSheet sheet, int score) throws IOException {
+        if (sheet == null) {
+            throw new IllegalArgumentException("Answer sheet cannot be null.");
+        }
+        if (closed) {
+            throw new IllegalStateException("Archive writer is closed.");
+        }
+        if (pendingSheets.size() == pendingScores.length) {
+            pendingScores = Arrays.copyOf(pendingScores, Math.min(rowGroupSize, pendingScores.length * 2));
+        }
+        pendingScores[pendingSheets.size()] = score;
+        pendingSheets.add(sheet);
+        rowCount++;
+        if (pendingSheets.size() == rowGroupSize) {
+            flushRowGroup();
+        }
+    }
+
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    private void flushRowGroup() throws IOException {
+        int rows = pendingSheets.size();
+        if (rows == 0) {
+            return;
+        }
+        ByteSink sheetIds = new ByteSink(rows * 40);
+        ByteSink quizCodes = new ByteSink(rows);
+        ByteSink userIds = new ByteSink(rows * 16);
+        ByteSink times = new ByteSink(rows * 3);
+        ByteSink scores = new ByteSink(rows);
+        ByteSink overflow = new ByteSink(64);
+
+        long minTime = Long.MAX_VALUE;
+        long maxTime = Long.MIN_VALUE;
+        int minScore = Integer.MAX_VALUE;
+        int maxScore = Integer.MIN_VALUE;
+        long previousTime = 0;
+        long previousScore = 0;
+
+        List<KeyColumn> columns = new ArrayList<>();
+        List<Integer> overflowRows = new ArrayList<>();
+        List<UserAnswer> overflowAnswers = new ArrayList<>();
+        for (int row = 0; row < rows; row++) {
+            AnswerSheet sheet = pendingSheets.get(row);
+            int score = pendingScores[row];
+            sheetIds.writeString(sheet.getId());
+            quizCodes.writeVarInt(quizCode(sheet.getQuizId()));
+            userIds.writeString(sheet.getUserId());
+            times.writeSignedVarLong(sheet.getSubmissionTime() - previousTime);
+            scores.writeSignedVarLong(score - previousScore);
+            previousTime = sheet.getSubmissionTime();
+            previousScore = score;
+            minTime = Math.min(minTime, sheet.getSubmissionTime());
+            maxTime = Math.max(maxTime, sheet.getSubmissionTime());
+            minScore = Math.min(minScore, score);
+            maxScore = Math.max(maxScore, score);
+
+            for (UserAnswer answer : sheet.getUserAnswers()) {
+                if (fits(answer, answer.getQuestionId(), row, columns)) {
+                    place(answer, answer.getQuestionId(), row, columns);
+                } else {
+                    overflowRows.add(row);
+                    overflowAnswers.add(answer);
+                }
+            }
+        }
+        overflow.writeVarInt(overflowAnswers.size());
+        for (int i = 0; i < overflowAnswers.size(); i++) {
+            overflow.writeVarInt(overflowRows.get(i));
+            writeFullAnswer(overflow, overflowAnswers.get(i));
+        }
+
+        ByteSink[] fixed = {sheetIds, quizCodes, userIds, times, scores, overflow};
+        int[] usedKeys = IntStream.range(0, columns.size()).filter(k -> columns.get(k) != null).toArray();
+        // Chunks are independent: encode and compress them in parallel, write them in order
+        Chunk[] fixedChunks = IntStream.range(0, fixed.length).parallel()
+                .mapToObj(i -> Chunk.of(fixed[i]))
+                .toArray(Chunk[]::new);
+        Chunk[] keyChunks = Arrays.stream(usedKeys).parallel()
+                .mapToObj(k -> Chunk.of(encodeColumn(k, columns.get(k), rows)))
+                .toArray(Chunk[]::new);
+
+        RowGroupMeta meta = new RowGroupMeta(rows, minTime, maxTime, minScore, maxScore);
+        for (Chunk chunk : fixedChunks) {
+            meta.fixed.add(writeChunk(chunk));
+        }
+        for (int i = 0; i < usedKeys.length; i++) {
+            meta.keys.add(usedKeys[i]);
+            meta.keyChunks.add(writeChunk(keyChunks[i]));
+        }
+        rowGroups.add(meta);
+        pendingSheets.clear();
+    }
+
+    /**
+     * Checks that an answer and its sub-answers each find a free cell in their columns.
+     */
+    private boolean fits(UserAnswer answer, String path, int row, List<KeyColumn> columns) {
+        Integer key = keyIndex.get(path);
+        if (key != null && key < columns.size() && columns.get(key) != null && columns.get(key).lastRow() == row) {
+            return false;
+        }
+        List<UserAnswer> subAnswers = answer.getSubAnswers();
+        if (subAnswers.isEmpty()) {
+            return true;
+        }
+        Set<String> siblings = new HashSet<>();
+        for (UserAnswer subAnswer : subAnswers) {
+            if (!siblings.add(subAnswer.getQuestionId())
+                    || !fits(subAnswer, path + ColumnCodec.PATH_SEPARATOR + subAnswer.getQuestionId(), row, columns)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void place(UserAnswer answer, String path, int row, List<KeyColumn> columns) {
+        int key = registerKey(path, Collections.<Choice>emptyList());
+        while (columns.size() <= key) {
+            columns.add(null);
+        }
+        KeyColumn column = columns.get(key);
+        if (column == null) {
+            column = new KeyColumn();
+            columns.set(key, column);
+        }
+        column.add(row, answer);
+        for (UserAnswer subAnswer : answer.getSubAnswers()) {
+            place(subAnswer, path + ColumnCodec.PATH_SEPARATOR + subAnswer.getQuestionId(), row, columns);
+        }
+    }
+
+    private ByteSink encodeColumn(int key, KeyColumn column, int rows) {
+        String[] choiceIds = keyChoiceIds.get(key);
+        Map<String, Integer> choiceIndex = keyChoiceIndex.get(key);
+        int width = choiceIds.length + 1;
+        ByteSink sink = new ByteSink(column.size * width / 8 + rows / 8 + 16);
+        sink.writeVarInt(column.size);
+
+        int next = 0;
+        for (int row = 0; row < rows; row++) {
+            boolean present = next < column.size && column.rows[next] == row;
+            sink.writeBits(present ? 1 : 0, 1);
+            if (present) {
+                next++;
+            }
+        }
+        sink.flushBits();
+
+        // Low bit flags a raw value; the remaining bits are the selection mask
+        boolean[] raw = new boolean[column.size];
+        for (int i = 0; i < column.size; i++) {
+            UserAnswer value = column.values[i];
+            long mask = value.getFilledText() == null ? orderedMask(value.getSelectedChoiceIds(), choiceIndex) : -1;
+            raw[i] = mask < 0;
+            sink.writeBits(raw[i] ? 1 : mask << 1, width);
+        }
+        sink.flushBits();
+
+        for (int i = 0; i < column.size; i++) {
+            if (raw[i]) {
+                UserAnswer value = column.values[i];
+                sink.writeVarInt(value.getSelectedChoiceIds().size());
+                for (String choiceId : value.getSelectedChoiceIds()) {
+                    sink.writeString(choiceId);
+                }
+                sink.writeString(value.getFilledText());
+            }
+        }
+        return sink;
+    }
+
+    /**
+     * @return The selection mask, or -1 if the selection cannot be restored from one: a choice
+     * outside the question, a repeated choice or a selection not in choice order.
+     */
+    private static long orderedMask(List<String> selectedChoiceIds, Map<String, Integer> choiceIndex) {
+        long mask = 0;
+        int previous = -1;
+        for (String choiceId : selectedChoiceIds) {
+            Integer ordinal = choiceIndex.get(choiceId);
+            if (ordinal == null || ordinal <= previous) {
+                return -1;
+            }
+            mask |= 1L << ordinal;
+            previous = ordinal;
+        }
+        return mask;
+    }
+
+    static void writeFullAnswer(ByteSink sink, UserAnswer answer) {
+        sink.writeString(answer.getQuestionId());
+        sink.writeVarInt(answer.getSelectedChoiceIds().size());
+        for (String choiceId : answer.getSelectedChoiceIds()) {
+            sink.writeString(choiceId);
+        }
+        sink.writeString(answer.getFilledText());
+        sink.writeVarInt(answer.getSubAnswers().size());
+        for (UserAnswer subAnswer : answer.getSubAnswers()) {
+            writeFullAnswer(sink, subAnswer);
+        }
+    }
+
+    private int quizCode(String id) {
+        Integer code = quizIdIndex.get(id);
+        if (code == null) {
+            code = quizIds.size();
+            quizIds.add(id);
+            quizIdIndex.put(id, code);
+        }
+        return code;
+    }
+
+    private long[] writeChunk(Chunk chunk) throws IOException {
+        long offset = position;
+        write(chunk.compressed, chunk.compressed.length);
+        return new long[]{offset, chunk.compressed.length, chunk.rawLength};
+    }
+
+    private void write(byte[] bytes, int length) throws IOException {
+        out.write(bytes, 0, length);
+        position += length;
+    }
+
+    /**
+     * Flushes the last row group, writes the footer and closes the output stream.
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        try {
+            flushRowGroup();
+            ByteSink footer = new ByteSink(1024);
+            footer.writeVarInt(ColumnCodec.VERSION);
+            footer.writeString(quizId);
+            footer.writeVarInt(quizIds.size());
+            for (String id : quizIds) {
+                footer.writeString(id);
+            }
+            footer.writeVarInt(keyPaths.size());
+            for (int key = 0; key < keyPaths.size(); key++) {
+                footer.writeString(keyPaths.get(key));
+                String[] choiceIds = keyChoiceIds.get(key);
+                footer.writeVarInt(choiceIds.length);
+                for (String choiceId : choiceIds) {
+                    footer.writeString(choiceId);
+                }
+            }
+            footer.writeVarInt(rowGroups.size());
+            for (RowGroupMeta meta : rowGroups) {
+                meta.writeTo(footer);
+            }
+            write(footer.array(), footer.size());
+            int length = footer.size();
+            write(new byte[]{(byte) (length >>> 24), (byte) (length >>> 16), (byte) (length >>> 8), (byte) length}, 4);
+            write(ColumnCodec.MAGIC, ColumnCodec.MAGIC.length);
+            out.flush();
+        } finally {
+            closed = true;
+            out.close();
+        }
+    }
+
+    /**
+     * Answers of one question within the current row group, by increasing row.
+     */
+    private static final class KeyColumn {
+        private int[] rows = new int[16];
+        private UserAnswer[] values = new UserAnswer[16];
+        private int size;
+
+        void add(int row, UserAnswer value) {
+            if (size == rows.length) {
+                rows = Arrays.copyOf(rows, size * 2);
+                values = Arrays.copyOf(values, size * 2);
+            }
+            rows[size] = row;
+            values[size++] = value;
+        }
+
+        int lastRow() {
+            return size == 0 ? -1 : rows[size - 1];
+        }
+    }
+
+    private static final class Chunk {
+        private final byte[] compressed;
+        private final int rawLength;
+
+        private Chunk(byte[] compressed, int rawLength) {
+            this.compressed = compressed;
+            this.rawLength = rawLength;
+        }
+
+        static Chunk of(ByteSink sink) {
+            return new Chunk(ColumnCodec.deflate(sink.array(), sink.size()), sink.size());
+        }
+    }
+
+    private static final class RowGroupMeta {
+        private final int rowCount;
+        private final long minTime;
+        private final long maxTime;
+        private final int minScore;
+        private final int maxScore;
+        private final List<long[]> fixed = new ArrayList<>();
+        private final List<Integer> keys = new ArrayList<>();
+        private final List<long[]> keyChunks = new ArrayList<>();
+
+        RowGroupMeta(int rowCount, long minTime, long maxTime, int minScore, int maxScore) {
+            this.rowCount = rowCount;
+            this.minTime = minTime;
+            this.maxTime = maxTime;
+            this.minScore = minScore;
+            this.maxScore = maxScore;
+        }
+
+        void writeTo(ByteSink footer) {
+            footer.writeVarInt(rowCount);
+            footer.writeSignedVarLong(minTime);
+            footer.writeSignedVarLong(maxTime);
+            footer.writeSignedVarLong(minScore);
+            footer.writeSignedVarLong(maxScore);
+            for (long[] chunk : fixed) {
+                writeDescriptor(footer, chunk);
+            }
+            footer.writeVarInt(keys.size());
+            for (int i = 0; i < keys.size(); i++) {
+                footer.writeVarInt(keys.get(i));
+                writeDescriptor(footer, keyChunks.get(i));
+            }
+        }
+
+        private static void writeDescriptor(ByteSink footer, long[] chunk) {
+            footer.writeVarLong(chunk[0]);
+            footer.writeVarLong(chunk[1]);
+            footer.writeVarLong(chunk[2]);
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.quizdomainmodel.domain.archive;
+
+/**
+ * The columns of an answer sheet archive that a scan can project.
+ * Each is stored as its own compressed chunk per row group, so a scan reads only what it projects.
+ */
+public enum ArchiveColumn {
+    SHEET_ID,
+    QUIZ_ID,
+    USER_ID,
+    SUBMISSION_TIME,
+    SCORE,
+    /**
+     * All answers, enough to rebuild complete {@code AnswerSheet}s. To read single questions, project
+     * them with {@link ArchiveScan.ArchiveScanBuilder#question(String)} instead.
+     */
+    ANSWERS
+}
@@ -0,0 +1,90 @@
+package com.example.quizdomainmodel.domain.archive;
+
+import com.example.quizdomainmodel.domain.archive.AnswerSheetArchive.DecodedGroup;
+import com.example.quizdomainmodel.domain.model.AnswerSheet;
+import com.example.quizdomainmodel.domain.model.UserAnswer;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * One archived answer sheet as returned by a scan. Only projected columns can be read; the
+ * getters of other columns throw {@link IllegalStateException}.
+ */
+public final class ArchiveRow {
+
+    private final DecodedGroup group;
+    private final int row;
+
+    ArchiveRow(DecodedGroup group, int row) {
+        this.group = group;
+        this.row = row;
+    }
+
+    public String getSheetId() {
+        require(ArchiveColumn.SHEET_ID);
+        return group.sheetIds[row];
+    }
+
+    public String getQuizId() {
+        require(ArchiveColumn.QUIZ_ID);
+        return group.quizIds[row];
+    }
+
+    public String getUserId() {
+        require(ArchiveColumn.USER_ID);
+        return group.userIds[row];
+    }
+
+    public long getSubmissionTime() {
+        require(ArchiveColumn.SUBMISSION_TIME);
+        return group.submissionTimes[row];
+    }
+
+    public int getScore() {
+        require(ArchiveColumn.SCORE);
+        return group.scores[row];
+    }
+
+    /**
+     * @return All answers of the sheet, in quiz order followed by overflow answers.
+     */
+    public List<UserAnswer> getAnswers() {
+        require(ArchiveColumn.ANSWERS);
+        return Collections.unmodifiableList(group.answers.get(row));
+    }
+
+    /**
+     * Returns the answer to a top-level question, which must be projected by the scan either on
+     * its own or through {@link ArchiveColumn#ANSWERS}.
+     *
+     * @return The answer, or null if the sheet does not answer the question.
+     */
+    public UserAnswer getAnswer(String questionId) {
+        for (int q = 0; q < group.questionIds.length; q++) {
+            if (group.questionIds[q].equals(questionId)) {
+                return group.projected[q][row];
+            }
+        }
+        require(ArchiveColumn.ANSWERS);
+        for (UserAnswer answer : group.answers.get(row)) {
+            if (answer.getQuestionId().equals(questionId)) {
+                return answer;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Restores the archived sheet; requires every column to be projected.
+     */
+    public AnswerSheet toAnswerSheet() {
+        return new AnswerSheet(getSheetId(), getQuizId(), getUserId(), getSubmissionTime(), getAnswers());
+    }
+
+    private void require(ArchiveColumn column) {
+        if (!group.columns.contains(column)) {
+            throw new IllegalStateException("Column " + column + " is not projected by the scan.");
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.quizdomainmodel.domain.archive;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.Singular;
+import lombok.ToString;
+
+import java.util.List;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * What a scan of an {@link AnswerSheetArchive} reads: the projected columns, individual questions
+ * (top-level question IDs; a material question brings its sub-questions along) and a filter on
+ * row group statistics.
+ */
+@Getter
+@ToString
+@Builder
+public final class ArchiveScan {
+
+    @Singular private final Set<ArchiveColumn> columns;
+    @Singular("question") private final List<String> questionIds;
+    /** Row groups failing this filter are skipped without being read. */
+    @Builder.Default private final Predicate<RowGroupStats> rowGroupFilter = stats -> true;
+    /** Decode row groups in parallel; rows are returned in archive order either way. */
+    @Builder.Default private final boolean parallel = true;
+}
@@ -0,0 +1,247 @@
+package com.example.quizdomainmodel.domain.archive;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Low-level encodings of the archive format: LEB128 varints, zigzag for signed values,
+ * length-prefixed UTF-8 strings, bit-packing and Deflate compression of column chunks.
+ */
+final class ColumnCodec {
+
+    static final byte[] MAGIC = {'Q', 'Z', 'A', '1'};
+    static final int VERSION = 1;
+    // Joins a material question ID and a sub-question ID into one column key
+    static final char PATH_SEPARATOR = '\u001F';
+
+    private ColumnCodec() {
+    }
+
+    static byte[] deflate(byte[] data, int length) {
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION);
+        try {
+            deflater.setInput(data, 0, length);
+            deflater.finish();
+            byte[] out = new byte[Math.max(64, length / 2)];
+            int size = 0;
+            while (!deflater.finished()) {
+                if (size == out.length) {
+                    out = Arrays.copyOf(out, out.length * 2);
+                }
+                size += deflater.deflate(out, size, out.length - size);
+            }
+            return Arrays.copyOf(out, size);
+        } finally {
+            deflater.end();
+        }
+    }
+
+    static byte[] inflate(byte[] data, int rawLength) {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(data);
+            byte[] out = new byte[rawLength];
+            int size = 0;
+            while (size < rawLength && !inflater.finished()) {
+                int n = inflater.inflate(out, size, rawLength - size);
+                if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                size += n;
+            }
+            if (size != rawLength) {
+                throw new IllegalStateException("Corrupt archive: column chunk is truncated.");
+            }
+            return out;
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Corrupt archive: " + e.getMessage(), e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    /**
+     * Growable byte buffer with the archive's write primitives.
+     */
+    static final class ByteSink {
+        private byte[] buf;
+        private int size;
+        // Pending bits of the current bit-packed run
+        private long bitBuffer;
+        private int bitCount;
+
+        ByteSink(int initialCapacity) {
+            this.buf = new byte[Math.max(16, initialCapacity)];
+        }
+
+        int size() {
+            return size;
+        }
+
+        byte[] array() {
+            return buf;
+        }
+
+        void writeByte(int b) {
+            if (size == buf.length) {
+                buf = Arrays.copyOf(buf, buf.length * 2);
+            }
+            buf[size++] = (byte) b;
+        }
+
+        void writeBytes(byte[] bytes) {
+            if (size + bytes.length > buf.length) {
+                buf = Arrays.copyOf(buf, Math.max(buf.length * 2, size + bytes.length));
+            }
+            System.arraycopy(bytes, 0, buf, size, bytes.length);
+            size += bytes.length;
+        }
+
+        void writeVarLong(long value) {
+            while ((value & ~0x7FL) != 0) {
+                writeByte((int) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            writeByte((int) value);
+        }
+
+        void writeVarInt(int value) {
+            writeVarLong(value & 0xFFFFFFFFL);
+        }
+
+        void writeSignedVarLong(long value) {
+            writeVarLong(zigzag(value));
+        }
+
+        /**
+         * Writes a string as its UTF-8 length plus one (0 for null) followed by the bytes.
+         */
+        void writeString(String value) {
+            if (value == null) {
+                writeVarInt(0);
+                return;
+            }
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeVarInt(bytes.length + 1);
+            writeBytes(bytes);
+        }
+
+        /**
+         * Appends the low {@code width} bits of a value to the current bit-packed run.
+         */
+        void writeBits(long value, int width) {
+            if (width > 32) {
+                writeBits(value, 32);
+                writeBits(value >>> 32, width - 32);
+                return;
+            }
+            bitBuffer |= (value & ((1L << width) - 1)) << bitCount;
+            bitCount += width;
+            while (bitCount >= 8) {
+                writeByte((int) bitBuffer);
+                bitBuffer >>>= 8;
+                bitCount -= 8;
+            }
+        }
+
+        /**
+         * Pads the current bit-packed run to a byte boundary.
+         */
+        void flushBits() {
+            if (bitCount > 0) {
+                writeByte((int) bitBuffer);
+                bitBuffer = 0;
+                bitCount = 0;
+            }
+        }
+    }
+
+    /**
+     * Cursor over a byte array with the archive's read primitives.
+     */
+    static final class ByteSource {
+        private final byte[] buf;
+        private int pos;
+        private long bitBuffer;
+        private int bitCount;
+
+        ByteSource(byte[] buf) {
+            this.buf = buf;
+        }
+
+        int readByte() {
+            if (pos >= buf.length) {
+                throw new IllegalStateException("Corrupt archive: unexpected end of data.");
+            }
+            return buf[pos++] & 0xFF;
+        }
+
+        long readVarLong() {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                int b = readByte();
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IllegalStateException("Corrupt archive: varint too long.");
+        }
+
+        int readVarInt() {
+            return (int) readVarLong();
+        }
+
+        long readSignedVarLong() {
+            return unzigzag(readVarLong());
+        }
+
+        String readString() {
+            int length = readVarInt();
+            if (length == 0) {
+                return null;
+            }
+            length--;
+            if (length > buf.length - pos) {
+                throw new IllegalStateException("Corrupt archive: string overruns its chunk.");
+            }
+            String value = new String(buf, pos, length, StandardCharsets.UTF_8);
+            pos += length;
+            return value;
+        }
+
+        long readBits(int width) {
+            if (width > 32) {
+                long low = readBits(32);
+                return low | readBits(width - 32) << 32;
+            }
+            while (bitCount < width) {
+                bitBuffer |= (long) readByte() << bitCount;
+                bitCount += 8;
+            }
+            long value = bitBuffer & ((1L << width) - 1);
+            bitBuffer >>>= width;
+            bitCount -= width;
+            return value;
+        }
+
+        /**
+         * Skips the padding at the end of a bit-packed run.
+         */
+        void alignToByte() {
+            bitBuffer = 0;
+            bitCount = 0;
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.quizdomainmodel.domain.archive;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Statistics of one row group, kept in the archive footer. Scans test them before reading any
+ * column, so row groups outside a time or score range cost nothing.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public final class RowGroupStats {
+    /** Index of the group's first row in the archive. */
+    private final long firstRow;
+    private final int rowCount;
+    private final long minSubmissionTime;
+    private final long maxSubmissionTime;
+    private final int minScore;
+    private final int maxScore;
+}
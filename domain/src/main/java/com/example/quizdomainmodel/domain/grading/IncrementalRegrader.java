@@ -0,0 +1,268 @@
+package com.example.quizdomainmodel.domain.grading;
+
+import com.example.quizdomainmodel.domain.model.AnswerSheet;
+import com.example.quizdomainmodel.domain.model.MaterialQuestion;
+import com.example.quizdomainmodel.domain.model.Question;
+import com.example.quizdomainmodel.domain.model.UserAnswer;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps the total scores of a quiz's answer sheets up to date when a question changes after the
+ * exam, e.g. after fixing an answer key with {@code Question.setCorrectAnswer}.
+ * <p>
+ * An inverted index maps each top-level question ID to the answers that reference it, together
+ * with the score each answer currently contributes. Regrading a question re-scores only those
+ * answers with {@link AnswerSheet#calculateAnswerScore(UserAnswer, Question)} and applies the
+ * difference to the sheet totals, so the cost is proportional to the number of answers to that
+ * question rather than to the size of the whole exam. Totals always equal what
+ * {@link AnswerSheet#calculateTotalScore(List)} would return for the current questions.
+ * <p>
+ * Changing a sub-question of a {@link MaterialQuestion} regrades its parent, because the parent
+ * answer carries the sub-answers; sub-questions added after indexing are found as well.
+ * Instances are thread-safe.
+ */
+public final class IncrementalRegrader {
+
+    private final List<Question> quizQuestions;
+    // Top-level question ID -> question, first match wins like calculateTotalScore
+    private final Map<String, Question> questionsById = new HashMap<>();
+    // Sub-question ID -> ID of the top-level material question that contains it
+    private final Map<String, String> parentIdBySubQuestionId = new HashMap<>();
+    private final Map<String, Postings> postingsByQuestionId = new HashMap<>();
+    private final Map<String, Integer> sheetIndexById = new HashMap<>();
+    private final List<AnswerSheet> sheets = new ArrayList<>();
+    private int[] totals = new int[16];
+
+    /**
+     * Indexes the given answer sheets and computes their initial totals.
+     *
+     * @param quizQuestions The questions of the quiz. Cannot be null. Later mutations of these
+     *                      question objects are picked up by {@link #regrade(String)}.
+     * @param answerSheets The sheets submitted for the quiz. Cannot be null.
+     */
+    public IncrementalRegrader(List<Question> quizQuestions, Iterable<AnswerSheet> answerSheets) {
+        if (quizQuestions == null) {
+            throw new IllegalArgumentException("Quiz questions cannot be null.");
+        }
+        if (answerSheets == null) {
+            throw new IllegalArgumentException("Answer sheets cannot be null.");
+        }
+        this.quizQuestions = quizQuestions;
+        for (Question question : quizQuestions) {
+            if (questionsById.putIfAbsent(question.getId(), question) == null && question instanceof MaterialQuestion) {
+                for (Question subQuestion : ((MaterialQuestion) question).getSubQuestions()) {
+                    parentIdBySubQuestionId.putIfAbsent(subQuestion.getId(), question.getId());
+                }
+            }
+        }
+        for (AnswerSheet sheet : answerSheets) {
+            addSheet(sheet);
+        }
+    }
+
+    /**
+     * Indexes and scores one more answer sheet.
+     *
+     * @param sheet The sheet to add. Cannot be null and its ID must not already be indexed.
+     * @return The total score of the sheet.
+     */
+    public synchronized int addSheet(AnswerSheet sheet) {
+        if (sheet == null) {
+            throw new IllegalArgumentException("Answer sheet cannot be null.");
+        }
+        int sheetIndex = sheets.size();
+        if (sheetIndexById.putIfAbsent(sheet.getId(), sheetIndex) != null) {
+            throw new IllegalArgumentException("Answer sheet " + sheet.getId() + " is already indexed.");
+        }
+        sheets.add(sheet);
+        if (sheetIndex == totals.length) {
+            totals = Arrays.copyOf(totals, totals.length * 2);
+        }
+
+        int total = 0;
+        for (UserAnswer userAnswer : sheet.getUserAnswers()) {
+            Question question = questionsById.get(userAnswer.getQuestionId());
+            if (question == null) {
+                // Not part of the quiz; calculateTotalScore ignores it too
+                continue;
+            }
+            int score = AnswerSheet.calculateAnswerScore(userAnswer, question);
+            postingsByQuestionId.computeIfAbsent(question.getId(), id -> new Postings())
+                    .add(sheetIndex, userAnswer, score);
+            total += score;
+        }
+        totals[sheetIndex] = total;
+        return total;
+    }
+
+    /**
+     * Re-scores every answer affected by a change to the given question and updates the totals.
+     *
+     * @param questionId The ID of a top-level question or of a sub-question of a material question.
+     * @return The sheets whose total changed, with old and new totals.
+     * @throws IllegalArgumentException if the question is not part of the quiz.
+     */
+    public synchronized List<ScoreChange> regrade(String questionId) {
+        String topLevelId = topLevelIdOf(questionId);
+        Question question = topLevelId == null ? null : questionsById.get(topLevelId);
+        if (question == null) {
+            throw new IllegalArgumentException("Question " + questionId + " is not part of the quiz.");
+        }
+        Postings postings = postingsByQuestionId.get(topLevelId);
+        if (postings == null) {
+            return Collections.emptyList();
+        }
+
+        // A sheet may answer the same question more than once, so collect old totals first
+        Map<Integer, Integer> oldTotals = new HashMap<>();
+        for (int i = 0; i < postings.size; i++) {
+            int score = AnswerSheet.calculateAnswerScore(postings.answers[i], question);
+            int delta = score - postings.scores[i];
+            if (delta != 0) {
+                int sheetIndex = postings.sheetIndexes[i];
+                oldTotals.putIfAbsent(sheetIndex, totals[sheetIndex]);
+                totals[sheetIndex] += delta;
+                postings.scores[i] = score;
+            }
+        }
+
+        List<ScoreChange> changes = new ArrayList<>(oldTotals.size());
+        for (Map.Entry<Integer, Integer> entry : oldTotals.entrySet()) {
+            int sheetIndex = entry.getKey();
+            if (entry.getValue() != totals[sheetIndex]) {
+                changes.add(new ScoreChange(sheets.get(sheetIndex), entry.getValue(), totals[sheetIndex]));
+            }
+        }
+        return changes;
+    }
+
+    /**
+     * Resolves a question ID to the top-level question whose answers it affects. Sub-questions can
+     * be added to or moved between material questions after indexing, so a cached parent is
+     * checked against the current sub-questions and the material questions are searched again
+     * when it is missing or stale.
+     *
+     * @return The top-level question ID, or null if no question of the quiz has that ID.
+     */
+    private String topLevelIdOf(String questionId) {
+        String parentId = parentIdBySubQuestionId.get(questionId);
+        if (parentId != null && containsSubQuestion(questionsById.get(parentId), questionId)) {
+            return parentId;
+        }
+        parentIdBySubQuestionId.remove(questionId);
+        if (questionsById.containsKey(questionId)) {
+            return questionId;
+        }
+        // Quiz order, so that the first material question containing the ID wins as in the constructor
+        for (Question question : quizQuestions) {
+            if (questionsById.get(question.getId()) == question && containsSubQuestion(question, questionId)) {
+                parentIdBySubQuestionId.put(questionId, question.getId());
+                return question.getId();
+            }
+        }
+        return null;
+    }
+
+    private static boolean containsSubQuestion(Question question, String subQuestionId) {
+        if (!(question instanceof MaterialQuestion)) {
+            return false;
+        }
+        for (Question subQuestion : ((MaterialQuestion) question).getSubQuestions()) {
+            if (subQuestion.getId().equals(subQuestionId)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return The current total score of the sheet with the given ID.
+     * @throws IllegalArgumentException if the sheet is not indexed.
+     */
+    public synchronized int getTotalScore(String sheetId) {
+        Integer sheetIndex = sheetIndexById.get(sheetId);
+        if (sheetIndex == null) {
+            throw new IllegalArgumentException("Answer sheet " + sheetId + " is not indexed.");
+        }
+        return totals[sheetIndex];
+    }
+
+    /**
+     * @return The current totals of all indexed sheets, keyed by sheet ID.
+     */
+    public synchronized Map<String, Integer> getTotalScores() {
+        Map<String, Integer> result = new HashMap<>(sheets.size() * 2);
+        for (int i = 0; i < sheets.size(); i++) {
+            result.put(sheets.get(i).getId(), totals[i]);
+        }
+        return result;
+    }
+
+    /**
+     * Rescores every sheet from scratch with {@link AnswerSheet#calculateTotalScore(List)}.
+     * Does not modify the index; intended for verification and audits.
+     *
+     * @return Totals keyed by sheet ID.
+     */
+    public synchronized Map<String, Integer> fullRegrade() {
+        Map<String, Integer> result = new HashMap<>(sheets.size() * 2);
+        for (AnswerSheet sheet : sheets) {
+            result.put(sheet.getId(), sheet.calculateTotalScore(quizQuestions));
+        }
+        return result;
+    }
+
+    public synchronized int getSheetCount() {
+        return sheets.size();
+    }
+
+    /**
+     * Answers referencing one question, stored as parallel arrays to keep the index compact.
+     */
+    private static final class Postings {
+        private int[] sheetIndexes = new int[4];
+        private UserAnswer[] answers = new UserAnswer[4];
+        private int[] scores = new int[4];
+        private int size;
+
+        private void add(int sheetIndex, UserAnswer answer, int score) {
+            if (size == sheetIndexes.length) {
+                int capacity = size * 2;
+                sheetIndexes = Arrays.copyOf(sheetIndexes, capacity);
+                answers = Arrays.copyOf(answers, capacity);
+                scores = Arrays.copyOf(scores, capacity);
+            }
+            sheetIndexes[size] = sheetIndex;
+            answers[size] = answer;
+            scores[size] = score;
+            size++;
+        }
+    }
+
+    /**
+     * The total score of one answer sheet before and after a regrade.
+     */
+    @Getter
+    @ToString
+    @EqualsAndHashCode
+    @AllArgsConstructor
+    public static final class ScoreChange {
+        private final AnswerSheet sheet;
+        private final int oldScore;
+        private final int newScore;
+
+        public int getDelta() {
+            return newScore - oldScore;
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.quizdomainmodel.domain.ingest;
+
+/**
+ * What a producer experiences when the submission ring buffer is full.
+ */
+public enum BackpressurePolicy {
+    /**
+     * Reject the submission immediately. The caller is expected to retry or report an error.
+     */
+    REJECT,
+
+    /**
+     * Wait for a free slot, up to the service's configured offer timeout, then reject.
+     */
+    BLOCK
+}
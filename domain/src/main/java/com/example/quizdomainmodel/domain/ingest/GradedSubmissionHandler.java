@@ -0,0 +1,29 @@
+package com.example.quizdomainmodel.domain.ingest;
+
+import com.example.quizdomainmodel.domain.model.AnswerSheet;
+
+/**
+ * Receives graded submissions from the ingestion service's grader workers.
+ * <p>
+ * Called concurrently from several worker threads; implementations must be thread-safe.
+ */
+@FunctionalInterface
+public interface GradedSubmissionHandler {
+
+    /**
+     * @param sheet The submitted answer sheet.
+     * @param totalScore The score computed for the sheet.
+     */
+    void onGraded(AnswerSheet sheet, int totalScore);
+
+    /**
+     * Called when a sheet could not be graded, e.g. because its quiz is unknown or
+     * {@link #onGraded(AnswerSheet, int)} threw. Failures are counted by the service either way;
+     * the default implementation ignores them.
+     *
+     * @param sheet The submitted answer sheet.
+     * @param error The failure.
+     */
+    default void onFailed(AnswerSheet sheet, RuntimeException error) {
+    }
+}
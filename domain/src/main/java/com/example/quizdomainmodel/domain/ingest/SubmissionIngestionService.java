@@ -0,0 +1,287 @@
+package com.example.quizdomainmodel.domain.ingest;
+
+import com.example.quizdomainmodel.domain.model.AnswerSheet;
+import com.example.quizdomainmodel.domain.model.Question;
+import lombok.Builder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+
+/**
+ * In-process ingestion stage between submission endpoints and grading.
+ * <p>
+ * Producers publish {@link AnswerSheet}s into a bounded, preallocated {@link SubmissionRingBuffer};
+ * a fixed pool of grader workers drains it in batches, scores each sheet and hands the result to a
+ * {@link GradedSubmissionHandler}. When the buffer is full the configured
+ * {@link BackpressurePolicy} decides whether producers are rejected at once or wait for space.
+ * Sheets that fail to grade are counted in {@link #getFailedCount()} and reported to
+ * {@link GradedSubmissionHandler#onFailed(AnswerSheet, RuntimeException)}. Latency is tracked
+ * separately for queue wait, grading and end-to-end.
+ */
+public final class SubmissionIngestionService implements AutoCloseable {
+
+    private static final int IDLE_SPINS = 100;
+    private static final long IDLE_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+    private final SubmissionRingBuffer ringBuffer;
+    private final Function<String, List<Question>> quizQuestions;
+    private final GradedSubmissionHandler handler;
+    private final BackpressurePolicy backpressurePolicy;
+    private final long offerTimeoutNanos;
+    private final int batchSize;
+    private final List<Thread> workers;
+
+    private final LatencyStats queueWait = new LatencyStats("queue-wait");
+    private final LatencyStats grading = new LatencyStats("grading");
+    private final LatencyStats endToEnd = new LatencyStats("end-to-end");
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder graded = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    // Producers between their running check and publication; workers wait for them on close
+    private final AtomicInteger activeProducers = new AtomicInteger();
+
+    private volatile boolean running;
+
+    /**
+     * Creates and starts the service.
+     *
+     * @param capacity Ring buffer size. Must be a positive power of two.
+     * @param graderThreads Number of grader workers. Must be >= 1.
+     * @param batchSize Maximum submissions a worker drains at once. Must be >= 1.
+     * @param backpressurePolicy Behaviour when the buffer is full. Defaults to {@link BackpressurePolicy#REJECT}.
+     * @param offerTimeoutMillis How long {@link BackpressurePolicy#BLOCK} waits for a slot.
+     * @param quizQuestions Resolves the questions of a quiz by quiz ID. Cannot be null.
+     * @param handler Receives graded submissions. Cannot be null.
+     */
+    @Builder
+    private SubmissionIngestionService(int capacity, int graderThreads, int batchSize,
+                                       BackpressurePolicy backpressurePolicy, long offerTimeoutMillis,
+                                       Function<String, List<Question>> quizQuestions,
+                                       GradedSubmissionHandler handler) {
+        if (graderThreads < 1) {
+            throw new IllegalArgumentException("At least one grader thread is required.");
+        }
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be at least 1.");
+        }
+        if (offerTimeoutMillis < 0) {
+            throw new IllegalArgumentException("Offer timeout cannot be negative.");
+        }
+        if (quizQuestions == null) {
+            throw new IllegalArgumentException("Quiz question resolver cannot be null.");
+        }
+        if (handler == null) {
+            throw new IllegalArgumentException("Graded submission handler cannot be null.");
+        }
+        this.ringBuffer = new SubmissionRingBuffer(capacity);
+        this.quizQuestions = quizQuestions;
+        this.handler = handler;
+        this.backpressurePolicy = backpressurePolicy != null ? backpressurePolicy : BackpressurePolicy.REJECT;
+        this.offerTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(offerTimeoutMillis);
+        this.batchSize = batchSize;
+
+        this.running = true;
+        this.workers = new ArrayList<>(graderThreads);
+        for (int i = 0; i < graderThreads; i++) {
+            Thread worker = new Thread(this::runGrader, "submission-grader-" + i);
+            worker.setDaemon(true);
+            workers.add(worker);
+            worker.start();
+        }
+    }
+
+    /**
+     * Submits an answer sheet for grading.
+     *
+     * @param sheet The submitted sheet. Cannot be null.
+     * @return true if the sheet was accepted, false if it was rejected by the backpressure policy.
+     * @throws IllegalStateException if the service has been closed.
+     */
+    public boolean submit(AnswerSheet sheet) {
+        if (sheet == null) {
+            throw new IllegalArgumentException("Answer sheet cannot be null.");
+        }
+        activeProducers.incrementAndGet();
+        boolean published;
+        try {
+            if (!running) {
+                throw new IllegalStateException("Ingestion service is closed.");
+            }
+            long now = System.nanoTime();
+            published = ringBuffer.offer(sheet, now);
+            if (!published && backpressurePolicy == BackpressurePolicy.BLOCK) {
+                long deadline = now + offerTimeoutNanos;
+                int spins = 0;
+                while (!published && running && System.nanoTime() - deadline < 0) {
+                    idle(spins++);
+                    published = ringBuffer.offer(sheet, System.nanoTime());
+                }
+            }
+        } finally {
+            activeProducers.decrementAndGet();
+        }
+        if (published) {
+            accepted.increment();
+        } else {
+            rejected.increment();
+        }
+        return published;
+    }
+
+    /**
+     * Stops accepting submissions. Workers keep draining everything already accepted; use
+     * {@link #awaitTermination(long, TimeUnit)} to wait for them.
+     */
+    public void shutdown() {
+        running = false;
+    }
+
+    /**
+     * Blocks until every worker has drained the buffer and stopped, or the timeout elapses.
+     *
+     * @return true if all workers have stopped, false if the timeout elapsed first.
+     * @throws InterruptedException if the calling thread is interrupted while waiting.
+     */
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        for (Thread worker : workers) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                return !anyWorkerAlive();
+            }
+            TimeUnit.NANOSECONDS.timedJoin(worker, remaining);
+        }
+        return !anyWorkerAlive();
+    }
+
+    private boolean anyWorkerAlive() {
+        for (Thread worker : workers) {
+            if (worker.isAlive()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Stops accepting submissions, lets the workers drain everything already accepted and waits
+     * for them to finish. If the calling thread is interrupted, it stops waiting and returns with
+     * its interrupt flag set; the workers still finish draining in the background.
+     */
+    @Override
+    public void close() {
+        shutdown();
+        try {
+            for (Thread worker : workers) {
+                worker.join();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void runGrader() {
+        AnswerSheet[] sheets = new AnswerSheet[batchSize];
+        long[] enqueuedAt = new long[batchSize];
+        int idleSpins = 0;
+        while (true) {
+            int drained = ringBuffer.drainTo(sheets, enqueuedAt, batchSize);
+            if (drained == 0) {
+                if (!running && activeProducers.get() == 0 && ringBuffer.size() == 0) {
+                    return;
+                }
+                idle(idleSpins++);
+                continue;
+            }
+            idleSpins = 0;
+            long dequeuedAt = System.nanoTime();
+            for (int i = 0; i < drained; i++) {
+                queueWait.record(dequeuedAt - enqueuedAt[i]);
+            }
+            for (int i = 0; i < drained; i++) {
+                grade(sheets[i], enqueuedAt[i]);
+                sheets[i] = null;
+            }
+        }
+    }
+
+    private void grade(AnswerSheet sheet, long enqueuedAt) {
+        long start = System.nanoTime();
+        try {
+            List<Question> questions = quizQuestions.apply(sheet.getQuizId());
+            if (questions == null) {
+                throw new IllegalStateException("Unknown quiz: " + sheet.getQuizId());
+            }
+            int score = sheet.calculateTotalScore(questions);
+            long end = System.nanoTime();
+            grading.record(end - start);
+            handler.onGraded(sheet, score);
+            endToEnd.record(System.nanoTime() - enqueuedAt);
+            graded.increment();
+        } catch (RuntimeException e) {
+            // A bad submission must not take a grader worker down
+            failed.increment();
+            reportFailure(sheet, e);
+        }
+    }
+
+    private void reportFailure(AnswerSheet sheet, RuntimeException error) {
+        try {
+            handler.onFailed(sheet, error);
+        } catch (RuntimeException ignored) {
+            // Already counted in getFailedCount(); a failing handler must not stop the worker either
+        }
+    }
+
+    private static void idle(int spins) {
+        if (spins < IDLE_SPINS) {
+            Thread.onSpinWait();
+        } else {
+            LockSupport.parkNanos(IDLE_PARK_NANOS);
+        }
+    }
+
+    public int getCapacity() {
+        return ringBuffer.capacity();
+    }
+
+    /**
+     * @return An approximate number of accepted submissions not yet drained by a worker.
+     */
+    public int getBacklog() {
+        return ringBuffer.size();
+    }
+
+    public long getAcceptedCount() {
+        return accepted.sum();
+    }
+
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    public long getGradedCount() {
+        return graded.sum();
+    }
+
+    public long getFailedCount() {
+        return failed.sum();
+    }
+
+    /**
+     * @return Latency snapshots for the queue-wait, grading and end-to-end stages.
+     */
+    public List<LatencyStats.Snapshot> getLatencySnapshots() {
+        List<LatencyStats.Snapshot> snapshots = new ArrayList<>(3);
+        snapshots.add(queueWait.snapshot());
+        snapshots.add(grading.snapshot());
+        snapshots.add(endToEnd.snapshot());
+        return snapshots;
+    }
+}
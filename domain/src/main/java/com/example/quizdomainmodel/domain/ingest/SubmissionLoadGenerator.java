@@ -0,0 +1,98 @@
+package com.example.quizdomainmodel.domain.ingest;
+
+import com.example.quizdomainmodel.domain.model.AnswerSheet;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongFunction;
+
+/**
+ * Local load generator that simulates a deadline burst against a {@link SubmissionIngestionService}.
+ * <p>
+ * All producer threads are released at the same instant and submit as fast as they can, which is
+ * the worst case the ingestion stage must absorb. Sheets are created by the supplied factory
+ * from a global sequence number, so runs are reproducible.
+ */
+public final class SubmissionLoadGenerator {
+
+    private final int producerThreads;
+    private final long submissionsPerProducer;
+    private final LongFunction<AnswerSheet> sheetFactory;
+
+    /**
+     * @param producerThreads Number of concurrent producers. Must be >= 1.
+     * @param submissionsPerProducer Submissions each producer sends. Must be >= 0.
+     * @param sheetFactory Creates the sheet for a global sequence number. Cannot be null.
+     */
+    public SubmissionLoadGenerator(int producerThreads, long submissionsPerProducer,
+                                   LongFunction<AnswerSheet> sheetFactory) {
+        if (producerThreads < 1) {
+            throw new IllegalArgumentException("At least one producer thread is required.");
+        }
+        if (submissionsPerProducer < 0) {
+            throw new IllegalArgumentException("Submissions per producer cannot be negative.");
+        }
+        if (sheetFactory == null) {
+            throw new IllegalArgumentException("Sheet factory cannot be null.");
+        }
+        this.producerThreads = producerThreads;
+        this.submissionsPerProducer = submissionsPerProducer;
+        this.sheetFactory = sheetFactory;
+    }
+
+    /**
+     * Runs the burst and blocks until every producer has finished submitting. Grading may still be
+     * in progress when this returns; close the service to wait for it.
+     */
+    public Report run(SubmissionIngestionService service) throws InterruptedException {
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(producerThreads);
+        LongAdder accepted = new LongAdder();
+        LongAdder rejected = new LongAdder();
+
+        for (int p = 0; p < producerThreads; p++) {
+            long first = p * submissionsPerProducer;
+            Thread producer = new Thread(() -> {
+                try {
+                    start.await();
+                    for (long i = 0; i < submissionsPerProducer; i++) {
+                        if (service.submit(sheetFactory.apply(first + i))) {
+                            accepted.increment();
+                        } else {
+                            rejected.increment();
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            }, "submission-producer-" + p);
+            producer.start();
+        }
+
+        long startNanos = System.nanoTime();
+        start.countDown();
+        done.await();
+        return new Report(accepted.sum(), rejected.sum(), System.nanoTime() - startNanos);
+    }
+
+    /**
+     * Outcome of one load run as seen by the producers.
+     */
+    @Getter
+    @ToString
+    @AllArgsConstructor
+    public static final class Report {
+        private final long accepted;
+        private final long rejected;
+        private final long elapsedNanos;
+
+        public double getSubmissionsPerSecond() {
+            return elapsedNanos == 0 ? 0 : (accepted + rejected) * 1_000_000_000.0 / elapsedNanos;
+        }
+    }
+}
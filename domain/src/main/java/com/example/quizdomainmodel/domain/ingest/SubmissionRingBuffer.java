@@ -0,0 +1,110 @@
+package com.example.quizdomainmodel.domain.ingest;
+
+import com.example.quizdomainmodel.domain.model.AnswerSheet;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bounded, preallocated multi-producer / multi-consumer ring buffer of submissions.
+ * <p>
+ * Every slot is allocated up front and reused, so steady-state ingestion allocates nothing per
+ * submission. Each slot carries a sequence number that tells producers whether it is free for
+ * the current lap and consumers whether it has been published (Vyukov's bounded queue), which
+ * lets several producers and several grader workers operate without locks.
+ */
+final class SubmissionRingBuffer {
+
+    private static final class Slot {
+        private AnswerSheet sheet;
+        private long enqueuedAtNanos;
+    }
+
+    private final int mask;
+    private final Slot[] slots;
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLong head = new AtomicLong();
+
+    /**
+     * @param capacity The number of slots. Must be a positive power of two.
+     */
+    SubmissionRingBuffer(int capacity) {
+        if (capacity <= 0 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacity must be a positive power of two.");
+        }
+        this.mask = capacity - 1;
+        this.slots = new Slot[capacity];
+        this.sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            slots[i] = new Slot();
+            sequences.set(i, i);
+        }
+    }
+
+    int capacity() {
+        return slots.length;
+    }
+
+    /**
+     * Publishes a submission if a slot is free.
+     *
+     * @return false if the buffer is full.
+     */
+    boolean offer(AnswerSheet sheet, long enqueuedAtNanos) {
+        while (true) {
+            long position = tail.get();
+            int index = (int) position & mask;
+            long difference = sequences.get(index) - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    Slot slot = slots[index];
+                    slot.sheet = sheet;
+                    slot.enqueuedAtNanos = enqueuedAtNanos;
+                    // Publishing the sequence makes the slot contents visible to consumers
+                    sequences.set(index, position + 1);
+                    return true;
+                }
+            } else if (difference < 0) {
+                return false;
+            }
+            // Another producer claimed this position; retry with the new tail
+        }
+    }
+
+    /**
+     * Removes up to {@code maxBatch} published submissions into the caller's arrays.
+     *
+     * @return The number of submissions drained, 0 if the buffer is empty.
+     */
+    int drainTo(AnswerSheet[] sheets, long[] enqueuedAtNanos, int maxBatch) {
+        int drained = 0;
+        while (drained < maxBatch) {
+            long position = head.get();
+            int index = (int) position & mask;
+            long difference = sequences.get(index) - (position + 1);
+            if (difference == 0) {
+                if (head.compareAndSet(position, position + 1)) {
+                    Slot slot = slots[index];
+                    sheets[drained] = slot.sheet;
+                    enqueuedAtNanos[drained] = slot.enqueuedAtNanos;
+                    // Drop the reference so the sheet can be collected once graded
+                    slot.sheet = null;
+                    sequences.set(index, position + mask + 1);
+                    drained++;
+                }
+            } else if (difference < 0) {
+                break;
+            }
+        }
+        return drained;
+    }
+
+    /**
+     * @return An approximate number of published, not yet drained submissions.
+     */
+    int size() {
+        long size = tail.get() - head.get();
+        return (int) Math.max(0, Math.min(size, slots.length));
+    }
+}
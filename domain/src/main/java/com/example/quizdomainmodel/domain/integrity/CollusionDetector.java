@@ -0,0 +1,426 @@
+package com.example.quizdomainmodel.domain.integrity;
+
+import com.example.quizdomainmodel.domain.model.AnswerKey;
+import com.example.quizdomainmodel.domain.model.AnswerSheet;
+import com.example.quizdomainmodel.domain.model.MaterialQuestion;
+import com.example.quizdomainmodel.domain.model.Question;
+import com.example.quizdomainmodel.domain.model.Quiz;
+import com.example.quizdomainmodel.domain.model.UserAnswer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Flags pairs of candidates whose answer sheets share suspiciously many identical wrong answers.
+ * <p>
+ * Comparing every pair of sheets is quadratic, so detection runs in three parallel passes:
+ * <ol>
+ *     <li><b>Encoding.</b> Every scored item (a question, or a sub-question of a material
+ *     question) gets an index. Each sheet becomes one 64-bit response code per item, from the
+ *     {@link AnswerKey} selection mask or the normalized text, plus a bitmap of the items it got
+ *     wrong.</li>
+ *     <li><b>Candidate generation.</b> The wrong responses of a sheet, as (item, response)
+ *     tokens, get a MinHash signature split into bands. Sheets whose band values all match land in
+ *     the same bucket, and only pairs sharing a bucket are considered; see
+ *     {@link CollusionPolicy} for the trade-off.</li>
+ *     <li><b>Verification.</b> Each candidate pair is scored exactly against the response
+ *     frequencies of the whole cohort, as described in {@link SuspiciousPair}.</li>
+ * </ol>
+ * The cost is roughly linear in the number of sheets. {@code CollusionDetectionBenchmark} scans a
+ * 100,000-sheet, 80-item exam in about ten seconds on a single core, and the passes scale with the
+ * cores available. Sheets with fewer wrong answers than
+ * {@link CollusionPolicy#getMinIdenticalWrongAnswers()} cannot be flagged and are not indexed.
+ * <p>
+ * A flag is statistical evidence, not proof: it should lead to a review of the pair's seating,
+ * timing and answers. Instances are immutable and thread-safe.
+ */
+public final class CollusionDetector {
+
+    // Sheet index in the low bits of a band key, so that sorting keys groups sheets by bucket
+    private static final int SHEET_INDEX_BITS = 24;
+    private static final long SHEET_INDEX_MASK = (1L << SHEET_INDEX_BITS) - 1;
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    private final CollusionPolicy policy;
+    // Scored items, in quiz order
+    private final Question[] items;
+    private final Map<String, Integer> itemByQuestionId = new HashMap<>();
+    // Material question ID -> sub-question ID -> item
+    private final Map<String, Map<String, Integer>> itemBySubQuestionId = new HashMap<>();
+    private final long[] hashSeeds;
+
+    /**
+     * @param quiz The quiz whose answer sheets are compared. Cannot be null.
+     * @param policy Candidate generation and flagging thresholds. Cannot be null.
+     */
+    public CollusionDetector(Quiz quiz, CollusionPolicy policy) {
+        if (quiz == null) {
+            throw new IllegalArgumentException("Quiz cannot be null.");
+        }
+        if (policy == null) {
+            throw new IllegalArgumentException("Collusion policy cannot be null.");
+        }
+        policy.validate();
+        this.policy = policy;
+
+        List<Question> scored = new ArrayList<>();
+        for (Question question : quiz.getQuestions()) {
+            if (question instanceof MaterialQuestion) {
+                Map<String, Integer> subItems = new HashMap<>();
+                for (Question subQuestion : ((MaterialQuestion) question).getSubQuestions()) {
+                    if (subItems.putIfAbsent(subQuestion.getId(), scored.size()) == null) {
+                        scored.add(subQuestion);
+                    }
+                }
+                itemBySubQuestionId.putIfAbsent(question.getId(), subItems);
+            } else if (itemByQuestionId.putIfAbsent(question.getId(), scored.size()) == null) {
+                scored.add(question);
+            }
+        }
+        this.items = scored.toArray(new Question[0]);
+
+        SplittableRandom random = new SplittableRandom(policy.getSeed());
+        this.hashSeeds = new long[policy.getBands() * policy.getRowsPerBand()];
+        for (int j = 0; j < hashSeeds.length; j++) {
+            hashSeeds[j] = random.nextLong();
+        }
+    }
+
+    /**
+     * Compares the answer sheets of one sitting of the quiz.
+     *
+     * @param sheets The sheets. Cannot be null; at most 2^24 - 1 sheets.
+     * @return The flagged pairs and run statistics.
+     */
+    public CollusionReport detect(List<AnswerSheet> sheets) {
+        if (sheets == null) {
+            throw new IllegalArgumentException("Answer sheets cannot be null.");
+        }
+        if (sheets.size() > SHEET_INDEX_MASK || (long) sheets.size() * items.length > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Too many sheets to compare at once: " + sheets.size());
+        }
+        long start = System.nanoTime();
+        Encoded encoded = encode(sheets);
+
+        int[] indexed = IntStream.range(0, encoded.sheetCount)
+                .filter(sheet -> encoded.wrongCounts[sheet] >= policy.getMinIdenticalWrongAnswers())
+                .toArray();
+        LongAdder skippedBuckets = new LongAdder();
+        long[][] bandKeys = bandKeys(encoded, indexed);
+        long[][] bandPairs = IntStream.range(0, bandKeys.length).parallel()
+                .mapToObj(band -> bucketPairs(bandKeys[band], skippedBuckets))
+                .toArray(long[][]::new);
+        long[] candidates = distinct(bandPairs);
+
+        double pairThreshold = policy.getSignificance() / Math.max(1.0, sheets.size() * (sheets.size() - 1.0) / 2);
+        Comparator<SuspiciousPair> ranking = Comparator.comparingDouble(SuspiciousPair::getZScore).reversed()
+                .thenComparing(SuspiciousPair::getFirstSheetId)
+                .thenComparing(SuspiciousPair::getSecondSheetId);
+        List<SuspiciousPair> pairs = Arrays.stream(candidates).parallel()
+                .mapToObj(pair -> verify(encoded, sheets, pairThreshold, (int) (pair >>> 32), (int) pair))
+                .filter(Objects::nonNull)
+                .sorted(ranking)
+                .limit(policy.getMaxPairs())
+                .collect(Collectors.toList());
+        return new CollusionReport(pairs, sheets.size(), indexed.length, candidates.length,
+                skippedBuckets.sum(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private Encoded encode(List<AnswerSheet> sheets) {
+        Encoded encoded = new Encoded(sheets.size(), items.length);
+        IntStream.range(0, encoded.sheetCount).parallel().forEach(sheet -> {
+            for (UserAnswer answer : sheets.get(sheet).getUserAnswers()) {
+                Integer item = itemByQuestionId.get(answer.getQuestionId());
+                if (item != null) {
+                    record(encoded, sheet, item, answer);
+                    continue;
+                }
+                Map<String, Integer> subItems = itemBySubQuestionId.get(answer.getQuestionId());
+                if (subItems != null) {
+                    for (UserAnswer subAnswer : answer.getSubAnswers()) {
+                        Integer subItem = subItems.get(subAnswer.getQuestionId());
+                        if (subItem != null) {
+                            record(encoded, sheet, subItem, subAnswer);
+                        }
+                    }
+                }
+            }
+        });
+        encoded.matchProbabilities = IntStream.range(0, items.length).parallel()
+                .mapToDouble(item -> matchProbability(encoded, item))
+                .toArray();
+        return encoded;
+    }
+
+    private void record(Encoded encoded, int sheet, int item, UserAnswer answer) {
+        int slot = sheet * encoded.itemCount + item;
+        if (encoded.responses[slot] != 0) {
+            // Like grading, only the first answer to an item counts
+            return;
+        }
+        Question question = items[item];
+        long code = responseCode(question, answer);
+        if (code == 0) {
+            return;
+        }
+        encoded.responses[slot] = code;
+        if (AnswerSheet.calculateAnswerScore(answer, question) < question.getPoints()) {
+            encoded.wrong[sheet * encoded.words + (item >>> 6)] |= 1L << item;
+            encoded.wrongCounts[sheet]++;
+        }
+    }
+
+    /**
+     * @return A code that is equal for equal responses, or 0 for a blank answer.
+     */
+    private static long responseCode(Question question, UserAnswer answer) {
+        long code;
+        if (answer.getFilledText() != null) {
+            String normalized = AnswerKey.normalizeText(answer.getFilledText());
+            if (normalized.isEmpty()) {
+                return 0;
+            }
+            code = mix64(normalized.hashCode() ^ 0x7E47L << 32);
+        } else if (answer.getSelectedChoiceIds().isEmpty()) {
+            return 0;
+        } else {
+            long mask = question.getAnswerKey().selectionMask(answer.getSelectedChoiceIds());
+            code = mask >= 0
+                    ? mix64(mask * GOLDEN_GAMMA + 1)
+                    : mix64(answer.getSelectedChoiceIds().hashCode() ^ 0x07E4L << 32);
+        }
+        return code == 0 ? 1 : code;
+    }
+
+    /**
+     * @return The probability that two candidates who both got the item wrong chose the same
+     * wrong response, from the cohort's wrong response frequencies.
+     */
+    private static double matchProbability(Encoded encoded, int item) {
+        Map<Long, Integer> counts = new HashMap<>();
+        int wrong = 0;
+        for (int sheet = 0; sheet < encoded.sheetCount; sheet++) {
+            if (encoded.isWrong(sheet, item)) {
+                counts.merge(encoded.responses[sheet * encoded.itemCount + item], 1, Integer::sum);
+                wrong++;
+            }
+        }
+        double probability = 0;
+        for (int count : counts.values()) {
+            double share = (double) count / wrong;
+            probability += share * share;
+        }
+        return probability;
+    }
+
+    /**
+     * Computes the MinHash signature of every indexed sheet's wrong responses and folds it into
+     * one key per band, tagged with the sheet index.
+     */
+    private long[][] bandKeys(Encoded encoded, int[] indexed) {
+        int bands = policy.getBands();
+        int rows = policy.getRowsPerBand();
+        long[][] keys = new long[bands][indexed.length];
+        IntStream.range(0, indexed.length).parallel().forEach(k -> {
+            int sheet = indexed[k];
+            long[] minima = new long[hashSeeds.length];
+            Arrays.fill(minima, Long.MAX_VALUE);
+            for (int w = 0; w < encoded.words; w++) {
+                for (long bits = encoded.wrong[sheet * encoded.words + w]; bits != 0; bits &= bits - 1) {
+                    int item = w * 64 + Long.numberOfTrailingZeros(bits);
+                    long token = mix64(encoded.responses[sheet * encoded.itemCount + item] + item * GOLDEN_GAMMA);
+                    for (int j = 0; j < minima.length; j++) {
+                        minima[j] = Math.min(minima[j], mix64(token ^ hashSeeds[j]));
+                    }
+                }
+            }
+            for (int band = 0; band < bands; band++) {
+                long key = band;
+                for (int r = 0; r < rows; r++) {
+                    key = mix64(key * GOLDEN_GAMMA + minima[band * rows + r]);
+                }
+                keys[band][k] = (key & ~SHEET_INDEX_MASK) | sheet;
+            }
+        });
+        return keys;
+    }
+
+    /**
+     * Sorts one band's keys and emits every pair of sheets sharing a bucket.
+     */
+    private long[] bucketPairs(long[] keys, LongAdder skippedBuckets) {
+        Arrays.sort(keys);
+        long[] pairs = new long[16];
+        int size = 0;
+        for (int start = 0; start < keys.length; ) {
+            long bucket = keys[start] & ~SHEET_INDEX_MASK;
+            int end = start + 1;
+            while (end < keys.length && (keys[end] & ~SHEET_INDEX_MASK) == bucket) {
+                end++;
+            }
+            if (end - start > policy.getMaxBucketSize()) {
+                skippedBuckets.increment();
+            } else {
+                for (int a = start; a < end; a++) {
+                    for (int b = a + 1; b < end; b++) {
+                        if (size == pairs.length) {
+                            pairs = Arrays.copyOf(pairs, size * 2);
+                        }
+                        long first = keys[a] & SHEET_INDEX_MASK;
+                        long second = keys[b] & SHEET_INDEX_MASK;
+                        pairs[size++] = Math.min(first, second) << 32 | Math.max(first, second);
+                    }
+                }
+            }
+            start = end;
+        }
+        return Arrays.copyOf(pairs, size);
+    }
+
+    private static long[] distinct(long[][] bandPairs) {
+        long[] all = new long[Arrays.stream(bandPairs).mapToInt(pairs -> pairs.length).sum()];
+        int offset = 0;
+        for (long[] pairs : bandPairs) {
+            System.arraycopy(pairs, 0, all, offset, pairs.length);
+            offset += pairs.length;
+        }
+        Arrays.parallelSort(all);
+        int size = 0;
+        for (int i = 0; i < all.length; i++) {
+            if (size == 0 || all[i] != all[size - 1]) {
+                all[size++] = all[i];
+            }
+        }
+        return Arrays.copyOf(all, size);
+    }
+
+    private SuspiciousPair verify(Encoded encoded, List<AnswerSheet> sheets, double pairThreshold, int first, int second) {
+        int identical = 0;
+        for (int item = 0; item < encoded.itemCount; item++) {
+            long response = encoded.responses[first * encoded.itemCount + item];
+            if (response != 0 && response == encoded.responses[second * encoded.itemCount + item]) {
+                identical++;
+            }
+        }
+        if (identical < policy.getMinIdenticalWrongAnswers()) {
+            return null;
+        }
+
+        int bothWrong = 0;
+        int identicalWrong = 0;
+        double expected = 0;
+        double variance = 0;
+        for (int w = 0; w < encoded.words; w++) {
+            long bits = encoded.wrong[first * encoded.words + w] & encoded.wrong[second * encoded.words + w];
+            for (; bits != 0; bits &= bits - 1) {
+                int item = w * 64 + Long.numberOfTrailingZeros(bits);
+                double p = encoded.matchProbabilities[item];
+                bothWrong++;
+                expected += p;
+                variance += p * (1 - p);
+                if (encoded.responses[first * encoded.itemCount + item]
+                        == encoded.responses[second * encoded.itemCount + item]) {
+                    identicalWrong++;
+                }
+            }
+        }
+        if (identicalWrong < policy.getMinIdenticalWrongAnswers() || variance <= 0) {
+            return null;
+        }
+        double zScore = (identicalWrong - expected) / Math.sqrt(variance);
+        if (zScore < policy.getMinZScore()) {
+            return null;
+        }
+
+        double[] matchProbabilities = new double[bothWrong];
+        int trial = 0;
+        for (int w = 0; w < encoded.words; w++) {
+            long bits = encoded.wrong[first * encoded.words + w] & encoded.wrong[second * encoded.words + w];
+            for (; bits != 0; bits &= bits - 1) {
+                matchProbabilities[trial++] = encoded.matchProbabilities[w * 64 + Long.numberOfTrailingZeros(bits)];
+            }
+        }
+        double probability = upperTail(matchProbabilities, identicalWrong);
+        if (probability >= pairThreshold) {
+            return null;
+        }
+        AnswerSheet a = sheets.get(first);
+        AnswerSheet b = sheets.get(second);
+        return new SuspiciousPair(a.getId(), a.getUserId(), b.getId(), b.getUserId(), identical, bothWrong,
+                identicalWrong, expected, zScore, probability);
+    }
+
+    /**
+     * @return P(X >= observed) for X the number of successes of independent trials with the given
+     * success probabilities (a Poisson binomial distribution).
+     */
+    static double upperTail(double[] probabilities, int observed) {
+        int trials = probabilities.length;
+        double[] distribution = new double[trials + 1];
+        distribution[0] = 1;
+        for (int t = 0; t < trials; t++) {
+            double p = probabilities[t];
+            for (int k = t + 1; k > 0; k--) {
+                distribution[k] = distribution[k] * (1 - p) + distribution[k - 1] * p;
+            }
+            distribution[0] *= 1 - p;
+        }
+        double tail = 0;
+        for (int k = observed; k <= trials; k++) {
+            tail += distribution[k];
+        }
+        return Math.min(1, tail);
+    }
+
+    private static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    public CollusionPolicy getPolicy() {
+        return policy;
+    }
+
+    /**
+     * @return The number of scored items sheets are compared on.
+     */
+    public int getItemCount() {
+        return items.length;
+    }
+
+    /**
+     * Sheets encoded into flat primitive arrays, indexed by sheet and item.
+     */
+    private static final class Encoded {
+        private final int sheetCount;
+        private final int itemCount;
+        private final int words;
+        private final long[] responses;
+        private final long[] wrong;
+        private final int[] wrongCounts;
+        private double[] matchProbabilities;
+
+        Encoded(int sheetCount, int itemCount) {
+            this.sheetCount = sheetCount;
+            this.itemCount = itemCount;
+            this.words = (itemCount + 63) >>> 6;
+            this.responses = new long[sheetCount * itemCount];
+            this.wrong = new long[sheetCount * words];
+            this.wrongCounts = new int[sheetCount];
+        }
+
+        boolean isWrong(int sheet, int item) {
+            return (wrong[sheet * words + (item >>> 6)] & 1L << item) != 0;
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.quizdomainmodel.domain.integrity;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Candidate generation and flagging thresholds of a {@link CollusionDetector}.
+ * <p>
+ * Two sheets become a candidate pair when all {@link #getRowsPerBand()} MinHash values of at least
+ * one of {@link #getBands()} bands match. For wrong-answer sets with Jaccard similarity {@code s}
+ * that happens with probability {@code 1 - (1 - s^rows)^bands}: with the defaults, about 88% at
+ * {@code s = 0.7}, 99.7% at {@code s = 0.8} (a candidate copying most answers), and 0.5% at the
+ * {@code s = 0.3} of two weak candidates drawn to the same popular distractors.
+ */
+@Getter
+@ToString
+@Builder(toBuilder = true)
+public final class CollusionPolicy {
+
+    @Builder.Default private final int bands = 25;
+    @Builder.Default private final int rowsPerBand = 7;
+    /**
+     * LSH buckets larger than this are skipped. Huge buckets come from answer patterns shared by
+     * a whole cohort (e.g. one popular distractor per item) rather than from copying, and would
+     * otherwise produce a quadratic number of candidates.
+     */
+    @Builder.Default private final int maxBucketSize = 500;
+    /** Pairs sharing fewer identical wrong answers are never flagged. */
+    @Builder.Default private final int minIdenticalWrongAnswers = 5;
+    /** Pairs below this z-score of identical wrong answers over their expectation are not flagged. */
+    @Builder.Default private final double minZScore = 4.0;
+    /**
+     * Family-wise false positive rate over all {@code n(n-1)/2} pairs of an exam: a pair is flagged
+     * when its tail probability is below this divided by the number of pairs (Bonferroni). Without
+     * the correction, chance alone would flag hundreds of pairs among 100,000 sheets.
+     */
+    @Builder.Default private final double significance = 0.001;
+    /** The report keeps at most this many pairs, the most suspicious first. */
+    @Builder.Default private final int maxPairs = 1_000;
+    /** Seed of the MinHash functions; fixed so that repeated runs flag the same pairs. */
+    @Builder.Default private final long seed = 0x5EEDL;
+
+    void validate() {
+        if (bands < 1 || rowsPerBand < 1) {
+            throw new IllegalArgumentException("Bands and rows per band must be >= 1.");
+        }
+        if (maxBucketSize < 2) {
+            throw new IllegalArgumentException("Max bucket size must be >= 2.");
+        }
+        if (minIdenticalWrongAnswers < 1) {
+            throw new IllegalArgumentException("Min identical wrong answers must be >= 1.");
+        }
+        if (!(significance > 0 && significance <= 1)) {
+            throw new IllegalArgumentException("Significance must be in (0, 1].");
+        }
+        if (maxPairs < 0) {
+            throw new IllegalArgumentException("Max pairs cannot be negative.");
+        }
+    }
+}
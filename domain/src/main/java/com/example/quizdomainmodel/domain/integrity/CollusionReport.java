@@ -0,0 +1,26 @@
+package com.example.quizdomainmodel.domain.integrity;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.List;
+
+/**
+ * Result of one {@link CollusionDetector} run.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public final class CollusionReport {
+    /** Flagged pairs, most suspicious (highest z-score) first. */
+    private final List<SuspiciousPair> pairs;
+    private final int sheetCount;
+    /** Sheets with enough wrong answers to take part in candidate generation. */
+    private final int indexedSheets;
+    /** Distinct pairs verified exactly, out of the n(n-1)/2 possible. */
+    private final long candidatePairs;
+    /** LSH buckets skipped for exceeding {@link CollusionPolicy#getMaxBucketSize()}. */
+    private final long skippedBuckets;
+    private final long elapsedMillis;
+}
@@ -0,0 +1,34 @@
+package com.example.quizdomainmodel.domain.integrity;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Two answer sheets whose shared wrong answers are unlikely to be a coincidence.
+ * <p>
+ * The count of identical wrong answers is compared with its distribution under independence:
+ * on an item both candidates got wrong, they pick the same wrong response with probability
+ * {@code sum(p_r^2)}, where {@code p_r} is the share of wrong response {@code r} among everyone
+ * who got the item wrong. Summed over the items both got wrong, this gives the expectation and
+ * variance behind {@link #getZScore()} and the exact tail probability {@link #getProbability()}.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public final class SuspiciousPair {
+    private final String firstSheetId;
+    private final String firstUserId;
+    private final String secondSheetId;
+    private final String secondUserId;
+    /** Items both candidates answered identically, right or wrong. */
+    private final int identicalAnswers;
+    /** Items both candidates got wrong. */
+    private final int bothWrong;
+    /** Items both candidates got wrong with the same response. */
+    private final int identicalWrongAnswers;
+    private final double expectedIdenticalWrongAnswers;
+    private final double zScore;
+    /** Probability of at least this many identical wrong answers under independence. */
+    private final double probability;
+}
@@ -0,0 +1,99 @@
+package com.example.quizdomainmodel.domain.intern;
+
+import com.example.quizdomainmodel.domain.model.Choice;
+import com.example.quizdomainmodel.domain.model.SharedChoice;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Process-wide flyweight pools for low-cardinality values that repeat across a question bank and
+ * its answers: choice texts and the IDs of shared choices.
+ * <p>
+ * Per-question and per-sheet values such as question IDs, stems or free-text answers are never
+ * pooled by the domain model: they are unique, so pooling them would only fill the pools with
+ * entries that stay reachable for the life of the process.
+ * <p>
+ * Pool sizes can be tuned with the {@code quiz.intern.maxStrings} and
+ * {@code quiz.intern.maxChoices} system properties.
+ */
+public final class DomainInterner {
+
+    private static final InternPool<String, String> STRINGS =
+            new InternPool<>(Integer.getInteger("quiz.intern.maxStrings", 1 << 16));
+    // Keyed by choice ID, so answers can find the ID instance of a pooled choice
+    private static final InternPool<String, SharedChoice> CHOICES =
+            new InternPool<>(Integer.getInteger("quiz.intern.maxChoices", 1 << 16));
+
+    private DomainInterner() {
+    }
+
+    /**
+     * Returns the canonical instance of a string. Meant for values drawn from a small vocabulary;
+     * once the pool is full, further values are returned as-is.
+     *
+     * @param value The string to intern. May be null.
+     * @return An equal, possibly shared, string; null for null.
+     */
+    public static String intern(String value) {
+        return STRINGS.intern(value, s -> s);
+    }
+
+    /**
+     * Copies a list of selected choice IDs, replacing the IDs of pooled shared choices with the
+     * instance held by the choice. Other IDs are copied as-is, so question-specific choice IDs are
+     * never pooled.
+     *
+     * @param choiceIds The selected choice IDs. Cannot be null; may contain null.
+     * @return A new, mutable list.
+     */
+    public static List<String> canonicalChoiceIds(List<String> choiceIds) {
+        List<String> result = new ArrayList<>(choiceIds.size());
+        for (String choiceId : choiceIds) {
+            SharedChoice shared = CHOICES.get(choiceId);
+            result.add(shared != null ? shared.getId() : choiceId);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the shared, immutable choice for a text.
+     * <p>
+     * The choice ID is derived from the text (a name-based UUID), so the same text always gets the
+     * same ID in every process. Callers must not rely on choice IDs being unique across questions,
+     * only within one question.
+     *
+     * @param text The choice text. Cannot be null or empty.
+     * @return The shared choice.
+     */
+    public static SharedChoice choice(String text) {
+        if (text == null || text.isEmpty()) {
+            throw new IllegalArgumentException("Choice text cannot be null or empty.");
+        }
+        return CHOICES.intern(choiceId(text), id -> new SharedChoice(id, intern(text)));
+    }
+
+    /**
+     * @return The stable ID that {@link #choice(String)} assigns to a choice text.
+     */
+    public static String choiceId(String text) {
+        return UUID.nameUUIDFromBytes(("choice:" + text).getBytes(StandardCharsets.UTF_8)).toString();
+    }
+
+    /**
+     * @return Whether the choice is a pooled flyweight rather than a question-specific choice.
+     */
+    public static boolean isShared(Choice choice) {
+        return choice instanceof SharedChoice;
+    }
+
+    public static InternPool<String, String> stringPool() {
+        return STRINGS;
+    }
+
+    public static InternPool<String, SharedChoice> choicePool() {
+        return CHOICES;
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.quizdomainmodel.domain.intern;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Concurrent, bounded pool of canonical instances (flyweights).
+ * <p>
+ * Once the pool holds {@code maxEntries} values, new values are returned as-is instead of being
+ * pooled, so a stream of unique values (e.g. free-text answers) can never grow it without bound.
+ * Values already pooled keep being shared. Pooled values must be immutable.
+ *
+ * @param <K> The lookup key, e.g. the text of a choice.
+ * @param <V> The canonical value.
+ */
+public final class InternPool<K, V> {
+
+    private final ConcurrentHashMap<K, V> pool;
+    private final int maxEntries;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder overflows = new LongAdder();
+
+    /**
+     * @param maxEntries The maximum number of pooled values. Must be >= 1.
+     */
+    public InternPool(int maxEntries) {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("Max entries must be at least 1.");
+        }
+        this.maxEntries = maxEntries;
+        this.pool = new ConcurrentHashMap<>(Math.min(maxEntries, 1024));
+    }
+
+    /**
+     * Returns the canonical value for the key, creating and pooling it on first use.
+     *
+     * @param key The lookup key. Null keys are passed to the factory and never pooled.
+     * @param factory Creates the value for a key that is not pooled yet.
+     * @return The pooled value, or a fresh unpooled value if the pool is full.
+     */
+    public V intern(K key, Function<? super K, ? extends V> factory) {
+        if (key == null) {
+            return factory.apply(null);
+        }
+        V existing = pool.get(key);
+        if (existing != null) {
+            hits.increment();
+            return existing;
+        }
+        V created = factory.apply(key);
+        if (pool.size() >= maxEntries) {
+            overflows.increment();
+            return created;
+        }
+        existing = pool.putIfAbsent(key, created);
+        if (existing != null) {
+            // Lost a race with another thread interning the same key
+            hits.increment();
+            return existing;
+        }
+        misses.increment();
+        return created;
+    }
+
+    /**
+     * Returns the pooled value for a key without creating one. Not counted as a hit or miss.
+     *
+     * @param key The lookup key. May be null.
+     * @return The pooled value, or null if the key is not pooled.
+     */
+    public V get(K key) {
+        return key == null ? null : pool.get(key);
+    }
+
+    public int size() {
+        return pool.size();
+    }
+
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    /**
+     * @return Lookups that returned an already pooled value.
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * @return Lookups that added a new value to the pool.
+     */
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * @return Lookups that could not be pooled because the pool was full.
+     */
+    public long getOverflowCount() {
+        return overflows.sum();
+    }
+
+    /**
+     * Removes all pooled values. Values handed out earlier stay valid.
+     */
+    public void clear() {
+        pool.clear();
+    }
+}
@@ -0,0 +1,310 @@
+package com.example.quizdomainmodel.domain.model;
+
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * A question's correct answer resolved into a compact, typed form for grading.
+ * <p>
+ * {@link Question#getCorrectAnswer()} is an untyped {@code Object}: importers store raw text such
+ * as {@code "Red;Blue;Yellow"}, while programmatic callers may store a list of choice IDs. The key
+ * resolves that representation once:
+ * <ul>
+ *     <li>choice questions: a bitmask over choice ordinals (up to 63 choices)</li>
+ *     <li>true/false questions: a boolean, plus the mask of the matching choice if any</li>
+ *     <li>fill-in-the-blank questions: the normalized accepted texts</li>
+ * </ul>
+ * Grading then compares masks or normalized texts and never re-parses the correct answer.
+ * Answers that cannot be resolved (unknown choice text, unsupported type) yield an
+ * {@link Kind#UNRESOLVED} key and are graded with the legacy comparison.
+ */
+@Getter
+public final class AnswerKey {
+
+    public enum Kind {
+        /** Correct answer is a set of choices, compared as a bitmask. */
+        CHOICES,
+        /** Correct answer is a boolean. */
+        TRUE_FALSE,
+        /** Correct answer is one of several accepted texts. */
+        TEXT,
+        /** The correct answer could not be resolved; grading falls back to the raw value. */
+        UNRESOLVED
+    }
+
+    // One bit short of a long, so -1 can signal an unknown choice in a selection mask
+    private static final int MAX_CHOICES = Long.SIZE - 1;
+    private static final String ANSWER_SEPARATOR = ";";
+    private static final List<String> TRUE_WORDS = Arrays.asList("true", "t", "yes", "y", "1", "对", "正确", "是");
+    private static final List<String> FALSE_WORDS = Arrays.asList("false", "f", "no", "n", "0", "错", "错误", "否");
+    private static final AnswerKey UNRESOLVED_KEY = new AnswerKey(Kind.UNRESOLVED, new String[0], 0L, false, new String[0]);
+
+    private final Kind kind;
+    // Choice IDs in question order, so a selection can be turned into a mask without the Question
+    private final String[] choiceIds;
+    private final long correctMask;
+    private final boolean truth;
+    private final String[] acceptedTexts;
+
+    private AnswerKey(Kind kind, String[] choiceIds, long correctMask, boolean truth, String[] acceptedTexts) {
+        this.kind = kind;
+        this.choiceIds = choiceIds;
+        this.correctMask = correctMask;
+        this.truth = truth;
+        this.acceptedTexts = acceptedTexts;
+    }
+
+    public static AnswerKey unresolved() {
+        return UNRESOLVED_KEY;
+    }
+
+    /**
+     * Resolves a raw correct answer against the question's type and choices.
+     *
+     * @param type The question type.
+     * @param choices The question's choices, in order.
+     * @param correctAnswer The raw correct answer: a {@code ;}-separated string, a collection of
+     *                      choice IDs or texts, or a boolean for true/false questions.
+     * @return The resolved key, or {@link #unresolved()} if the answer cannot be resolved.
+     */
+    public static AnswerKey resolve(QuestionType type, List<Choice> choices, Object correctAnswer) {
+        if (type == null || choices == null || correctAnswer == null || choices.size() > MAX_CHOICES) {
+            return UNRESOLVED_KEY;
+        }
+        switch (type) {
+            case SINGLE_CHOICE:
+            case MULTIPLE_CHOICE:
+                return resolveChoices(choices, tokens(correctAnswer));
+            case TRUE_FALSE:
+                return resolveTrueFalse(choices, correctAnswer);
+            case FILL_IN_BLANK:
+                return resolveText(tokens(correctAnswer));
+            default:
+                return UNRESOLVED_KEY;
+        }
+    }
+
+    private static AnswerKey resolveChoices(List<Choice> choices, List<String> tokens) {
+        if (tokens.isEmpty()) {
+            return UNRESOLVED_KEY;
+        }
+        long mask = 0;
+        for (String token : tokens) {
+            int ordinal = findChoice(choices, token);
+            if (ordinal < 0) {
+                return UNRESOLVED_KEY;
+            }
+            mask |= 1L << ordinal;
+        }
+        return new AnswerKey(Kind.CHOICES, choiceIds(choices), mask, false, new String[0]);
+    }
+
+    private static AnswerKey resolveTrueFalse(List<Choice> choices, Object correctAnswer) {
+        Boolean truth = null;
+        if (correctAnswer instanceof Boolean) {
+            truth = (Boolean) correctAnswer;
+        } else {
+            List<String> tokens = tokens(correctAnswer);
+            if (tokens.size() == 1) {
+                truth = parseBoolean(tokens.get(0));
+                if (truth == null) {
+                    // Legacy keys reference the correct choice by ID or text
+                    int ordinal = findChoice(choices, tokens.get(0));
+                    truth = ordinal < 0 ? null : parseBoolean(choices.get(ordinal).getText());
+                }
+            }
+        }
+        if (truth == null) {
+            return UNRESOLVED_KEY;
+        }
+        long mask = 0;
+        for (int i = 0; i < choices.size(); i++) {
+            if (truth.equals(parseBoolean(choices.get(i).getText()))) {
+                mask |= 1L << i;
+                break;
+            }
+        }
+        if (!choices.isEmpty() && mask == 0) {
+            // Choices exist but none reads as true/false, so a selection can't be graded
+            return UNRESOLVED_KEY;
+        }
+        return new AnswerKey(Kind.TRUE_FALSE, choiceIds(choices), mask, truth, new String[0]);
+    }
+
+    private static AnswerKey resolveText(List<String> tokens) {
+        if (tokens.isEmpty()) {
+            return UNRESOLVED_KEY;
+        }
+        String[] accepted = new String[tokens.size()];
+        for (int i = 0; i < accepted.length; i++) {
+            accepted[i] = normalizeText(tokens.get(i));
+        }
+        return new AnswerKey(Kind.TEXT, new String[0], 0L, false, accepted);
+    }
+
+    public boolean isResolved() {
+        return kind != Kind.UNRESOLVED;
+    }
+
+    /**
+     * Grades an answer against this key.
+     *
+     * @param answer The answer to grade. Cannot be null.
+     * @return true if the answer is correct. Always false for an unresolved key.
+     */
+    public boolean isCorrect(UserAnswer answer) {
+        switch (kind) {
+            case CHOICES:
+                return selectionMask(answer.getSelectedChoiceIds()) == correctMask;
+            case TRUE_FALSE:
+                if (choiceIds.length > 0) {
+                    return selectionMask(answer.getSelectedChoiceIds()) == correctMask;
+                }
+                Boolean answered = answer.getFilledText() == null ? null : parseBoolean(answer.getFilledText());
+                return answered != null && answered == truth;
+            case TEXT:
+                if (answer.getFilledText() == null) {
+                    return false;
+                }
+                String normalized = normalizeText(answer.getFilledText());
+                for (String accepted : acceptedTexts) {
+                    if (accepted.equals(normalized)) {
+                        return true;
+                    }
+                }
+                return false;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Converts selected choice IDs into a bitmask over choice ordinals.
+     *
+     * @return The mask, or -1 if an ID does not belong to the question.
+     */
+    public long selectionMask(List<String> selectedChoiceIds) {
+        long mask = 0;
+        for (String selected : selectedChoiceIds) {
+            int ordinal = indexOfChoiceId(selected);
+            if (ordinal < 0) {
+                return -1;
+            }
+            mask |= 1L << ordinal;
+        }
+        return mask;
+    }
+
+    private int indexOfChoiceId(String id) {
+        for (int i = 0; i < choiceIds.length; i++) {
+            // Interned IDs usually match by reference
+            if (choiceIds[i] == id || (id != null && id.equals(choiceIds[i]))) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return The accepted texts, normalized with {@link #normalizeText(String)}.
+     */
+    public List<String> getAcceptedTexts() {
+        return Collections.unmodifiableList(Arrays.asList(acceptedTexts));
+    }
+
+    /**
+     * @return The question's choice IDs in order, as captured when the key was resolved.
+     */
+    public List<String> getChoiceIds() {
+        return Collections.unmodifiableList(Arrays.asList(choiceIds));
+    }
+
+    /**
+     * Normalizes free text for comparison: trimmed, inner whitespace collapsed, lower case.
+     */
+    public static String normalizeText(String text) {
+        StringBuilder sb = new StringBuilder(text.length());
+        boolean pendingSpace = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isWhitespace(c)) {
+                pendingSpace = sb.length() > 0;
+            } else {
+                if (pendingSpace) {
+                    sb.append(' ');
+                    pendingSpace = false;
+                }
+                sb.append(c);
+            }
+        }
+        return sb.toString().toLowerCase(Locale.ROOT);
+    }
+
+    private static List<String> tokens(Object correctAnswer) {
+        List<String> tokens = new ArrayList<>();
+        if (correctAnswer instanceof Collection) {
+            for (Object element : (Collection<?>) correctAnswer) {
+                if (element != null && !element.toString().trim().isEmpty()) {
+                    tokens.add(element.toString().trim());
+                }
+            }
+        } else {
+            for (String token : correctAnswer.toString().split(ANSWER_SEPARATOR)) {
+                if (!token.trim().isEmpty()) {
+                    tokens.add(token.trim());
+                }
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * Finds a choice by ID first, then by exact text, then by case-insensitive text.
+     */
+    private static int findChoice(List<Choice> choices, String token) {
+        for (int i = 0; i < choices.size(); i++) {
+            if (token.equals(choices.get(i).getId())) {
+                return i;
+            }
+        }
+        for (int i = 0; i < choices.size(); i++) {
+            if (token.equals(choices.get(i).getText())) {
+                return i;
+            }
+        }
+        for (int i = 0; i < choices.size(); i++) {
+            if (token.equalsIgnoreCase(choices.get(i).getText())) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static String[] choiceIds(List<Choice> choices) {
+        String[] ids = new String[choices.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = choices.get(i).getId();
+        }
+        return ids;
+    }
+
+    private static Boolean parseBoolean(String text) {
+        if (text == null) {
+            return null;
+        }
+        String normalized = text.trim().toLowerCase(Locale.ROOT);
+        if (TRUE_WORDS.contains(normalized)) {
+            return Boolean.TRUE;
+        }
+        if (FALSE_WORDS.contains(normalized)) {
+            return Boolean.FALSE;
+        }
+        return null;
+    }
+}
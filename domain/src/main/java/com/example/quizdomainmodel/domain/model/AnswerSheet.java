@@ -39,25 +39,7 @@ public class AnswerSheet {
         for (UserAnswer userAnswer : getUserAnswers()) {
             for (Question question : quizQuestions) {
                 if (question.getId().equals(userAnswer.getQuestionId())) {
-                    // Handle material questions
-                    if (question instanceof MaterialQuestion) {
-                        MaterialQuestion materialQuestion = (MaterialQuestion) question;
-                        // Add material question overall score - FIX: Use calculateTotalScore()
-                        totalScore += materialQuestion.calculateTotalScore();
-                        
-                        // Add individual sub-question scores
-                        for (Question subQuestion : materialQuestion.getSubQuestions()) {
-                            for (UserAnswer subAnswer : userAnswer.getSubAnswers()) {
-                                if (subAnswer.getQuestionId().equals(subQuestion.getId())) {
-                                    totalScore += calculateQuestionScore(subAnswer, subQuestion);
-                                }
-                            }
-                        }
-                    } 
-                    // Handle regular questions
-                    else {
-                        totalScore += calculateQuestionScore(userAnswer, question);
-                    }
+                    totalScore += calculateAnswerScore(userAnswer, question);
                     break;
                 }
             }
@@ -66,11 +48,46 @@ public class AnswerSheet {
         return totalScore;
     }
 
+    /**
+     * Calculates the score a single answer contributes to the total, for the question it answers.
+     * Handles both regular questions and material questions with sub-questions, exactly as
+     * {@link #calculateTotalScore(List)} does, so callers can score answers one at a time.
+     *
+     * @param userAnswer The answer to score. Cannot be null.
+     * @param question The question the answer refers to. Cannot be null.
+     * @return The points awarded for this answer.
+     */
+    public static int calculateAnswerScore(UserAnswer userAnswer, Question question) {
+        // Handle material questions
+        if (question instanceof MaterialQuestion) {
+            MaterialQuestion materialQuestion = (MaterialQuestion) question;
+            // Add material question overall score - FIX: Use calculateTotalScore()
+            int score = materialQuestion.calculateTotalScore();
+
+            // Add individual sub-question scores
+            for (Question subQuestion : materialQuestion.getSubQuestions()) {
+                for (UserAnswer subAnswer : userAnswer.getSubAnswers()) {
+                    if (subAnswer.getQuestionId().equals(subQuestion.getId())) {
+                        score += calculateQuestionScore(subAnswer, subQuestion);
+                    }
+                }
+            }
+            return score;
+        }
+        // Handle regular questions
+        return calculateQuestionScore(userAnswer, question);
+    }
+
     /**
      * Calculates score for a single question based on user's answer.
      */
-    private int calculateQuestionScore(UserAnswer userAnswer, Question question) {
-        // Simple implementation - in real scenario would have more complex scoring logic
+    private static int calculateQuestionScore(UserAnswer userAnswer, Question question) {
+        // Typed key resolved once per question: no parsing of the correct answer while grading
+        AnswerKey answerKey = question.getAnswerKey();
+        if (answerKey.isResolved()) {
+            return answerKey.isCorrect(userAnswer) ? question.getPoints() : 0;
+        }
+        // Fall back to comparing the raw correct answer
         if (userAnswer.getSelectedChoiceIds() != null && 
             userAnswer.getSelectedChoiceIds().equals(question.getCorrectAnswer())) {
             return question.getPoints();
@@ -0,0 +1,203 @@
+package com.example.quizdomainmodel.domain.model;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * A stable 128-bit structural fingerprint of a {@link Question}, {@link MaterialQuestion} or
+ * {@link Quiz}, usable as a content-addressed cache key across processes and restarts.
+ * <p>
+ * Two objects with the same content have the same fingerprint regardless of object identity,
+ * JVM or run; the encoding never depends on {@code hashCode()} or memory layout. What counts as
+ * content:
+ * <ul>
+ *     <li>Question: ID, stem, type, points, choices (IDs and texts, in order) and correct answer</li>
+ *     <li>MaterialQuestion: the above plus the fingerprints of its sub-questions, in order</li>
+ *     <li>Quiz: title, description and the fingerprints of its questions, in order. The quiz ID
+ *     is excluded, so identical banks imported twice share a fingerprint.</li>
+ * </ul>
+ * Fingerprints are cached on the objects and invalidated per object: a question drops its cached
+ * value when one of its own setters is called. Composites (material questions, quizzes) also keep
+ * the fingerprint instances of their children they were combined from, and re-combine only when a
+ * child now returns a different instance. Mutating one question thus re-hashes that question and
+ * its ancestors, and leaves every other cached fingerprint in the process intact.
+ */
+@Getter
+@EqualsAndHashCode
+public final class ContentFingerprint {
+
+    private final long high;
+    private final long low;
+
+    public ContentFingerprint(long high, long low) {
+        this.high = high;
+        this.low = low;
+    }
+
+    /**
+     * Parses the 32-character hex form produced by {@link #toString()}.
+     */
+    public static ContentFingerprint fromHex(String hex) {
+        if (hex == null || hex.length() != 32) {
+            throw new IllegalArgumentException("Fingerprint must be 32 hex characters.");
+        }
+        return new ContentFingerprint(Long.parseUnsignedLong(hex.substring(0, 16), 16),
+                Long.parseUnsignedLong(hex.substring(16), 16));
+    }
+
+    /**
+     * @return The fingerprint as 32 lower-case hex characters.
+     */
+    @Override
+    public String toString() {
+        return String.format("%016x%016x", high, low);
+    }
+
+    /**
+     * A composite's fingerprint together with the parts it was combined from; published as one
+     * object so readers never see a value paired with the wrong parts.
+     */
+    static final class Cached {
+        final ContentFingerprint own;
+        final ContentFingerprint[] children;
+        final ContentFingerprint fingerprint;
+
+        Cached(ContentFingerprint own, ContentFingerprint[] children, ContentFingerprint fingerprint) {
+            this.own = own;
+            this.children = children;
+            this.fingerprint = fingerprint;
+        }
+
+        /**
+         * @return Whether the parts are still the ones this value was combined from. Children
+         * revalidate their own caches, so changes deep in the tree are seen.
+         */
+        boolean isCurrent(ContentFingerprint currentOwn, List<? extends Question> currentChildren) {
+            if (currentOwn != own || currentChildren.size() != children.length) {
+                return false;
+            }
+            for (int i = 0; i < children.length; i++) {
+                if (currentChildren.get(i).contentFingerprint() != children[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Streaming MurmurHash3 (x64, 128-bit) over 64-bit words. Values are written with explicit
+     * type tags and lengths so different structures cannot produce the same word sequence.
+     */
+    static final class Hasher {
+        private static final long C1 = 0x87c37b91114253d5L;
+        private static final long C2 = 0x4cf5ad432745937fL;
+
+        private long h1;
+        private long h2;
+        private long pending;
+        private boolean hasPending;
+        private long length;
+
+        Hasher(long seed) {
+            this.h1 = seed;
+            this.h2 = seed;
+        }
+
+        Hasher putLong(long value) {
+            length += 8;
+            if (!hasPending) {
+                pending = value;
+                hasPending = true;
+                return this;
+            }
+            mixBlock(pending, value);
+            hasPending = false;
+            return this;
+        }
+
+        Hasher putInt(int value) {
+            return putLong(value);
+        }
+
+        Hasher putBoolean(boolean value) {
+            return putLong(value ? 1 : 0);
+        }
+
+        Hasher putString(String value) {
+            if (value == null) {
+                return putLong(-1);
+            }
+            int n = value.length();
+            putLong(n);
+            int i = 0;
+            for (; i + 4 <= n; i += 4) {
+                putLong((long) value.charAt(i)
+                        | (long) value.charAt(i + 1) << 16
+                        | (long) value.charAt(i + 2) << 32
+                        | (long) value.charAt(i + 3) << 48);
+            }
+            if (i < n) {
+                long word = 0;
+                for (int shift = 0; i < n; i++, shift += 16) {
+                    word |= (long) value.charAt(i) << shift;
+                }
+                putLong(word);
+            }
+            return this;
+        }
+
+        Hasher putFingerprint(ContentFingerprint fingerprint) {
+            return putLong(fingerprint.high).putLong(fingerprint.low);
+        }
+
+        ContentFingerprint finish() {
+            long a = h1;
+            long b = h2;
+            if (hasPending) {
+                long k1 = pending * C1;
+                k1 = Long.rotateLeft(k1, 31);
+                k1 *= C2;
+                a ^= k1;
+            }
+            a ^= length;
+            b ^= length;
+            a += b;
+            b += a;
+            a = fmix(a);
+            b = fmix(b);
+            a += b;
+            b += a;
+            return new ContentFingerprint(a, b);
+        }
+
+        private void mixBlock(long k1, long k2) {
+            k1 *= C1;
+            k1 = Long.rotateLeft(k1, 31);
+            k1 *= C2;
+            h1 ^= k1;
+            h1 = Long.rotateLeft(h1, 27);
+            h1 += h2;
+            h1 = h1 * 5 + 0x52dce729;
+
+            k2 *= C2;
+            k2 = Long.rotateLeft(k2, 33);
+            k2 *= C1;
+            h2 ^= k2;
+            h2 = Long.rotateLeft(h2, 31);
+            h2 += h1;
+            h2 = h2 * 5 + 0x38495ab5;
+        }
+
+        private static long fmix(long k) {
+            k ^= k >>> 33;
+            k *= 0xff51afd7ed558ccdL;
+            k ^= k >>> 33;
+            k *= 0xc4ceb9fe1a85ec53L;
+            k ^= k >>> 33;
+            return k;
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.quizdomainmodel.domain.model;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Item response theory (IRT) calibration of a {@link Question} under the three-parameter
+ * logistic model: a candidate of ability {@code theta} answers correctly with probability
+ * <pre>
+ *     P(theta) = c + (1 - c) / (1 + exp(-D * a * (theta - b)))
+ * </pre>
+ * with the scaling constant {@code D = 1.7}, so parameters are on the usual normal-ogive metric.
+ * Calibration describes how a question behaves, not what it says, so it is not part of the
+ * question's content fingerprint.
+ */
+@Getter
+@ToString
+@EqualsAndHashCode
+public final class ItemParameters {
+
+    public static final double SCALING = 1.7;
+
+    /** Discrimination {@code a}: how sharply the item separates abilities around its difficulty. */
+    private final double discrimination;
+    /** Difficulty {@code b}: the ability at which the item is answered correctly half-way above chance. */
+    private final double difficulty;
+    /** Pseudo-guessing {@code c}: the chance a candidate of very low ability answers correctly. */
+    private final double guessing;
+
+    /**
+     * @param discrimination Must be > 0.
+     * @param difficulty Must be finite.
+     * @param guessing Must be in [0, 1).
+     */
+    public ItemParameters(double discrimination, double difficulty, double guessing) {
+        if (!(discrimination > 0) || Double.isInfinite(discrimination)) {
+            throw new IllegalArgumentException("Discrimination must be a positive number.");
+        }
+        if (Double.isNaN(difficulty) || Double.isInfinite(difficulty)) {
+            throw new IllegalArgumentException("Difficulty must be a finite number.");
+        }
+        if (!(guessing >= 0 && guessing < 1)) {
+            throw new IllegalArgumentException("Guessing must be in [0, 1).");
+        }
+        this.discrimination = discrimination;
+        this.difficulty = difficulty;
+        this.guessing = guessing;
+    }
+
+    /**
+     * Two-parameter model, without guessing.
+     */
+    public static ItemParameters of(double discrimination, double difficulty) {
+        return new ItemParameters(discrimination, difficulty, 0);
+    }
+
+    /**
+     * @return The probability of a correct answer at the given ability.
+     */
+    public double probability(double theta) {
+        return probability(discrimination, difficulty, guessing, theta);
+    }
+
+    /**
+     * @return The Fisher information the item provides at the given ability.
+     */
+    public double information(double theta) {
+        return information(discrimination, difficulty, guessing, theta);
+    }
+
+    // Static forms, for callers that keep parameters in primitive arrays
+
+    public static double probability(double a, double b, double c, double theta) {
+        return c + (1 - c) / (1 + Math.exp(-SCALING * a * (theta - b)));
+    }
+
+    public static double information(double a, double b, double c, double theta) {
+        double p = probability(a, b, c, theta);
+        double q = 1 - p;
+        if (p <= 0 || q <= 0) {
+            return 0;
+        }
+        double ratio = (p - c) / (1 - c);
+        return SCALING * SCALING * a * a * (q / p) * ratio * ratio;
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.quizdomainmodel.domain.model;
 
+import lombok.AccessLevel;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.Setter;
@@ -21,7 +22,11 @@ import java.util.UUID;
 public class MaterialQuestion extends Question {
 
     // Keep subQuestions private, use custom getter for immutability
-    private List<Question> subQuestions;
+    @Setter(AccessLevel.NONE) private List<Question> subQuestions;
+    // Fingerprint combined from this question and its sub-questions, with the parts it came from
+    @Getter(AccessLevel.NONE) @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude @ToString.Exclude
+    private transient volatile ContentFingerprint.Cached compositeFingerprint;
 
     /**
      * Creates a new MaterialQuestion with auto-generated ID.
@@ -76,6 +81,18 @@ public class MaterialQuestion extends Question {
         return Collections.unmodifiableList(subQuestions);
     }
 
+    /**
+     * Replaces the sub-questions with a defensive copy of the given list.
+     * @param subQuestions The new sub-questions. Cannot be null.
+     */
+    public void setSubQuestions(List<Question> subQuestions) {
+        if (subQuestions == null) {
+            throw new IllegalArgumentException("Sub-questions list cannot be null.");
+        }
+        this.subQuestions = new ArrayList<>(subQuestions);
+        this.compositeFingerprint = null;
+    }
+
     /**
      * Adds a sub-question to this material question.
      * @param subQuestion The sub-question to add. Cannot be null.
@@ -89,6 +106,7 @@ public class MaterialQuestion extends Question {
             this.subQuestions = new ArrayList<>();
         }
         this.subQuestions.add(subQuestion);
+        this.compositeFingerprint = null;
     }
 
     /**
@@ -100,7 +118,37 @@ public class MaterialQuestion extends Question {
         if (questionId == null || this.subQuestions == null) {
             return false;
         }
-        return this.subQuestions.removeIf(q -> questionId.equals(q.getId()));
+        boolean removed = this.subQuestions.removeIf(q -> questionId.equals(q.getId()));
+        if (removed) {
+            this.compositeFingerprint = null;
+        }
+        return removed;
+    }
+
+    /**
+     * Combines this question's own fingerprint with those of its sub-questions.
+     * Recombined only when this question, its list of sub-questions or one of the sub-questions
+     * has changed since the last call; unchanged sub-questions contribute their cached fingerprints.
+     */
+    @Override
+    public ContentFingerprint contentFingerprint() {
+        ContentFingerprint own = super.contentFingerprint();
+        List<Question> subs = this.subQuestions != null ? this.subQuestions : Collections.<Question>emptyList();
+        ContentFingerprint.Cached cached = compositeFingerprint;
+        if (cached != null && cached.isCurrent(own, subs)) {
+            return cached.fingerprint;
+        }
+        ContentFingerprint.Hasher hasher = new ContentFingerprint.Hasher(0x2f_6b_5e_3c_91_d4_a8_07L);
+        hasher.putFingerprint(own);
+        ContentFingerprint[] parts = new ContentFingerprint[subs.size()];
+        hasher.putInt(parts.length);
+        for (int i = 0; i < parts.length; i++) {
+            parts[i] = subs.get(i).contentFingerprint();
+            hasher.putFingerprint(parts[i]);
+        }
+        ContentFingerprint fingerprint = hasher.finish();
+        compositeFingerprint = new ContentFingerprint.Cached(own, parts, fingerprint);
+        return fingerprint;
     }
 
     /**
@@ -1,12 +1,16 @@
 package com.example.quizdomainmodel.domain.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.AccessLevel;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import lombok.ToString;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.UUID;
@@ -24,6 +28,14 @@ public class Question {
     @Getter(AccessLevel.NONE) @Setter(AccessLevel.NONE) private List<Choice> choices;
     private Object correctAnswer; 
     @Setter(AccessLevel.NONE) private int points; 
+    // IRT calibration for adaptive testing; null if the question has not been calibrated
+    private ItemParameters itemParameters;
+    // Derived from type, choices and correctAnswer; reset whenever one of them changes
+    @Getter(AccessLevel.NONE) @Setter(AccessLevel.NONE) @EqualsAndHashCode.Exclude @ToString.Exclude
+    private transient volatile AnswerKey answerKey;
+    // Cached content fingerprint; reset by every setter
+    @Getter(AccessLevel.NONE) @Setter(AccessLevel.NONE) @EqualsAndHashCode.Exclude @ToString.Exclude
+    private transient volatile ContentFingerprint fingerprint;
 
     /**
      * Creates a new Question with auto-generated ID.
@@ -64,7 +76,7 @@ public class Question {
         if (correctAnswer == null) {
             throw new IllegalArgumentException("Correct answer cannot be null.");
         }
-        setPoints(points);
+        checkPoints(points);
 
         if ((type == QuestionType.SINGLE_CHOICE || type == QuestionType.MULTIPLE_CHOICE || type == QuestionType.TRUE_FALSE) && choices.isEmpty()) {
              throw new IllegalArgumentException("Choice-based questions must have at least one choice.");
@@ -74,7 +86,8 @@ public class Question {
         this.stem = stem;
         this.type = type;
         this.choices = new ArrayList<>(choices);
-        this.correctAnswer = correctAnswer; 
+        this.correctAnswer = correctAnswer;
+        this.points = points;
     }
 
     public List<Choice> getChoices() {
@@ -86,13 +99,103 @@ public class Question {
             throw new IllegalArgumentException("Choices list cannot be null.");
         }
         this.choices = new ArrayList<>(choices);
+        contentChanged();
+    }
+
+    public void setId(String id) {
+        this.id = id;
+        contentChanged();
+    }
+
+    public void setStem(String stem) {
+        this.stem = stem;
+        contentChanged();
+    }
+
+    public void setType(QuestionType type) {
+        this.type = type;
+        contentChanged();
+    }
+
+    public void setCorrectAnswer(Object correctAnswer) {
+        this.correctAnswer = correctAnswer;
+        contentChanged();
+    }
+
+    /**
+     * Returns the correct answer resolved into a typed {@link AnswerKey}.
+     * Resolved on first use and cached until the type, choices or correct answer change.
+     * @return The answer key; never null, but possibly unresolved.
+     */
+    @JsonIgnore
+    public AnswerKey getAnswerKey() {
+        AnswerKey key = answerKey;
+        if (key == null) {
+            key = AnswerKey.resolve(type, choices, correctAnswer);
+            answerKey = key;
+        }
+        return key;
     }
 
     public void setPoints(int points) {
+        checkPoints(points);
+        this.points = points;
+        contentChanged();
+    }
+
+    private static void checkPoints(int points) {
         if (points < 0) {
             throw new IllegalArgumentException("Points cannot be negative.");
         }
-        this.points = points;
+    }
+
+    /**
+     * Returns the structural fingerprint of this question's content; see {@link ContentFingerprint}.
+     * Computed on first use and cached until a setter is called. Choices are treated as values:
+     * mutating a {@link Choice} in place is not detected, replace the choices instead.
+     * @return The 128-bit content fingerprint.
+     */
+    public ContentFingerprint contentFingerprint() {
+        ContentFingerprint fp = fingerprint;
+        if (fp == null) {
+            ContentFingerprint.Hasher hasher = new ContentFingerprint.Hasher(0x51_7c_c1_b7_27_22_0a_95L);
+            hasher.putString(id).putString(stem).putString(type == null ? null : type.name()).putInt(points);
+            List<Choice> currentChoices = choices != null ? choices : Collections.<Choice>emptyList();
+            hasher.putInt(currentChoices.size());
+            for (Choice choice : currentChoices) {
+                hasher.putString(choice.getId()).putString(choice.getText());
+            }
+            putValue(hasher, correctAnswer);
+            fp = hasher.finish();
+            fingerprint = fp;
+        }
+        return fp;
+    }
+
+    /**
+     * Encodes the untyped correct answer with a type tag, recursing into collections.
+     */
+    private static void putValue(ContentFingerprint.Hasher hasher, Object value) {
+        if (value == null) {
+            hasher.putInt(0);
+        } else if (value instanceof String) {
+            hasher.putInt(1).putString((String) value);
+        } else if (value instanceof Collection) {
+            Collection<?> collection = (Collection<?>) value;
+            hasher.putInt(2).putInt(collection.size());
+            for (Object element : collection) {
+                putValue(hasher, element);
+            }
+        } else if (value instanceof Boolean) {
+            hasher.putInt(3).putBoolean((Boolean) value);
+        } else {
+            hasher.putInt(4).putString(value.getClass().getName()).putString(value.toString());
+        }
+    }
+
+    private void contentChanged() {
+        this.answerKey = null;
+        this.fingerprint = null;
     }
 
     // Potential future methods:
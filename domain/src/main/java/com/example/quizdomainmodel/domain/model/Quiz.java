@@ -27,6 +27,9 @@ public class Quiz {
     private String description;
     // Mark for custom getter/setter
     @Getter(AccessLevel.NONE) @Setter(AccessLevel.NONE) private List<Question> questions;
+    // Fingerprint combined from title, description and questions, with the parts it came from
+    @Getter(AccessLevel.NONE) @Setter(AccessLevel.NONE) @ToString.Exclude
+    private transient volatile ContentFingerprint.Cached fingerprint;
 
     /**
      * Creates a new Quiz.
@@ -68,6 +71,17 @@ public class Quiz {
             throw new IllegalArgumentException("Questions list cannot be null.");
         }
         this.questions = new ArrayList<>(questions);
+        this.fingerprint = null;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+        this.fingerprint = null;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+        this.fingerprint = null;
     }
 
     /**
@@ -84,6 +98,7 @@ public class Quiz {
         }
         // Prevent duplicates based on ID? Or allow? For now, allow.
         this.questions.add(question);
+        this.fingerprint = null;
     }
 
     /**
@@ -95,6 +110,36 @@ public class Quiz {
         if (questionId == null || this.questions == null) {
             return false;
         }
-        return this.questions.removeIf(q -> questionId.equals(q.getId()));
+        boolean removed = this.questions.removeIf(q -> questionId.equals(q.getId()));
+        if (removed) {
+            this.fingerprint = null;
+        }
+        return removed;
+    }
+
+    /**
+     * Returns the structural fingerprint of the quiz content; see {@link ContentFingerprint}.
+     * The quiz ID is not part of it, so identical banks share a fingerprint. Cached, and
+     * recombined from the questions' cached fingerprints only after this quiz or one of its
+     * questions changed.
+     * @return The 128-bit content fingerprint.
+     */
+    public ContentFingerprint contentFingerprint() {
+        List<Question> current = getQuestions();
+        ContentFingerprint.Cached cached = fingerprint;
+        if (cached != null && cached.isCurrent(null, current)) {
+            return cached.fingerprint;
+        }
+        ContentFingerprint.Hasher hasher = new ContentFingerprint.Hasher(0x6a_09_e6_67_f3_bc_c9_08L);
+        hasher.putString(title).putString(description);
+        ContentFingerprint[] parts = new ContentFingerprint[current.size()];
+        hasher.putInt(parts.length);
+        for (int i = 0; i < parts.length; i++) {
+            parts[i] = current.get(i).contentFingerprint();
+            hasher.putFingerprint(parts[i]);
+        }
+        ContentFingerprint result = hasher.finish();
+        fingerprint = new ContentFingerprint.Cached(null, parts, result);
+        return result;
     }
 }
\ No newline at end of file
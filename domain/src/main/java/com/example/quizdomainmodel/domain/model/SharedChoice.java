@@ -0,0 +1,25 @@
+package com.example.quizdomainmodel.domain.model;
+
+/**
+ * An immutable {@link Choice} that may be shared by many questions, e.g. the "True" and "False"
+ * options of every true/false question in a bank.
+ * <p>
+ * Instances are created by {@code DomainInterner}. Because one instance is referenced from many
+ * questions, the setters throw instead of silently changing every question at once.
+ */
+public final class SharedChoice extends Choice {
+
+    public SharedChoice(String id, String text) {
+        super(id, text);
+    }
+
+    @Override
+    public void setId(String id) {
+        throw new UnsupportedOperationException("Shared choices are immutable.");
+    }
+
+    @Override
+    public void setText(String text) {
+        throw new UnsupportedOperationException("Shared choices are immutable.");
+    }
+}
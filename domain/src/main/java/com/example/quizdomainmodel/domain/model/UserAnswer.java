@@ -1,5 +1,6 @@
 package com.example.quizdomainmodel.domain.model;
 
+import com.example.quizdomainmodel.domain.intern.DomainInterner;
 import lombok.AccessLevel;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
@@ -39,8 +40,8 @@ public class UserAnswer {
             throw new IllegalArgumentException("Selected choice IDs list cannot be null.");
         }
         this.questionId = questionId;
-        // Defensive copy
-        this.selectedChoiceIds = new ArrayList<>(selectedChoiceIds);
+        // Defensive copy; IDs of shared choices reuse the choice's instance
+        this.selectedChoiceIds = DomainInterner.canonicalChoiceIds(selectedChoiceIds);
         this.filledText = null; // Not applicable for this constructor
         // Initialize to empty list for consistency
         this.subAnswers = Collections.emptyList();
@@ -69,6 +70,22 @@ public class UserAnswer {
         this.subAnswers = Collections.emptyList(); // No sub-questions for this type
     }
 
+    /**
+     * Factory method for answers to material questions, one sub-answer per answered sub-question.
+     *
+     * @param questionId The ID of the material question. Cannot be null.
+     * @param subAnswers The answers to its sub-questions. Cannot be null (can be empty).
+     */
+    public static UserAnswer createMaterialAnswer(String questionId, List<UserAnswer> subAnswers) {
+        if (subAnswers == null) {
+            throw new IllegalArgumentException("Sub-answers list cannot be null.");
+        }
+        UserAnswer answer = new UserAnswer(questionId, Collections.<String>emptyList());
+        // Defensive copy
+        answer.subAnswers = new ArrayList<>(subAnswers);
+        return answer;
+    }
+
     /**
      * Returns an unmodifiable view of the selected choice IDs.
      * Keeping custom getter for immutability.
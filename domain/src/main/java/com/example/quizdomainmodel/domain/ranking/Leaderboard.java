@@ -0,0 +1,359 @@
+package com.example.quizdomainmodel.domain.ranking;
+
+import com.example.quizdomainmodel.domain.grading.IncrementalRegrader.ScoreChange;
+import com.example.quizdomainmodel.domain.ingest.GradedSubmissionHandler;
+import com.example.quizdomainmodel.domain.model.AnswerSheet;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Live ranking of one quiz's graded answer sheets, fed by the grading pipeline as a
+ * {@link GradedSubmissionHandler} and by regrades through {@link #onRegraded(List)}.
+ * <p>
+ * Sheets are kept in an order-statistic treap sorted by score (descending), then submission time
+ * (earlier first), then sheet ID. Every node knows the size of its subtree, so inserting, moving a
+ * regraded sheet, looking up a rank or reading the sheet at a rank costs O(log n), and the top
+ * {@code k} cost O(k + log n); nothing is ever re-sorted.
+ * <p>
+ * Alongside the exact ranking the leaderboard keeps a {@link QuantileSketch} of its scores.
+ * {@link #snapshotSketch()} copies it for shipping to other grader processes, where sketches merge
+ * into the percentiles of the whole cohort.
+ * <p>
+ * Instances are thread-safe; all operations hold the leaderboard's lock for O(log n) steps.
+ */
+public final class Leaderboard implements GradedSubmissionHandler {
+
+    private final String quizId;
+    private final Map<String, Node> nodesBySheetId = new HashMap<>();
+    private final QuantileSketch sketch;
+    private final SplittableRandom priorities = new SplittableRandom(0x1EADEL);
+    private Node root;
+
+    /**
+     * Creates a leaderboard whose sketch uses {@link QuantileSketch#DEFAULT_RELATIVE_ACCURACY}.
+     */
+    public Leaderboard(String quizId) {
+        this(quizId, QuantileSketch.DEFAULT_RELATIVE_ACCURACY);
+    }
+
+    /**
+     * @param quizId The quiz whose sheets are ranked. Cannot be null.
+     * @param sketchRelativeAccuracy Relative accuracy of the score sketch; all leaderboards whose
+     *                               sketches are merged must use the same value.
+     */
+    public Leaderboard(String quizId, double sketchRelativeAccuracy) {
+        if (quizId == null) {
+            throw new IllegalArgumentException("Quiz ID cannot be null.");
+        }
+        this.quizId = quizId;
+        this.sketch = new QuantileSketch(sketchRelativeAccuracy);
+    }
+
+    /**
+     * Ranks a graded sheet. A sheet ID already on the leaderboard is moved to its new score.
+     *
+     * @throws IllegalArgumentException if the sheet belongs to another quiz.
+     */
+    @Override
+    public synchronized void onGraded(AnswerSheet sheet, int totalScore) {
+        if (sheet == null) {
+            throw new IllegalArgumentException("Answer sheet cannot be null.");
+        }
+        if (!quizId.equals(sheet.getQuizId())) {
+            throw new IllegalArgumentException("Sheet " + sheet.getId() + " belongs to quiz " + sheet.getQuizId()
+                    + ", not " + quizId + ".");
+        }
+        Node existing = nodesBySheetId.get(sheet.getId());
+        if (existing != null) {
+            if (existing.score == totalScore && existing.submissionTime == sheet.getSubmissionTime()) {
+                return;
+            }
+            unlink(existing);
+        }
+        Node node = new Node(sheet.getId(), sheet.getUserId(), totalScore, sheet.getSubmissionTime(),
+                priorities.nextInt());
+        root = insert(root, node);
+        nodesBySheetId.put(node.sheetId, node);
+        sketch.add(totalScore);
+    }
+
+    /**
+     * Moves regraded sheets to their new scores, e.g. with the result of
+     * {@link com.example.quizdomainmodel.domain.grading.IncrementalRegrader#regrade(String)}.
+     * Sheets not on the leaderboard yet are added.
+     */
+    public synchronized void onRegraded(List<ScoreChange> changes) {
+        if (changes == null) {
+            throw new IllegalArgumentException("Score changes cannot be null.");
+        }
+        for (ScoreChange change : changes) {
+            onGraded(change.getSheet(), change.getNewScore());
+        }
+    }
+
+    /**
+     * Takes a sheet off the leaderboard, e.g. after it was voided.
+     *
+     * @return true if the sheet was ranked.
+     */
+    public synchronized boolean remove(String sheetId) {
+        Node node = nodesBySheetId.get(sheetId);
+        if (node == null) {
+            return false;
+        }
+        unlink(node);
+        return true;
+    }
+
+    private void unlink(Node node) {
+        root = delete(root, node);
+        nodesBySheetId.remove(node.sheetId);
+        sketch.remove(node.score);
+    }
+
+    /**
+     * @return The sheet's standing, or null if the sheet is not ranked.
+     */
+    public synchronized Standing getStanding(String sheetId) {
+        Node node = nodesBySheetId.get(sheetId);
+        return node == null ? null : standing(node, rankOf(node));
+    }
+
+    /**
+     * @param rank 1-based rank.
+     * @return The standing at that rank, or null if fewer sheets are ranked.
+     */
+    public synchronized Standing getStandingAtRank(int rank) {
+        if (rank < 1 || rank > size(root)) {
+            return null;
+        }
+        return standing(select(rank - 1), rank);
+    }
+
+    /**
+     * @return The best {@code k} standings, best first.
+     */
+    public synchronized List<Standing> getTop(int k) {
+        if (k < 0) {
+            throw new IllegalArgumentException("k cannot be negative.");
+        }
+        List<Node> nodes = new ArrayList<>(Math.min(k, size(root)));
+        collect(root, k, nodes);
+        int total = size(root);
+        int[] atLeast = new int[nodes.size()];
+        // Sheets scoring at least a score end with the last one of that score; only the final run
+        // may continue past the top k, so it is the only one counted in the tree
+        for (int i = nodes.size() - 1; i >= 0; i--) {
+            if (i == nodes.size() - 1) {
+                atLeast[i] = countAtLeast(nodes.get(i).score);
+            } else {
+                atLeast[i] = nodes.get(i).score == nodes.get(i + 1).score ? atLeast[i + 1] : i + 1;
+            }
+        }
+        List<Standing> top = new ArrayList<>(nodes.size());
+        for (int i = 0; i < nodes.size(); i++) {
+            top.add(standing(nodes.get(i), i + 1, total, atLeast[i]));
+        }
+        return top;
+    }
+
+    private void collect(Node node, int k, List<Node> nodes) {
+        if (node == null || nodes.size() >= k) {
+            return;
+        }
+        collect(node.left, k, nodes);
+        if (nodes.size() < k) {
+            nodes.add(node);
+            collect(node.right, k, nodes);
+        }
+    }
+
+    /**
+     * @return The exact percentage of ranked sheets scoring strictly below {@code score}.
+     */
+    public synchronized double getPercentile(int score) {
+        int total = size(root);
+        return total == 0 ? 0 : 100.0 * (total - countAtLeast(score)) / total;
+    }
+
+    /**
+     * @return A copy of the score sketch, to merge with the sketches of other processes.
+     */
+    public synchronized QuantileSketch snapshotSketch() {
+        return sketch.copy();
+    }
+
+    public synchronized int size() {
+        return size(root);
+    }
+
+    public String getQuizId() {
+        return quizId;
+    }
+
+    private Standing standing(Node node, int rank) {
+        return standing(node, rank, size(root), countAtLeast(node.score));
+    }
+
+    private static Standing standing(Node node, int rank, int total, int atLeast) {
+        double percentile = 100.0 * (total - atLeast) / total;
+        return new Standing(node.sheetId, node.userId, node.score, node.submissionTime, rank, total, percentile);
+    }
+
+    // --- Order-statistic treap ---
+
+    private static int compare(Node a, Node b) {
+        if (a.score != b.score) {
+            return Integer.compare(b.score, a.score);
+        }
+        if (a.submissionTime != b.submissionTime) {
+            return Long.compare(a.submissionTime, b.submissionTime);
+        }
+        return a.sheetId.compareTo(b.sheetId);
+    }
+
+    private static int size(Node node) {
+        return node == null ? 0 : node.size;
+    }
+
+    private static Node update(Node node) {
+        node.size = 1 + size(node.left) + size(node.right);
+        return node;
+    }
+
+    private static Node insert(Node node, Node added) {
+        if (node == null) {
+            return added;
+        }
+        if (added.priority > node.priority) {
+            Node[] parts = split(node, added);
+            added.left = parts[0];
+            added.right = parts[1];
+            return update(added);
+        }
+        if (compare(added, node) < 0) {
+            node.left = insert(node.left, added);
+        } else {
+            node.right = insert(node.right, added);
+        }
+        return update(node);
+    }
+
+    /**
+     * Splits a subtree into the nodes ordered before {@code key} and the others.
+     */
+    private static Node[] split(Node node, Node key) {
+        if (node == null) {
+            return new Node[2];
+        }
+        if (compare(node, key) < 0) {
+            Node[] parts = split(node.right, key);
+            node.right = parts[0];
+            parts[0] = update(node);
+            return parts;
+        }
+        Node[] parts = split(node.left, key);
+        node.left = parts[1];
+        parts[1] = update(node);
+        return parts;
+    }
+
+    private static Node delete(Node node, Node removed) {
+        if (node == null) {
+            return null;
+        }
+        if (node == removed) {
+            return merge(node.left, node.right);
+        }
+        if (compare(removed, node) < 0) {
+            node.left = delete(node.left, removed);
+        } else {
+            node.right = delete(node.right, removed);
+        }
+        return update(node);
+    }
+
+    private static Node merge(Node left, Node right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            return update(left);
+        }
+        right.left = merge(left, right.left);
+        return update(right);
+    }
+
+    private int rankOf(Node target) {
+        int rank = 1;
+        Node node = root;
+        while (node != target) {
+            if (compare(target, node) < 0) {
+                node = node.left;
+            } else {
+                rank += size(node.left) + 1;
+                node = node.right;
+            }
+        }
+        return rank + size(target.left);
+    }
+
+    private Node select(int index) {
+        Node node = root;
+        while (true) {
+            int leftSize = size(node.left);
+            if (index < leftSize) {
+                node = node.left;
+            } else if (index == leftSize) {
+                return node;
+            } else {
+                index -= leftSize + 1;
+                node = node.right;
+            }
+        }
+    }
+
+    /**
+     * Counts sheets scoring at least {@code score}; they form a prefix of the order.
+     */
+    private int countAtLeast(int score) {
+        int count = 0;
+        Node node = root;
+        while (node != null) {
+            if (node.score >= score) {
+                count += size(node.left) + 1;
+                node = node.right;
+            } else {
+                node = node.left;
+            }
+        }
+        return count;
+    }
+
+    private static final class Node {
+        private final String sheetId;
+        private final String userId;
+        private final int score;
+        private final long submissionTime;
+        private final int priority;
+        private Node left;
+        private Node right;
+        private int size = 1;
+
+        Node(String sheetId, String userId, int score, long submissionTime, int priority) {
+            this.sheetId = sheetId;
+            this.userId = userId;
+            this.score = score;
+            this.submissionTime = submissionTime;
+            this.priority = priority;
+        }
+    }
+}
@@ -0,0 +1,397 @@
+package com.example.quizdomainmodel.domain.ranking;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+
+/**
+ * Mergeable quantile sketch over scores, in the style of DDSketch.
+ * <p>
+ * A positive value {@code v} is counted in bucket {@code ceil(log(v) / log(gamma))} with
+ * {@code gamma = (1 + a) / (1 - a)}, so every bucket spans a fixed ratio and a quantile is returned
+ * within relative error {@code a} of the true value, whatever the distribution. Negative values use
+ * a mirrored set of buckets and zeros have their own counter. Buckets are deterministic, which
+ * makes the sketch:
+ * <ul>
+ *     <li><b>mergeable:</b> sketches built by separate grader processes with the same accuracy add
+ *     bucket by bucket into exactly the sketch of all their scores;</li>
+ *     <li><b>updatable:</b> a regraded score is removed from its old bucket and added to its new one;</li>
+ *     <li><b>small:</b> about 700 buckets cover scores from 1 to 10^6 at 1% accuracy, however
+ *     many scores are counted.</li>
+ * </ul>
+ * {@link #toBytes()} and {@link #fromBytes(byte[])} ship sketches between processes. Instances are
+ * not thread-safe.
+ */
+public final class QuantileSketch {
+
+    public static final double DEFAULT_RELATIVE_ACCURACY = 0.01;
+    private static final int FORMAT_VERSION = 1;
+
+    private final double relativeAccuracy;
+    private final double logGamma;
+    private final BucketStore positive = new BucketStore();
+    private final BucketStore negative = new BucketStore();
+    private long zeroCount;
+    private long count;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+
+    public QuantileSketch() {
+        this(DEFAULT_RELATIVE_ACCURACY);
+    }
+
+    /**
+     * @param relativeAccuracy Relative error bound of returned quantiles, in (0, 1).
+     */
+    public QuantileSketch(double relativeAccuracy) {
+        if (!(relativeAccuracy > 0 && relativeAccuracy < 1)) {
+            throw new IllegalArgumentException("Relative accuracy must be in (0, 1).");
+        }
+        this.relativeAccuracy = relativeAccuracy;
+        this.logGamma = Math.log((1 + relativeAccuracy) / (1 - relativeAccuracy));
+    }
+
+    public void add(double value) {
+        add(value, 1);
+    }
+
+    /**
+     * Counts a value {@code times} times.
+     */
+    public void add(double value, long times) {
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            throw new IllegalArgumentException("Value must be finite.");
+        }
+        if (times < 0) {
+            throw new IllegalArgumentException("Count cannot be negative.");
+        }
+        if (times == 0) {
+            return;
+        }
+        if (value > 0) {
+            positive.add(index(value), times);
+        } else if (value < 0) {
+            negative.add(index(-value), times);
+        } else {
+            zeroCount += times;
+        }
+        count += times;
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+    }
+
+    /**
+     * Uncounts a value added before, e.g. the old score of a regraded sheet. The exact minimum and
+     * maximum are not restored; they stay bounds of the remaining values.
+     *
+     * @throws IllegalArgumentException if the value's bucket is empty.
+     */
+    public void remove(double value) {
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            throw new IllegalArgumentException("Value must be finite.");
+        }
+        boolean removed;
+        if (value > 0) {
+            removed = positive.remove(index(value));
+        } else if (value < 0) {
+            removed = negative.remove(index(-value));
+        } else {
+            removed = zeroCount > 0;
+            if (removed) {
+                zeroCount--;
+            }
+        }
+        if (!removed) {
+            throw new IllegalArgumentException("Value " + value + " was not added to the sketch.");
+        }
+        count--;
+        if (count == 0) {
+            min = Double.POSITIVE_INFINITY;
+            max = Double.NEGATIVE_INFINITY;
+        }
+    }
+
+    /**
+     * Adds the counts of another sketch into this one.
+     *
+     * @throws IllegalArgumentException if the sketches were built with different accuracies.
+     */
+    public void merge(QuantileSketch other) {
+        if (other == null) {
+            throw new IllegalArgumentException("Sketch cannot be null.");
+        }
+        if (Double.compare(other.relativeAccuracy, relativeAccuracy) != 0) {
+            throw new IllegalArgumentException("Cannot merge sketches with different relative accuracies: "
+                    + relativeAccuracy + " and " + other.relativeAccuracy);
+        }
+        positive.merge(other.positive);
+        negative.merge(other.negative);
+        zeroCount += other.zeroCount;
+        count += other.count;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+    }
+
+    /**
+     * @param quantile The quantile, in [0, 1]; 0.5 is the median.
+     * @return A value within the relative accuracy of the value at that quantile, or NaN if the
+     * sketch is empty.
+     */
+    public double getValueAtQuantile(double quantile) {
+        if (!(quantile >= 0 && quantile <= 1)) {
+            throw new IllegalArgumentException("Quantile must be in [0, 1].");
+        }
+        if (count == 0) {
+            return Double.NaN;
+        }
+        long rank = (long) (quantile * (count - 1));
+        double value;
+        if (rank < negative.total) {
+            // Negative buckets run from the most negative value up
+            value = -representative(negative.indexOfRank(negative.total - 1 - rank));
+        } else if (rank < negative.total + zeroCount) {
+            value = 0;
+        } else {
+            value = representative(positive.indexOfRank(rank - negative.total - zeroCount));
+        }
+        return Math.max(min, Math.min(max, value));
+    }
+
+    /**
+     * Estimates the fraction of counted values strictly below a value: a percentile rank.
+     * Values in the same bucket as {@code value} count as half below, half above.
+     *
+     * @return The fraction in [0, 1], or NaN if the sketch is empty.
+     */
+    public double getFractionBelow(double value) {
+        if (count == 0) {
+            return Double.NaN;
+        }
+        double below;
+        if (value > 0) {
+            int index = index(value);
+            below = negative.total + zeroCount + positive.countBelow(index) + positive.get(index) / 2.0;
+        } else if (value < 0) {
+            int index = index(-value);
+            below = negative.countAbove(index) + negative.get(index) / 2.0;
+        } else {
+            below = negative.total + zeroCount / 2.0;
+        }
+        return below / count;
+    }
+
+    private int index(double value) {
+        return (int) Math.ceil(Math.log(value) / logGamma);
+    }
+
+    private double representative(int index) {
+        // Midpoint in relative terms of the bucket (gamma^(i-1), gamma^i]
+        return 2 * Math.exp(index * logGamma) / (1 + Math.exp(logGamma));
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public double getRelativeAccuracy() {
+        return relativeAccuracy;
+    }
+
+    public double getMin() {
+        return count == 0 ? Double.NaN : min;
+    }
+
+    public double getMax() {
+        return count == 0 ? Double.NaN : max;
+    }
+
+    public QuantileSketch copy() {
+        QuantileSketch copy = new QuantileSketch(relativeAccuracy);
+        copy.merge(this);
+        return copy;
+    }
+
+    /**
+     * Serializes the sketch; only the non-empty range of buckets is written.
+     */
+    public byte[] toBytes() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 + 8 * (positive.size() + negative.size()));
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(FORMAT_VERSION);
+            out.writeDouble(relativeAccuracy);
+            out.writeLong(count);
+            out.writeLong(zeroCount);
+            out.writeDouble(min);
+            out.writeDouble(max);
+            positive.writeTo(out);
+            negative.writeTo(out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Restores a sketch written by {@link #toBytes()}.
+     *
+     * @throws IllegalArgumentException if the bytes are not a serialized sketch.
+     */
+    public static QuantileSketch fromBytes(byte[] data) {
+        if (data == null) {
+            throw new IllegalArgumentException("Data cannot be null.");
+        }
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(data))) {
+            int version = in.readUnsignedByte();
+            if (version != FORMAT_VERSION) {
+                throw new IllegalArgumentException("Unsupported sketch format version: " + version);
+            }
+            QuantileSketch sketch = new QuantileSketch(in.readDouble());
+            sketch.count = in.readLong();
+            sketch.zeroCount = in.readLong();
+            sketch.min = in.readDouble();
+            sketch.max = in.readDouble();
+            sketch.positive.readFrom(in);
+            sketch.negative.readFrom(in);
+            if (sketch.count != sketch.zeroCount + sketch.positive.total + sketch.negative.total) {
+                throw new IllegalArgumentException("Corrupt sketch: bucket counts do not add up.");
+            }
+            return sketch;
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Corrupt sketch: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "QuantileSketch(count=" + count + ", relativeAccuracy=" + relativeAccuracy
+                + ", buckets=" + (positive.size() + negative.size()) + ")";
+    }
+
+    /**
+     * Dense bucket counts over a contiguous index range that grows on demand.
+     */
+    private static final class BucketStore {
+        private long[] counts = new long[0];
+        private int offset;
+        private long total;
+
+        int size() {
+            return counts.length;
+        }
+
+        long get(int index) {
+            int slot = index - offset;
+            return slot >= 0 && slot < counts.length ? counts[slot] : 0;
+        }
+
+        void add(int index, long times) {
+            ensureRange(index);
+            counts[index - offset] += times;
+            total += times;
+        }
+
+        boolean remove(int index) {
+            int slot = index - offset;
+            if (slot < 0 || slot >= counts.length || counts[slot] == 0) {
+                return false;
+            }
+            counts[slot]--;
+            total--;
+            return true;
+        }
+
+        void merge(BucketStore other) {
+            if (other.total == 0) {
+                return;
+            }
+            ensureRange(other.offset);
+            ensureRange(other.offset + other.counts.length - 1);
+            for (int i = 0; i < other.counts.length; i++) {
+                counts[other.offset + i - offset] += other.counts[i];
+            }
+            total += other.total;
+        }
+
+        private void ensureRange(int index) {
+            if (counts.length == 0) {
+                counts = new long[8];
+                offset = index - 4;
+                return;
+            }
+            if (index < offset) {
+                // Grow downwards with some slack
+                int newOffset = Math.min(index, offset - counts.length / 2);
+                long[] grown = new long[counts.length + offset - newOffset];
+                System.arraycopy(counts, 0, grown, offset - newOffset, counts.length);
+                counts = grown;
+                offset = newOffset;
+            } else if (index >= offset + counts.length) {
+                counts = Arrays.copyOf(counts, Math.max(index - offset + 1, counts.length + counts.length / 2));
+            }
+        }
+
+        /**
+         * @return The bucket index holding the value of the given 0-based rank, ascending.
+         */
+        int indexOfRank(long rank) {
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen > rank) {
+                    return offset + i;
+                }
+            }
+            throw new IllegalStateException("Rank " + rank + " exceeds the bucket total " + total);
+        }
+
+        long countBelow(int index) {
+            long below = 0;
+            for (int i = 0; i < counts.length && offset + i < index; i++) {
+                below += counts[i];
+            }
+            return below;
+        }
+
+        long countAbove(int index) {
+            return total - countBelow(index) - get(index);
+        }
+
+        void writeTo(DataOutputStream out) throws IOException {
+            int first = 0;
+            int last = counts.length - 1;
+            while (first <= last && counts[first] == 0) {
+                first++;
+            }
+            while (last >= first && counts[last] == 0) {
+                last--;
+            }
+            out.writeInt(offset + first);
+            out.writeInt(last - first + 1);
+            for (int i = first; i <= last; i++) {
+                out.writeLong(counts[i]);
+            }
+        }
+
+        void readFrom(DataInputStream in) throws IOException {
+            int firstIndex = in.readInt();
+            int length = in.readInt();
+            if (length < 0 || length > 1 << 20) {
+                throw new IOException("invalid bucket range length " + length);
+            }
+            counts = new long[length];
+            offset = firstIndex;
+            total = 0;
+            for (int i = 0; i < length; i++) {
+                counts[i] = in.readLong();
+                if (counts[i] < 0) {
+                    throw new IOException("negative bucket count");
+                }
+                total += counts[i];
+            }
+        }
+    }
+}
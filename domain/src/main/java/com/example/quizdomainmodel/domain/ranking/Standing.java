@@ -0,0 +1,26 @@
+package com.example.quizdomainmodel.domain.ranking;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * A candidate's position on a {@link Leaderboard} at the time it was read.
+ */
+@Getter
+@ToString
+@EqualsAndHashCode
+@AllArgsConstructor
+public final class Standing {
+    private final String sheetId;
+    private final String userId;
+    private final int score;
+    private final long submissionTime;
+    /** 1-based rank; ties on score are broken by earlier submission time. */
+    private final int rank;
+    /** Number of ranked sheets. */
+    private final int total;
+    /** Percentage of ranked sheets with a strictly lower score. */
+    private final double percentile;
+}
@@ -0,0 +1,281 @@
+package com.example.quizdomainmodel.domain.shuffle;
+
+import com.example.quizdomainmodel.domain.model.Choice;
+import com.example.quizdomainmodel.domain.model.Question;
+import com.example.quizdomainmodel.domain.model.Quiz;
+import com.example.quizdomainmodel.domain.model.UserAnswer;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A per-user, deterministically shuffled view over a shared {@link Quiz}.
+ * <p>
+ * The view never copies {@link Question} or {@link Choice} objects. It only stores a question
+ * permutation ({@code int[]}) and one choice permutation per question ({@code byte[]}), each
+ * built lazily on first access. The same quiz and user always produce the same order, so the
+ * view can be rebuilt at any time from the user id instead of being persisted.
+ * <p>
+ * Displayed choices are the canonical {@link Choice} instances, so answers submitted by choice id
+ * need no mapping at all and {@code AnswerSheet} scoring is unchanged. Clients that submit
+ * displayed positions (e.g. "the second option") can use {@link #toCanonicalAnswer(int, int...)}.
+ * <p>
+ * The view assumes the quiz is not structurally modified while in use and is not thread-safe;
+ * confine it to the candidate's session.
+ */
+public final class ShuffledQuizView {
+
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+    private static final int MAX_SHUFFLED_CHOICES = 256;
+
+    private final List<Question> questions;
+    private final long seed;
+
+    // Lazily built permutations: display position -> canonical index
+    private int[] questionOrder;
+    private byte[][] choiceOrders;
+
+    /**
+     * Creates a view with an explicit seed.
+     *
+     * @param quiz The shared quiz. Cannot be null.
+     * @param seed The seed for all permutations of this view.
+     */
+    public ShuffledQuizView(Quiz quiz, long seed) {
+        if (quiz == null) {
+            throw new IllegalArgumentException("Quiz cannot be null.");
+        }
+        this.questions = quiz.getQuestions();
+        this.seed = seed;
+    }
+
+    /**
+     * Creates the view for a user, seeded from the quiz ID and user ID.
+     *
+     * @param quiz The shared quiz. Cannot be null.
+     * @param userId The ID of the candidate. Cannot be null or empty.
+     * @return The user's shuffled view.
+     */
+    public static ShuffledQuizView forUser(Quiz quiz, String userId) {
+        if (quiz == null) {
+            throw new IllegalArgumentException("Quiz cannot be null.");
+        }
+        if (userId == null || userId.isEmpty()) {
+            throw new IllegalArgumentException("User ID cannot be null or empty.");
+        }
+        return new ShuffledQuizView(quiz, mix64(hash(quiz.getId()) * 31 + hash(userId)));
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * @return The number of top-level questions in the view.
+     */
+    public int size() {
+        return questions.size();
+    }
+
+    /**
+     * Returns the question displayed at the given position.
+     */
+    public Question getQuestion(int position) {
+        return questions.get(canonicalQuestionIndex(position));
+    }
+
+    /**
+     * Returns the questions in display order. The list is a read-only view, not a copy.
+     */
+    public List<Question> getQuestions() {
+        return new AbstractList<Question>() {
+            @Override
+            public Question get(int position) {
+                return getQuestion(position);
+            }
+
+            @Override
+            public int size() {
+                return ShuffledQuizView.this.size();
+            }
+        };
+    }
+
+    /**
+     * Maps a display position to the index of the question in the underlying quiz.
+     */
+    public int canonicalQuestionIndex(int position) {
+        return questionOrder()[position];
+    }
+
+    /**
+     * Returns the choices of the question displayed at the given position, in display order.
+     * The list is a read-only view over the canonical choices, not a copy.
+     */
+    public List<Choice> getChoices(int position) {
+        int index = canonicalQuestionIndex(position);
+        return permutedView(questions.get(index).getChoices(), choiceOrder(index));
+    }
+
+    /**
+     * Returns the choices of any question of the quiz (including sub-questions of material
+     * questions) in this user's display order. Only top-level permutations are cached; for
+     * sub-questions the permutation is recomputed on each call.
+     */
+    public List<Choice> getChoices(Question question) {
+        if (question == null) {
+            throw new IllegalArgumentException("Question cannot be null.");
+        }
+        List<Choice> choices = question.getChoices();
+        return permutedView(choices, computeChoiceOrder(question.getId(), choices.size()));
+    }
+
+    /**
+     * Builds a choice answer with canonical choice IDs from displayed choice positions. The IDs are
+     * listed in canonical choice order, whatever order the choices were displayed or clicked in,
+     * so the answer compares equal to an unshuffled answer with the same selection.
+     *
+     * @param position The display position of the question.
+     * @param displayedChoicePositions The positions of the selected choices as displayed.
+     * @return A {@link UserAnswer} referencing the canonical question and choice IDs.
+     */
+    public UserAnswer toCanonicalAnswer(int position, int... displayedChoicePositions) {
+        int index = canonicalQuestionIndex(position);
+        Question question = questions.get(index);
+        return UserAnswer.createChoiceAnswer(question.getId(),
+                selectedChoiceIds(question.getChoices(), choiceOrder(index), displayedChoicePositions));
+    }
+
+    /**
+     * Builds a choice answer with canonical choice IDs for any question of the quiz, such as a
+     * sub-question of a material question.
+     */
+    public UserAnswer toCanonicalAnswer(Question question, int... displayedChoicePositions) {
+        if (question == null) {
+            throw new IllegalArgumentException("Question cannot be null.");
+        }
+        List<Choice> choices = question.getChoices();
+        return UserAnswer.createChoiceAnswer(question.getId(), selectedChoiceIds(choices,
+                computeChoiceOrder(question.getId(), choices.size()), displayedChoicePositions));
+    }
+
+    private static List<String> selectedChoiceIds(List<Choice> choices, byte[] order, int[] displayedPositions) {
+        if (displayedPositions == null) {
+            throw new IllegalArgumentException("Selected positions cannot be null.");
+        }
+        int[] canonical = new int[displayedPositions.length];
+        for (int i = 0; i < displayedPositions.length; i++) {
+            int displayed = displayedPositions[i];
+            if (displayed < 0 || displayed >= order.length) {
+                throw new IndexOutOfBoundsException("Choice position " + displayed + " out of range: " + order.length);
+            }
+            canonical[i] = order[displayed] & 0xFF;
+        }
+        // Grading compares choice ID lists, so selections must not depend on the display order
+        Arrays.sort(canonical);
+        List<String> ids = new ArrayList<>(canonical.length);
+        for (int index : canonical) {
+            ids.add(choices.get(index).getId());
+        }
+        return ids;
+    }
+
+    private int[] questionOrder() {
+        int[] order = questionOrder;
+        if (order == null || order.length != questions.size()) {
+            order = new int[questions.size()];
+            for (int i = 0; i < order.length; i++) {
+                order[i] = i;
+            }
+            long state = seed;
+            for (int i = order.length - 1; i > 0; i--) {
+                state += GOLDEN_GAMMA;
+                int j = nextBounded(state, i + 1);
+                int tmp = order[i];
+                order[i] = order[j];
+                order[j] = tmp;
+            }
+            questionOrder = order;
+            choiceOrders = new byte[order.length][];
+        }
+        return order;
+    }
+
+    private byte[] choiceOrder(int questionIndex) {
+        byte[] order = choiceOrders[questionIndex];
+        if (order == null) {
+            Question question = questions.get(questionIndex);
+            order = computeChoiceOrder(question.getId(), question.getChoices().size());
+            choiceOrders[questionIndex] = order;
+        }
+        return order;
+    }
+
+    /**
+     * Choice permutations are seeded by question ID rather than position, so a question keeps
+     * the same choice order for a user wherever it appears.
+     */
+    private byte[] computeChoiceOrder(String questionId, int choiceCount) {
+        if (choiceCount > MAX_SHUFFLED_CHOICES) {
+            throw new IllegalStateException("Cannot shuffle more than " + MAX_SHUFFLED_CHOICES + " choices.");
+        }
+        byte[] order = new byte[choiceCount];
+        for (int i = 0; i < choiceCount; i++) {
+            order[i] = (byte) i;
+        }
+        long state = mix64(seed ^ hash(questionId));
+        for (int i = choiceCount - 1; i > 0; i--) {
+            state += GOLDEN_GAMMA;
+            int j = nextBounded(state, i + 1);
+            byte tmp = order[i];
+            order[i] = order[j];
+            order[j] = tmp;
+        }
+        return order;
+    }
+
+    private static List<Choice> permutedView(List<Choice> choices, byte[] order) {
+        return new AbstractList<Choice>() {
+            @Override
+            public Choice get(int position) {
+                return choices.get(order[position] & 0xFF);
+            }
+
+            @Override
+            public int size() {
+                return order.length;
+            }
+        };
+    }
+
+    /**
+     * SplitMix64 output for the given state, reduced to [0, bound) by multiply-shift on the high
+     * 32 bits. There is no rejection step, so each value's probability is off by at most
+     * {@code bound / 2^32}: below 2^-24 for the at most 256 choices of a question, and negligible
+     * for any realistic number of questions. Implemented here rather than via
+     * {@code java.util.Random} so permutations stay identical across JDK versions and processes.
+     */
+    private static int nextBounded(long state, int bound) {
+        return (int) (((mix64(state) >>> 32) * bound) >>> 32);
+    }
+
+    private static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    // 64-bit FNV-1a over UTF-16 code units; String.hashCode is too narrow for seeding
+    private static long hash(String value) {
+        long h = 0xCBF29CE484222325L;
+        if (value != null) {
+            for (int i = 0; i < value.length(); i++) {
+                h ^= value.charAt(i);
+                h *= 0x100000001B3L;
+            }
+        }
+        return h;
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.quizdomainmodel.excelimport;
 
+import com.example.quizdomainmodel.domain.intern.DomainInterner;
 import com.example.quizdomainmodel.domain.model.Choice;
 import com.example.quizdomainmodel.domain.model.Question;
 import com.example.quizdomainmodel.domain.model.QuestionType;
@@ -12,7 +13,6 @@ import java.io.FileInputStream;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.UUID;
 
 public class ExcelImporter {
 
@@ -51,7 +51,13 @@ public class ExcelImporter {
         
         List<Choice> choices = parseChoices(choicesStr);
         
-        return new Question(id, stem, type, choices, correctAnswerStr, points);
+        Question question = new Question(id, stem, type, choices, correctAnswerStr, points);
+        // Resolve the answer key once at import so grading never re-parses the answer text
+        if (!question.getAnswerKey().isResolved() && type != QuestionType.MATERIAL && type != QuestionType.READING) {
+            System.err.println("Warning: row " + (row.getRowNum() + 1) + ": correct answer '" + correctAnswerStr
+                    + "' could not be resolved; falling back to raw comparison.");
+        }
+        return question;
     }
 
     private static String getCellStringValue(Row row, int cellIndex) {
@@ -80,7 +86,7 @@ public class ExcelImporter {
         for (String choiceStr : choiceStrings) {
             String trimmed = choiceStr.trim();
             if (!trimmed.isEmpty()) {
-                choices.add(new Choice(UUID.randomUUID().toString(), trimmed));
+                choices.add(DomainInterner.choice(trimmed));
             }
         }
         
@@ -0,0 +1,42 @@
+package com.example.quizdomainmodel.domain.adaptive;
+
+import com.example.quizdomainmodel.domain.model.Question;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+/**
+ * Measures next-item selection on a 100,000-item bank. Not part of the default test run; run with
+ * {@code mvn -Pbenchmark test -pl domain}.
+ */
+class AdaptiveSelectionBenchmark {
+
+    @Test
+    void selectNextItemOnLargeBank() {
+        AdaptiveItemBank bank = new AdaptiveItemBank(AdaptiveSessionTest.createBank(100_000, 5), AdaptivePolicy.builder().build());
+        Random random = new Random(5);
+        // Warm up the JIT
+        for (int i = 0; i < 2_000; i++) {
+            AdaptiveSessionTest.simulate(bank.startSession("warmup-" + i, i), random.nextGaussian(), random);
+        }
+
+        long selections = 0;
+        long nanos = 0;
+        for (int i = 0; i < 2_000; i++) {
+            AdaptiveSession session = bank.startSession("user-" + i, i);
+            double theta = random.nextGaussian();
+            while (true) {
+                long start = System.nanoTime();
+                Question question = session.nextQuestion();
+                nanos += System.nanoTime() - start;
+                if (question == null) {
+                    break;
+                }
+                selections++;
+                session.submit(AdaptiveSessionTest.answer(question, theta, random));
+            }
+        }
+        System.out.printf("Adaptive selection over %d items: %.2f us per item (%d selections)%n",
+                bank.getItemCount(), nanos / 1_000.0 / selections, selections);
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.quizdomainmodel.domain.adaptive;
+
+import com.example.quizdomainmodel.domain.intern.DomainInterner;
+import com.example.quizdomainmodel.domain.model.AnswerSheet;
+import com.example.quizdomainmodel.domain.model.Choice;
+import com.example.quizdomainmodel.domain.model.ItemParameters;
+import com.example.quizdomainmodel.domain.model.Question;
+import com.example.quizdomainmodel.domain.model.QuestionType;
+import com.example.quizdomainmodel.domain.model.Quiz;
+import com.example.quizdomainmodel.domain.model.UserAnswer;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.offset;
+
+class AdaptiveSessionTest {
+
+    private static final List<Choice> CHOICES = Arrays.asList(DomainInterner.choice("Right"), DomainInterner.choice("Wrong"));
+
+    @Test
+    void shouldConvergeToTrueAbility() {
+        // 模拟考生按 IRT 模型作答，能力估计应收敛到真实能力附近
+        AdaptiveItemBank bank = new AdaptiveItemBank(createBank(2_000, 1), AdaptivePolicy.builder().build());
+        Random random = new Random(7);
+        for (double trueTheta : new double[]{-1.5, 0.0, 1.2}) {
+            AdaptiveSession session = bank.startSession("user-" + trueTheta, 11);
+            simulate(session, trueTheta, random);
+
+            assertThat(session.isFinished()).isTrue();
+            assertThat(session.getTheta()).isCloseTo(trueTheta, offset(0.6));
+            assertThat(session.getStandardError()).isLessThanOrEqualTo(0.3);
+            assertThat(session.getItemsAdministered()).isBetween(5, 30);
+            assertThat(new HashSet<>(session.getAdministeredQuestions())).hasSize(session.getItemsAdministered());
+        }
+    }
+
+    @Test
+    void shouldLimitItemExposure() {
+        // 曝光控制：同一能力的大量考生不应总是拿到同一道题
+        AdaptivePolicy policy = AdaptivePolicy.builder().maxItems(10).minItems(10).maxExposureRate(0.2).build();
+        AdaptiveItemBank bank = new AdaptiveItemBank(createBank(2_000, 2), policy);
+        Random random = new Random(3);
+        for (int i = 0; i < 500; i++) {
+            simulate(bank.startSession("user-" + i, i), 0.0, random);
+        }
+
+        assertThat(bank.getMaxExposureRate()).isLessThanOrEqualTo(0.2 + 0.05);
+
+        AdaptiveItemBank uncontrolled = new AdaptiveItemBank(createBank(2_000, 2),
+                policy.toBuilder().maxExposureRate(1).randomesque(1).build());
+        for (int i = 0; i < 100; i++) {
+            AdaptiveSession session = uncontrolled.startSession("user-" + i, i);
+            session.nextQuestion();
+        }
+        assertThat(uncontrolled.getMaxExposureRate()).isEqualTo(1.0);
+    }
+
+    @Test
+    void shouldAdministerDistinctItemsFromLargeBank() {
+        // 大题库上的每场会话都应正常结束，且不重复出题；选题耗时见 AdaptiveSelectionBenchmark
+        AdaptiveItemBank bank = new AdaptiveItemBank(createBank(20_000, 5), AdaptivePolicy.builder().build());
+        Random random = new Random(5);
+        for (int i = 0; i < 50; i++) {
+            AdaptiveSession session = bank.startSession("user-" + i, i);
+            simulate(session, random.nextGaussian(), random);
+
+            assertThat(session.isFinished()).isTrue();
+            assertThat(session.getItemsAdministered()).isBetween(5, 30);
+            assertThat(new HashSet<>(session.getAdministeredQuestions())).hasSize(session.getItemsAdministered());
+        }
+        assertThat(bank.getItemCount()).isEqualTo(20_000);
+    }
+
+    @Test
+    void shouldRecordSessionAsGradableAnswerSheet() {
+        Quiz quiz = createBank(200, 4);
+        AdaptiveItemBank bank = new AdaptiveItemBank(quiz, AdaptivePolicy.builder().build());
+        AdaptiveSession session = bank.startSession("user-1", 1);
+        simulate(session, 0.5, new Random(1));
+
+        AnswerSheet sheet = session.toAnswerSheet();
+
+        assertThat(sheet.getQuizId()).isEqualTo(quiz.getId());
+        assertThat(sheet.getUserAnswers()).hasSize(session.getItemsAdministered());
+        assertThat(sheet.calculateTotalScore(quiz.getQuestions())).isBetween(0, session.getItemsAdministered());
+        assertThatThrownBy(() -> session.submit(new UserAnswer("other", "x"))).isInstanceOf(IllegalStateException.class);
+    }
+
+    static void simulate(AdaptiveSession session, double theta, Random random) {
+        Question question;
+        while ((question = session.nextQuestion()) != null) {
+            session.submit(answer(question, theta, random));
+        }
+    }
+
+    static UserAnswer answer(Question question, double theta, Random random) {
+        boolean correct = random.nextDouble() < question.getItemParameters().probability(theta);
+        Choice chosen = CHOICES.get(correct ? 0 : 1);
+        return UserAnswer.createChoiceAnswer(question.getId(), Collections.singletonList(chosen.getId()));
+    }
+
+    static Quiz createBank(int size, long seed) {
+        Random random = new Random(seed);
+        List<Question> questions = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Question question = new Question("item-" + i, "Calibrated item " + i, QuestionType.SINGLE_CHOICE,
+                    CHOICES, "Right", 1);
+            question.setItemParameters(new ItemParameters(0.6 + random.nextDouble() * 1.4,
+                    random.nextGaussian() * 1.2, 0));
+            questions.add(question);
+        }
+        return new Quiz("Adaptive bank", null, questions);
+    }
+}
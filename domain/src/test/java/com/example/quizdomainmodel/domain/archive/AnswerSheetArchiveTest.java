@@ -0,0 +1,262 @@
+package com.example.quizdomainmodel.domain.archive;
+
+import com.example.quizdomainmodel.domain.intern.DomainInterner;
+import com.example.quizdomainmodel.domain.model.AnswerSheet;
+import com.example.quizdomainmodel.domain.model.Choice;
+import com.example.quizdomainmodel.domain.model.MaterialQuestion;
+import com.example.quizdomainmodel.domain.model.Question;
+import com.example.quizdomainmodel.domain.model.QuestionType;
+import com.example.quizdomainmodel.domain.model.Quiz;
+import com.example.quizdomainmodel.domain.model.UserAnswer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AnswerSheetArchiveTest {
+
+    private static final int SHEETS = 20_000;
+    private static final int ROW_GROUP_SIZE = 4_096;
+    private static final long START = 1_700_000_000_000L;
+
+    @TempDir
+    static Path directory;
+
+    private static Quiz quiz;
+    private static List<AnswerSheet> sheets;
+    private static Path archivePath;
+
+    @BeforeAll
+    static void writeArchive() throws IOException {
+        quiz = createQuiz(new Random(1));
+        sheets = createSheets(quiz, new Random(2));
+        archivePath = directory.resolve("sheets.qza");
+        try (OutputStream out = Files.newOutputStream(archivePath);
+             AnswerSheetArchiveWriter writer = new AnswerSheetArchiveWriter(out, quiz, ROW_GROUP_SIZE)) {
+            for (AnswerSheet sheet : sheets) {
+                writer.append(sheet);
+            }
+        }
+    }
+
+    @Test
+    void shouldRestoreEveryAnswerSheet() throws IOException {
+        try (AnswerSheetArchive archive = AnswerSheetArchive.open(archivePath)) {
+            List<ArchiveRow> rows = archive.scan(ArchiveScan.builder().columns(Arrays.asList(ArchiveColumn.values())).build())
+                    .collect(Collectors.toList());
+
+            assertThat(archive.getRowCount()).isEqualTo(SHEETS);
+            assertThat(archive.getRowGroupStats()).hasSize((SHEETS + ROW_GROUP_SIZE - 1) / ROW_GROUP_SIZE);
+            assertThat(rows).hasSize(SHEETS);
+            for (int i = 0; i < SHEETS; i++) {
+                assertThat(rows.get(i).toAnswerSheet()).isEqualTo(sheets.get(i));
+                assertThat(rows.get(i).getScore()).isEqualTo(sheets.get(i).calculateTotalScore(quiz.getQuestions()));
+            }
+        }
+    }
+
+    @Test
+    void shouldReadOnlyProjectedColumns() throws IOException {
+        // 只投影用户、分数和一道题时，读取的字节应只占文件的一小部分
+        String questionId = quiz.getQuestions().get(3).getId();
+        try (AnswerSheetArchive archive = AnswerSheetArchive.open(archivePath)) {
+            long before = archive.getBytesRead();
+            List<ArchiveRow> rows = archive.scan(ArchiveScan.builder()
+                            .column(ArchiveColumn.USER_ID).column(ArchiveColumn.SCORE).question(questionId).build())
+                    .collect(Collectors.toList());
+            long scanned = archive.getBytesRead() - before;
+
+            assertThat(scanned).isLessThan(archive.getFileSize() / 4);
+            for (int i = 0; i < SHEETS; i++) {
+                AnswerSheet sheet = sheets.get(i);
+                assertThat(rows.get(i).getUserId()).isEqualTo(sheet.getUserId());
+                assertThat(rows.get(i).getAnswer(questionId)).isEqualTo(answerTo(sheet, questionId));
+            }
+            assertThatThrownBy(() -> rows.get(0).getSheetId()).isInstanceOf(IllegalStateException.class);
+        }
+    }
+
+    @Test
+    void shouldSkipRowGroupsOutsideTimeRange() throws IOException {
+        long from = START + 3_000_000L;
+        long to = START + 3_600_000L;
+        try (AnswerSheetArchive archive = AnswerSheetArchive.open(archivePath)) {
+            long before = archive.getBytesRead();
+            List<String> sheetIds = archive.scan(ArchiveScan.builder()
+                            .column(ArchiveColumn.SHEET_ID).column(ArchiveColumn.SUBMISSION_TIME)
+                            .rowGroupFilter(stats -> stats.getMaxSubmissionTime() >= from && stats.getMinSubmissionTime() <= to)
+                            .build())
+                    .filter(row -> row.getSubmissionTime() >= from && row.getSubmissionTime() <= to)
+                    .map(ArchiveRow::getSheetId)
+                    .collect(Collectors.toList());
+            long filteredBytes = archive.getBytesRead() - before;
+
+            before = archive.getBytesRead();
+            archive.scan(ArchiveScan.builder().column(ArchiveColumn.SHEET_ID).column(ArchiveColumn.SUBMISSION_TIME).build())
+                    .forEach(row -> { });
+            long fullBytes = archive.getBytesRead() - before;
+
+            List<String> expected = sheets.stream()
+                    .filter(sheet -> sheet.getSubmissionTime() >= from && sheet.getSubmissionTime() <= to)
+                    .map(AnswerSheet::getId)
+                    .collect(Collectors.toList());
+            assertThat(sheetIds).isEqualTo(expected).isNotEmpty();
+            assertThat(filteredBytes).isLessThan(fullBytes / 2);
+        }
+    }
+
+    @Test
+    void shouldBeMuchSmallerThanJson() throws IOException {
+        long[] jsonSize = {0};
+        new ObjectMapper().writeValue(new OutputStream() {
+            @Override
+            public void write(int b) {
+                jsonSize[0]++;
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+                jsonSize[0] += len;
+            }
+        }, sheets);
+        long archiveSize = Files.size(archivePath);
+
+        assertThat(archiveSize * 10).isLessThan(jsonSize[0]);
+    }
+
+    @Test
+    void shouldKeepUnusualAnswersExactly() throws IOException {
+        // 未知选项、逆序选择、重复作答和题库外的题目都走原始编码，仍能原样还原
+        Question first = quiz.getQuestions().get(0);
+        Question multiple = quiz.getQuestions().get(1);
+        List<String> choiceIds = multiple.getChoices().stream().map(Choice::getId).collect(Collectors.toList());
+        AnswerSheet unusual = new AnswerSheet("unusual", quiz.getId(), "user-x", START, Arrays.asList(
+                UserAnswer.createChoiceAnswer(first.getId(), Collections.singletonList("not-a-choice")),
+                UserAnswer.createChoiceAnswer(multiple.getId(), Arrays.asList(choiceIds.get(2), choiceIds.get(0))),
+                new UserAnswer("extra-question", "free text"),
+                UserAnswer.createChoiceAnswer(multiple.getId(), Collections.singletonList(choiceIds.get(1)))));
+        Path path = directory.resolve("unusual.qza");
+        try (AnswerSheetArchiveWriter writer = new AnswerSheetArchiveWriter(Files.newOutputStream(path), quiz)) {
+            writer.append(sheets.get(0));
+            writer.append(unusual, 7);
+        }
+
+        try (AnswerSheetArchive archive = AnswerSheetArchive.open(path)) {
+            List<ArchiveRow> rows = archive.scan(ArchiveScan.builder().columns(Arrays.asList(ArchiveColumn.values())).build())
+                    .collect(Collectors.toList());
+
+            assertThat(rows.get(0).toAnswerSheet()).isEqualTo(sheets.get(0));
+            AnswerSheet restored = rows.get(1).toAnswerSheet();
+            assertThat(restored.getUserAnswers()).containsExactlyInAnyOrderElementsOf(unusual.getUserAnswers());
+            // 重复作答的第二份答案排在最后
+            assertThat(restored.getUserAnswers().get(3)).isEqualTo(unusual.getUserAnswers().get(3));
+            assertThat(rows.get(1).getScore()).isEqualTo(7);
+        }
+    }
+
+    private static UserAnswer answerTo(AnswerSheet sheet, String questionId) {
+        for (UserAnswer answer : sheet.getUserAnswers()) {
+            if (answer.getQuestionId().equals(questionId)) {
+                return answer;
+            }
+        }
+        return null;
+    }
+
+    private static Quiz createQuiz(Random random) {
+        List<Question> questions = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            switch (i % 5) {
+                case 0:
+                    questions.add(new Question("q" + i, "Single " + i, QuestionType.SINGLE_CHOICE,
+                            choices(i, 4), "Option " + i + "-" + random.nextInt(4), 2));
+                    break;
+                case 1:
+                    questions.add(new Question("q" + i, "Multiple " + i, QuestionType.MULTIPLE_CHOICE,
+                            choices(i, 5), Arrays.asList("Option " + i + "-0", "Option " + i + "-2"), 3));
+                    break;
+                case 2:
+                    questions.add(new Question("q" + i, "Fill " + i, QuestionType.FILL_IN_BLANK,
+                            Collections.emptyList(), "answer" + i, 2));
+                    break;
+                case 3:
+                    List<Question> subQuestions = new ArrayList<>();
+                    for (int s = 0; s < 3; s++) {
+                        subQuestions.add(new Question("q" + i + "s" + s, "Sub " + s, QuestionType.SINGLE_CHOICE,
+                                choices(i * 10 + s, 4), "Option " + (i * 10 + s) + "-1", 1));
+                    }
+                    questions.add(new MaterialQuestion("q" + i, "Reading " + i, Collections.emptyList(), "*N/A*", 0, subQuestions));
+                    break;
+                default:
+                    questions.add(new Question("q" + i, "True or false " + i, QuestionType.TRUE_FALSE,
+                            choices(i, 2), "Option " + i + "-0", 1));
+            }
+        }
+        return new Quiz("Archived quiz", null, questions);
+    }
+
+    private static List<Choice> choices(int question, int count) {
+        List<Choice> choices = new ArrayList<>(count);
+        for (int c = 0; c < count; c++) {
+            choices.add(DomainInterner.choice("Option " + question + "-" + c));
+        }
+        return choices;
+    }
+
+    private static List<AnswerSheet> createSheets(Quiz quiz, Random random) {
+        List<AnswerSheet> result = new ArrayList<>(SHEETS);
+        long time = START;
+        for (int i = 0; i < SHEETS; i++) {
+            time += random.nextInt(400);
+            List<UserAnswer> answers = new ArrayList<>();
+            for (Question question : quiz.getQuestions()) {
+                if (random.nextInt(20) == 0) {
+                    continue;
+                }
+                answers.add(answer(question, question.getId(), random));
+            }
+            result.add(new AnswerSheet("sheet-" + i, quiz.getId(), "user-" + random.nextInt(SHEETS), time, answers));
+        }
+        return result;
+    }
+
+    private static UserAnswer answer(Question question, String questionId, Random random) {
+        if (question instanceof MaterialQuestion) {
+            List<UserAnswer> subAnswers = new ArrayList<>();
+            for (Question subQuestion : ((MaterialQuestion) question).getSubQuestions()) {
+                subAnswers.add(answer(subQuestion, subQuestion.getId(), random));
+            }
+            return UserAnswer.createMaterialAnswer(questionId, subAnswers);
+        }
+        List<Choice> choices = question.getChoices();
+        switch (question.getType()) {
+            case FILL_IN_BLANK:
+                return new UserAnswer(questionId, random.nextBoolean() ? "answer" + questionId.substring(1) : "guess");
+            case MULTIPLE_CHOICE:
+                List<String> selected = new ArrayList<>();
+                for (Choice choice : choices) {
+                    if (random.nextBoolean()) {
+                        selected.add(choice.getId());
+                    }
+                }
+                return UserAnswer.createChoiceAnswer(questionId, selected);
+            default:
+                return UserAnswer.createChoiceAnswer(questionId,
+                        Collections.singletonList(choices.get(random.nextInt(choices.size())).getId()));
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.quizdomainmodel.domain.grading;
+
+import com.example.quizdomainmodel.domain.model.AnswerSheet;
+import com.example.quizdomainmodel.domain.model.Choice;
+import com.example.quizdomainmodel.domain.model.MaterialQuestion;
+import com.example.quizdomainmodel.domain.model.Question;
+import com.example.quizdomainmodel.domain.model.QuestionType;
+import com.example.quizdomainmodel.domain.model.UserAnswer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class IncrementalRegraderTest {
+
+    private static final int QUESTIONS = 8;
+    private static final int SHEETS = 2_000;
+
+    private List<Question> questions;
+    private MaterialQuestion material;
+    private List<AnswerSheet> sheets;
+
+    @BeforeEach
+    void setUp() {
+        questions = new ArrayList<>();
+        for (int q = 0; q < QUESTIONS; q++) {
+            questions.add(new Question("q" + q, "Question " + q, QuestionType.SINGLE_CHOICE,
+                    Arrays.asList(new Choice("q" + q + "-a", "A"), new Choice("q" + q + "-b", "B"),
+                            new Choice("q" + q + "-c", "C")),
+                    Collections.singletonList("q" + q + "-a"), q + 1));
+        }
+        Question sub = new Question("m-1", "Sub question", QuestionType.FILL_IN_BLANK,
+                Collections.emptyList(), "Oak", 4);
+        material = new MaterialQuestion("m", "Reading material", Collections.emptyList(), "*N/A*", 0,
+                Collections.singletonList(sub));
+        questions.add(material);
+
+        Random random = new Random(42);
+        sheets = new ArrayList<>();
+        String[] options = {"a", "b", "c"};
+        for (int s = 0; s < SHEETS; s++) {
+            List<UserAnswer> answers = new ArrayList<>();
+            for (int q = 0; q < QUESTIONS; q++) {
+                if (random.nextInt(10) == 0) {
+                    continue; // omitted
+                }
+                answers.add(UserAnswer.createChoiceAnswer("q" + q,
+                        Collections.singletonList("q" + q + "-" + options[random.nextInt(3)])));
+            }
+            answers.add(new UserAnswer("m", (String) null));
+            sheets.add(new AnswerSheet("sheet-" + s, "quiz", "user-" + s, s, answers));
+        }
+    }
+
+    @Test
+    void shouldMatchFullRegradeInitially() {
+        // 建立索引后的总分应与逐份完整评分一致
+        IncrementalRegrader regrader = new IncrementalRegrader(questions, sheets);
+
+        assertThat(regrader.getTotalScores()).isEqualTo(regrader.fullRegrade());
+        assertThat(regrader.getSheetCount()).isEqualTo(SHEETS);
+    }
+
+    @Test
+    void shouldApplyDeltasWhenAnswerKeyChanges() {
+        // 修改答案后增量重评的结果应与完整重评完全一致，且只报告分数变化的答卷
+        IncrementalRegrader regrader = new IncrementalRegrader(questions, sheets);
+        Question changed = questions.get(3);
+        changed.setCorrectAnswer(Collections.singletonList("q3-b"));
+
+        List<IncrementalRegrader.ScoreChange> changes = regrader.regrade("q3");
+
+        assertThat(regrader.getTotalScores()).isEqualTo(regrader.fullRegrade());
+        assertThat(changes).isNotEmpty();
+        assertThat(changes).allSatisfy(change -> {
+            assertThat(Math.abs(change.getDelta())).isEqualTo(changed.getPoints());
+            assertThat(regrader.getTotalScore(change.getSheet().getId())).isEqualTo(change.getNewScore());
+        });
+    }
+
+    @Test
+    void shouldRegradeParentWhenSubQuestionChanges() {
+        // 子题分值变化时应重评所属材料题
+        IncrementalRegrader regrader = new IncrementalRegrader(questions, sheets);
+        material.getSubQuestions().get(0).setPoints(10);
+
+        List<IncrementalRegrader.ScoreChange> changes = regrader.regrade("m-1");
+
+        assertThat(changes).hasSize(SHEETS);
+        assertThat(regrader.getTotalScores()).isEqualTo(regrader.fullRegrade());
+    }
+
+    @Test
+    void shouldRegradeParentOfSubQuestionAddedAfterIndexing() {
+        // 建立索引后新增的子题，重评时也应归到所属材料题
+        IncrementalRegrader regrader = new IncrementalRegrader(questions, sheets);
+        material.addSubQuestion(new Question("m-2", "Added sub question", QuestionType.FILL_IN_BLANK,
+                Collections.emptyList(), "Elm", 3));
+
+        List<IncrementalRegrader.ScoreChange> changes = regrader.regrade("m-2");
+
+        assertThat(changes).hasSize(SHEETS);
+        assertThat(changes).allSatisfy(change -> assertThat(change.getDelta()).isEqualTo(3));
+        assertThat(regrader.getTotalScores()).isEqualTo(regrader.fullRegrade());
+    }
+
+    @Test
+    void shouldIndexSheetsAddedLater() {
+        IncrementalRegrader regrader = new IncrementalRegrader(questions, sheets.subList(0, 10));
+        for (AnswerSheet sheet : sheets.subList(10, SHEETS)) {
+            regrader.addSheet(sheet);
+        }
+        questions.get(0).setCorrectAnswer(Collections.singletonList("q0-c"));
+        regrader.regrade("q0");
+
+        assertThat(regrader.getTotalScores()).isEqualTo(regrader.fullRegrade());
+        assertThatThrownBy(() -> regrader.addSheet(sheets.get(0))).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> regrader.regrade("unknown")).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,180 @@
+package com.example.quizdomainmodel.domain.ingest;
+
+import com.example.quizdomainmodel.domain.model.AnswerSheet;
+import com.example.quizdomainmodel.domain.model.Choice;
+import com.example.quizdomainmodel.domain.model.Question;
+import com.example.quizdomainmodel.domain.model.QuestionType;
+import com.example.quizdomainmodel.domain.model.UserAnswer;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SubmissionIngestionServiceTest {
+
+    private static final String QUIZ_ID = "quiz-1";
+    private static final int QUESTION_COUNT = 10;
+
+    private final List<Question> questions = createQuestions();
+
+    @Test
+    void shouldGradeEveryAcceptedSubmissionUnderConcurrentLoad() throws InterruptedException {
+        // 多生产者突发提交时，所有被接收的答卷都应被评分且分数正确
+        LongAdder scoreSum = new LongAdder();
+        ConcurrentHashMap<String, Boolean> seen = new ConcurrentHashMap<>();
+        SubmissionIngestionService service = SubmissionIngestionService.builder()
+                .capacity(1024)
+                .graderThreads(4)
+                .batchSize(64)
+                .backpressurePolicy(BackpressurePolicy.BLOCK)
+                .offerTimeoutMillis(10_000)
+                .quizQuestions(quizId -> QUIZ_ID.equals(quizId) ? questions : null)
+                .handler((sheet, score) -> {
+                    scoreSum.add(score);
+                    seen.put(sheet.getId(), Boolean.TRUE);
+                })
+                .build();
+
+        SubmissionLoadGenerator generator = new SubmissionLoadGenerator(8, 5_000, this::createSheet);
+        SubmissionLoadGenerator.Report report = generator.run(service);
+        service.close();
+
+        assertThat(report.getAccepted()).isEqualTo(40_000);
+        assertThat(report.getRejected()).isZero();
+        assertThat(service.getGradedCount()).isEqualTo(40_000);
+        assertThat(service.getFailedCount()).isZero();
+        assertThat(seen).hasSize(40_000);
+        long expected = 0;
+        for (long i = 0; i < 40_000; i++) {
+            expected += expectedScore(i);
+        }
+        assertThat(scoreSum.sum()).isEqualTo(expected);
+        assertThat(service.getLatencySnapshots())
+                .extracting(LatencyStats.Snapshot::getCount)
+                .containsOnly(40_000L);
+    }
+
+    @Test
+    void shouldRejectWhenFullUnderRejectPolicy() throws InterruptedException {
+        // 缓冲区满且策略为 REJECT 时，提交应立即被拒绝
+        CountDownLatch release = new CountDownLatch(1);
+        SubmissionIngestionService service = SubmissionIngestionService.builder()
+                .capacity(4)
+                .graderThreads(1)
+                .batchSize(1)
+                .backpressurePolicy(BackpressurePolicy.REJECT)
+                .quizQuestions(quizId -> questions)
+                .handler((sheet, score) -> awaitQuietly(release))
+                .build();
+
+        int accepted = 0;
+        int rejected = 0;
+        for (long i = 0; i < 20; i++) {
+            if (service.submit(createSheet(i))) {
+                accepted++;
+            } else {
+                rejected++;
+            }
+        }
+        release.countDown();
+        service.close();
+
+        // One sheet is held by the blocked worker, four fill the buffer
+        assertThat(accepted).isBetween(4, 5);
+        assertThat(rejected).isEqualTo(20 - accepted);
+        assertThat(service.getRejectedCount()).isEqualTo(rejected);
+        assertThat(service.getGradedCount()).isEqualTo(accepted);
+    }
+
+    @Test
+    void shouldCountFailuresWithoutStoppingWorkers() throws InterruptedException {
+        // 未知测验导致评分失败时，工作线程应继续处理后续答卷，并把失败交给处理器
+        List<String> failedSheetIds = new CopyOnWriteArrayList<>();
+        SubmissionIngestionService service = SubmissionIngestionService.builder()
+                .capacity(16)
+                .graderThreads(1)
+                .batchSize(4)
+                .quizQuestions(quizId -> QUIZ_ID.equals(quizId) ? questions : null)
+                .handler(new GradedSubmissionHandler() {
+                    @Override
+                    public void onGraded(AnswerSheet sheet, int totalScore) {
+                    }
+
+                    @Override
+                    public void onFailed(AnswerSheet sheet, RuntimeException error) {
+                        failedSheetIds.add(sheet.getId());
+                    }
+                })
+                .build();
+
+        service.submit(new AnswerSheet("bad", "unknown-quiz", "u", 0L, Collections.emptyList()));
+        service.submit(createSheet(1));
+        service.shutdown();
+
+        assertThat(service.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(service.getFailedCount()).isEqualTo(1);
+        assertThat(failedSheetIds).containsExactly("bad");
+        assertThat(service.getGradedCount()).isEqualTo(1);
+        assertThatThrownBy(() -> service.submit(createSheet(2))).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void shouldRejectNonPowerOfTwoCapacity() {
+        assertThatThrownBy(() -> SubmissionIngestionService.builder()
+                .capacity(1000)
+                .graderThreads(1)
+                .batchSize(1)
+                .quizQuestions(quizId -> questions)
+                .handler((sheet, score) -> { })
+                .build())
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private AnswerSheet createSheet(long sequence) {
+        List<UserAnswer> answers = new ArrayList<>(QUESTION_COUNT);
+        for (int q = 0; q < QUESTION_COUNT; q++) {
+            // Every (sequence + q) % 3 == 0 answer is correct
+            String choice = (sequence + q) % 3 == 0 ? "a" : "b";
+            answers.add(UserAnswer.createChoiceAnswer("q" + q, Collections.singletonList("q" + q + "-" + choice)));
+        }
+        return new AnswerSheet("sheet-" + sequence, QUIZ_ID, "user-" + sequence, sequence, answers);
+    }
+
+    private static int expectedScore(long sequence) {
+        int score = 0;
+        for (int q = 0; q < QUESTION_COUNT; q++) {
+            if ((sequence + q) % 3 == 0) {
+                score += 2;
+            }
+        }
+        return score;
+    }
+
+    private static List<Question> createQuestions() {
+        List<Question> result = new ArrayList<>();
+        for (int q = 0; q < QUESTION_COUNT; q++) {
+            result.add(new Question("q" + q, "Question " + q, QuestionType.SINGLE_CHOICE,
+                    Arrays.asList(new Choice("q" + q + "-a", "A"), new Choice("q" + q + "-b", "B")),
+                    Collections.singletonList("q" + q + "-a"), 2));
+        }
+        return result;
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
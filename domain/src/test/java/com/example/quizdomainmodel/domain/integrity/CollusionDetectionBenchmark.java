@@ -0,0 +1,37 @@
+package com.example.quizdomainmodel.domain.integrity;
+
+import com.example.quizdomainmodel.domain.model.AnswerSheet;
+import com.example.quizdomainmodel.domain.model.Quiz;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Runs collusion detection over a 100,000-sheet, 80-item cohort with 20 planted copier pairs and
+ * reports the work done. Not part of the default test run; run with
+ * {@code mvn -Pbenchmark test -pl domain}.
+ */
+class CollusionDetectionBenchmark {
+
+    private static final int SHEETS = 100_000;
+    private static final int PLANTED_PAIRS = 20;
+
+    @Test
+    void detectOnLargeCohort() {
+        Quiz quiz = CollusionDetectorTest.createQuiz(new Random(1));
+        Set<String> planted = new HashSet<>();
+        List<AnswerSheet> sheets = CollusionDetectorTest.createCohort(quiz, SHEETS, PLANTED_PAIRS, planted, new Random(2));
+
+        CollusionReport report = new CollusionDetector(quiz, CollusionPolicy.builder().build()).detect(sheets);
+
+        long found = report.getPairs().stream()
+                .filter(pair -> planted.contains(pair.getFirstSheetId() + "/" + pair.getSecondSheetId()))
+                .count();
+        System.out.printf("Collusion scan of %d sheets: %d indexed, %d candidate pairs, %d flagged (%d of %d planted), %d ms%n",
+                report.getSheetCount(), report.getIndexedSheets(), report.getCandidatePairs(),
+                report.getPairs().size(), found, planted.size(), report.getElapsedMillis());
+    }
+}
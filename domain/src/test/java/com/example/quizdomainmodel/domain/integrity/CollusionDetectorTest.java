@@ -0,0 +1,181 @@
+package com.example.quizdomainmodel.domain.integrity;
+
+import com.example.quizdomainmodel.domain.intern.DomainInterner;
+import com.example.quizdomainmodel.domain.model.AnswerSheet;
+import com.example.quizdomainmodel.domain.model.Choice;
+import com.example.quizdomainmodel.domain.model.MaterialQuestion;
+import com.example.quizdomainmodel.domain.model.Question;
+import com.example.quizdomainmodel.domain.model.QuestionType;
+import com.example.quizdomainmodel.domain.model.Quiz;
+import com.example.quizdomainmodel.domain.model.UserAnswer;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.offset;
+
+class CollusionDetectorTest {
+
+    private static final int SHEETS = 3_000;
+    private static final int PLANTED_PAIRS = 10;
+    private static final int CHOICES = 4;
+
+    @Test
+    void shouldFindPlantedCopiersAmongThousandsOfSheets() {
+        // 在 3 千份答卷中植入抄袭对，检测器应全部找出，且几乎没有误报；3 万份的规模见 CollusionDetectionBenchmark
+        Quiz quiz = createQuiz(new Random(1));
+        Set<String> planted = new HashSet<>();
+        List<AnswerSheet> sheets = createCohort(quiz, SHEETS, PLANTED_PAIRS, planted, new Random(2));
+
+        CollusionDetector detector = new CollusionDetector(quiz, CollusionPolicy.builder().build());
+        CollusionReport report = detector.detect(sheets);
+
+        Set<String> flagged = new HashSet<>();
+        for (SuspiciousPair pair : report.getPairs()) {
+            flagged.add(pair.getFirstSheetId() + "/" + pair.getSecondSheetId());
+        }
+        assertThat(flagged).containsAll(planted);
+        assertThat(flagged.size() - planted.size()).isLessThanOrEqualTo(3);
+        // 排名最前的必须是植入的抄袭对
+        for (SuspiciousPair pair : report.getPairs().subList(0, 5)) {
+            assertThat(planted).contains(pair.getFirstSheetId() + "/" + pair.getSecondSheetId());
+            assertThat(pair.getProbability()).isLessThan(1e-6);
+            assertThat(pair.getIdenticalWrongAnswers()).isGreaterThan((int) Math.ceil(pair.getExpectedIdenticalWrongAnswers()));
+        }
+        // Candidate generation must be far from the n^2 / 2 pairwise comparisons
+        assertThat(report.getCandidatePairs()).isLessThan((long) SHEETS * 20);
+    }
+
+    @Test
+    void shouldScoreIdenticalWrongAnswersAgainstResponseFrequencies() {
+        // 两名考生在同样的题上选了同样的错误选项：观测值、期望值与尾概率可手工验算
+        List<Question> questions = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            questions.add(choiceQuestion("q" + i));
+        }
+        Quiz quiz = new Quiz("Small quiz", null, questions);
+        List<AnswerSheet> sheets = new ArrayList<>();
+        // Two colluders with the same wrong answer (choice 1) on every item
+        sheets.add(sheet("a", uniform(quiz, 1)));
+        sheets.add(sheet("b", uniform(quiz, 1)));
+        // Independent wrong answers spread over choices 1-3
+        for (int i = 0; i < 30; i++) {
+            sheets.add(sheet("x" + i, uniform(quiz, 1 + i % 3)));
+        }
+
+        CollusionPolicy policy = CollusionPolicy.builder().minIdenticalWrongAnswers(6).minZScore(2).significance(1).build();
+        CollusionReport report = new CollusionDetector(quiz, policy).detect(sheets);
+
+        SuspiciousPair pair = report.getPairs().stream()
+                .filter(candidate -> candidate.getFirstSheetId().equals("a") && candidate.getSecondSheetId().equals("b"))
+                .findFirst().orElseThrow(AssertionError::new);
+        // 选项 1 的错误占比为 12/32，其余两个各 10/32
+        double match = Math.pow(12 / 32.0, 2) + 2 * Math.pow(10 / 32.0, 2);
+        assertThat(pair.getBothWrong()).isEqualTo(6);
+        assertThat(pair.getIdenticalWrongAnswers()).isEqualTo(6);
+        assertThat(pair.getIdenticalAnswers()).isEqualTo(6);
+        assertThat(pair.getExpectedIdenticalWrongAnswers()).isCloseTo(6 * match, offset(1e-9));
+        assertThat(pair.getZScore()).isCloseTo((6 - 6 * match) / Math.sqrt(6 * match * (1 - match)), offset(1e-9));
+        assertThat(pair.getProbability()).isCloseTo(Math.pow(match, 6), offset(1e-12));
+    }
+
+    @Test
+    void shouldComputeExactPoissonBinomialTail() {
+        double[] probabilities = {0.5, 0.5, 0.5};
+        assertThat(CollusionDetector.upperTail(probabilities, 0)).isCloseTo(1.0, offset(1e-12));
+        assertThat(CollusionDetector.upperTail(probabilities, 2)).isCloseTo(0.5, offset(1e-12));
+        assertThat(CollusionDetector.upperTail(new double[]{0.1, 0.2}, 2)).isCloseTo(0.02, offset(1e-12));
+    }
+
+    /**
+     * Sheets of a Rasch-model cohort, with weak candidates copying 90% of a weak source's answers
+     * in every 1/{@code pairs} of the cohort. Adds the planted "source/copier" IDs to {@code planted}.
+     */
+    static List<AnswerSheet> createCohort(Quiz quiz, int size, int pairs, Set<String> planted, Random random) {
+        List<AnswerSheet> sheets = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            sheets.add(sheet("sheet-" + i, answers(quiz, random.nextGaussian(), random)));
+        }
+        for (int p = 0; p < pairs; p++) {
+            int source = p * (size / pairs);
+            List<UserAnswer> sourceAnswers = answers(quiz, -1.0, random);
+            List<UserAnswer> ownAnswers = answers(quiz, -1.0, random);
+            List<UserAnswer> copied = new ArrayList<>();
+            for (int i = 0; i < sourceAnswers.size(); i++) {
+                copied.add(random.nextDouble() < 0.9 ? sourceAnswers.get(i) : ownAnswers.get(i));
+            }
+            sheets.set(source, sheet("sheet-" + source, sourceAnswers));
+            sheets.set(source + 1, sheet("sheet-" + (source + 1), copied));
+            planted.add("sheet-" + source + "/sheet-" + (source + 1));
+        }
+        return sheets;
+    }
+
+    private static AnswerSheet sheet(String id, List<UserAnswer> answers) {
+        return new AnswerSheet(id, "quiz", "user-" + id, 0L, answers);
+    }
+
+    private static List<UserAnswer> uniform(Quiz quiz, int choice) {
+        List<UserAnswer> answers = new ArrayList<>();
+        for (Question question : quiz.getQuestions()) {
+            answers.add(UserAnswer.createChoiceAnswer(question.getId(),
+                    Collections.singletonList(question.getChoices().get(choice).getId())));
+        }
+        return answers;
+    }
+
+    /**
+     * Answers by a Rasch model; wrong answers prefer the first distractor, as real cohorts do.
+     */
+    private static List<UserAnswer> answers(Quiz quiz, double ability, Random random) {
+        List<UserAnswer> answers = new ArrayList<>();
+        for (Question question : quiz.getQuestions()) {
+            if (question instanceof MaterialQuestion) {
+                List<UserAnswer> subAnswers = new ArrayList<>();
+                for (Question subQuestion : ((MaterialQuestion) question).getSubQuestions()) {
+                    subAnswers.add(answer(subQuestion, ability, random));
+                }
+                answers.add(UserAnswer.createMaterialAnswer(question.getId(), subAnswers));
+            } else {
+                answers.add(answer(question, ability, random));
+            }
+        }
+        return answers;
+    }
+
+    private static UserAnswer answer(Question question, double ability, Random random) {
+        double difficulty = (question.getId().hashCode() % 200) / 100.0;
+        boolean correct = random.nextDouble() < 1 / (1 + Math.exp(-1.7 * (ability - difficulty)));
+        double draw = random.nextDouble();
+        int choice = correct ? 0 : draw < 0.5 ? 1 : draw < 0.8 ? 2 : 3;
+        return UserAnswer.createChoiceAnswer(question.getId(),
+                Collections.singletonList(question.getChoices().get(choice).getId()));
+    }
+
+    static Quiz createQuiz(Random random) {
+        List<Question> questions = new ArrayList<>();
+        for (int i = 0; i < 75; i++) {
+            questions.add(choiceQuestion("q" + random.nextInt(1_000_000) + "-" + i));
+        }
+        List<Question> subQuestions = new ArrayList<>();
+        for (int s = 0; s < 5; s++) {
+            subQuestions.add(choiceQuestion("m-s" + s));
+        }
+        questions.add(new MaterialQuestion("m", "Reading", Collections.emptyList(), "*N/A*", 0, subQuestions));
+        return new Quiz("Collusion quiz", null, questions);
+    }
+
+    private static Question choiceQuestion(String id) {
+        List<Choice> choices = new ArrayList<>();
+        for (int c = 0; c < CHOICES; c++) {
+            choices.add(DomainInterner.choice(id + " option " + c));
+        }
+        return new Question(id, "Stem of " + id, QuestionType.SINGLE_CHOICE, choices, id + " option 0", 1);
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.quizdomainmodel.domain.intern;
+
+import com.example.quizdomainmodel.domain.model.Choice;
+import com.example.quizdomainmodel.domain.model.Question;
+import com.example.quizdomainmodel.domain.model.QuestionType;
+import com.example.quizdomainmodel.domain.model.SharedChoice;
+import com.example.quizdomainmodel.domain.model.UserAnswer;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class DomainInternerTest {
+
+    @Test
+    void shouldShareImmutableChoicesWithStableIds() {
+        // 相同文本的选项应共享同一个不可变实例，且 ID 稳定
+        Choice first = DomainInterner.choice("True");
+        Choice second = DomainInterner.choice(new String("True"));
+
+        assertThat(second).isSameAs(first);
+        assertThat(first.getId()).isEqualTo(DomainInterner.choiceId("True"));
+        assertThat(DomainInterner.isShared(first)).isTrue();
+        assertThatThrownBy(() -> first.setText("False")).isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    @Test
+    void shouldShareOnlyChoiceIdsOfSharedChoicesInUserAnswers() {
+        // 答案中共享选项的 ID 复用选项自身的实例；题目 ID 和题目专属的选项 ID 不入池
+        Choice shared = DomainInterner.choice("Shared answer option");
+        UserAnswer a = UserAnswer.createChoiceAnswer(new String("q-intern"),
+                Arrays.asList(new String(shared.getId()), new String("c-intern")));
+        UserAnswer b = UserAnswer.createChoiceAnswer(new String("q-intern"),
+                Arrays.asList(new String(shared.getId()), new String("c-intern")));
+
+        assertThat(a.getSelectedChoiceIds().get(0)).isSameAs(shared.getId());
+        assertThat(b.getSelectedChoiceIds().get(0)).isSameAs(shared.getId());
+        assertThat(a.getSelectedChoiceIds().get(1)).isNotSameAs(b.getSelectedChoiceIds().get(1));
+        assertThat(a.getQuestionId()).isNotSameAs(b.getQuestionId());
+        assertThat(a).isEqualTo(b);
+    }
+
+    @Test
+    void shouldForgetChoiceIdsWhenChoicePoolIsCleared() {
+        // 清空并重新填充选项池后，可复用的选项 ID 只来自当前池中的选项，数量不随轮次增长
+        InternPool<String, SharedChoice> pool = DomainInterner.choicePool();
+        String staleId = null;
+        for (int round = 0; round < 5; round++) {
+            pool.clear();
+            for (int i = 0; i < 100; i++) {
+                DomainInterner.choice("Round " + round + " option " + i);
+            }
+            SharedChoice current = DomainInterner.choice("Round " + round + " option 7");
+
+            assertThat(pool.size()).isEqualTo(100);
+            assertThat(pool.get(current.getId())).isSameAs(current);
+            assertThat(canonicalId(current.getId())).isSameAs(current.getId());
+            if (staleId != null) {
+                String copy = new String(staleId);
+                assertThat(canonicalId(copy)).isSameAs(copy);
+            }
+            staleId = current.getId();
+        }
+        pool.clear();
+    }
+
+    @Test
+    void shouldNotPoolQuestionIds() {
+        // 构造题目不应向全局字符串池写入任何值
+        int before = DomainInterner.stringPool().size();
+        for (int i = 0; i < 1_000; i++) {
+            new Question("Stem " + i, QuestionType.FILL_IN_BLANK, Collections.emptyList(), "answer " + i, 1);
+        }
+
+        assertThat(DomainInterner.stringPool().size()).isEqualTo(before);
+    }
+
+    @Test
+    void shouldStopPoolingWhenFull() {
+        // 池满后新值不再入池，但已入池的值仍然共享
+        InternPool<String, String> pool = new InternPool<>(2);
+        String a = pool.intern(new String("a"), s -> s);
+        pool.intern("b", s -> s);
+        String c1 = pool.intern(new String("c"), s -> s);
+        String c2 = pool.intern(new String("c"), s -> s);
+
+        assertThat(pool.size()).isEqualTo(2);
+        assertThat(pool.intern(new String("a"), s -> s)).isSameAs(a);
+        assertThat(c2).isNotSameAs(c1);
+        assertThat(pool.getOverflowCount()).isEqualTo(2);
+    }
+
+    private static String canonicalId(String choiceId) {
+        return DomainInterner.canonicalChoiceIds(Collections.singletonList(choiceId)).get(0);
+    }
+}
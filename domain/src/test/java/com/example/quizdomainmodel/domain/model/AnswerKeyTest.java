@@ -0,0 +1,76 @@
+package com.example.quizdomainmodel.domain.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AnswerKeyTest {
+
+    private final List<Choice> colors = Arrays.asList(
+            new Choice("c-red", "Red"), new Choice("c-blue", "Blue"),
+            new Choice("c-green", "Green"), new Choice("c-yellow", "Yellow"));
+
+    @Test
+    void shouldGradeImportedMultipleChoiceTextAsSelectionMask() {
+        // 导入的分号分隔答案文本应解析为选项位掩码，选择顺序不影响得分
+        Question question = new Question("q2", "Which are primary colors?", QuestionType.MULTIPLE_CHOICE,
+                colors, "Red;Blue;Yellow", 15);
+        AnswerSheet sheet = new AnswerSheet("s", "quiz", "u", 0L, Collections.singletonList(
+                UserAnswer.createChoiceAnswer("q2", Arrays.asList("c-yellow", "c-red", "c-blue"))));
+
+        assertThat(question.getAnswerKey().getCorrectMask()).isEqualTo(0b1011L);
+        assertThat(sheet.calculateTotalScore(Collections.singletonList(question))).isEqualTo(15);
+    }
+
+    @Test
+    void shouldRejectPartialOrUnknownSelections() {
+        AnswerKey key = AnswerKey.resolve(QuestionType.MULTIPLE_CHOICE, colors, "Red;Blue");
+
+        assertThat(key.isCorrect(UserAnswer.createChoiceAnswer("q", Collections.singletonList("c-red")))).isFalse();
+        assertThat(key.isCorrect(UserAnswer.createChoiceAnswer("q", Arrays.asList("c-red", "c-blue", "other")))).isFalse();
+        assertThat(key.isCorrect(UserAnswer.createChoiceAnswer("q", Arrays.asList("c-blue", "c-red")))).isTrue();
+    }
+
+    @Test
+    void shouldResolveTrueFalseAndFillInBlank() {
+        // 判断题解析为布尔值并对应到选项；填空题忽略大小写和多余空白
+        List<Choice> trueFalse = Arrays.asList(new Choice("t", "True"), new Choice("f", "False"));
+        AnswerKey tf = AnswerKey.resolve(QuestionType.TRUE_FALSE, trueFalse, "FALSE");
+        assertThat(tf.getKind()).isEqualTo(AnswerKey.Kind.TRUE_FALSE);
+        assertThat(tf.isTruth()).isFalse();
+        assertThat(tf.isCorrect(UserAnswer.createChoiceAnswer("q", Collections.singletonList("f")))).isTrue();
+        assertThat(tf.isCorrect(UserAnswer.createChoiceAnswer("q", Collections.singletonList("t")))).isFalse();
+
+        AnswerKey text = AnswerKey.resolve(QuestionType.FILL_IN_BLANK, Collections.emptyList(), "Oak; Green  Team");
+        assertThat(text.isCorrect(new UserAnswer("q", "  green team "))).isTrue();
+        assertThat(text.isCorrect(new UserAnswer("q", "OAK"))).isTrue();
+        assertThat(text.isCorrect(new UserAnswer("q", "Java"))).isFalse();
+    }
+
+    @Test
+    void shouldInvalidateKeyWhenCorrectAnswerChanges() {
+        // 修改正确答案后，缓存的答案键应失效并重新解析
+        Question question = new Question("q", "Pick one", QuestionType.SINGLE_CHOICE, colors, "Red", 5);
+        AnswerKey before = question.getAnswerKey();
+        assertThat(question.getAnswerKey()).isSameAs(before);
+
+        question.setCorrectAnswer("Green");
+
+        assertThat(question.getAnswerKey().getCorrectMask()).isEqualTo(0b0100L);
+    }
+
+    @Test
+    void shouldFallBackToRawComparisonWhenUnresolved() {
+        // 无法解析的答案沿用原有的原始值比较
+        Question question = new Question("q", "Explain", QuestionType.SINGLE_CHOICE, colors, "*N/A*", 5);
+
+        assertThat(question.getAnswerKey().isResolved()).isFalse();
+        AnswerSheet sheet = new AnswerSheet("s", "quiz", "u", 0L, Collections.singletonList(
+                UserAnswer.createChoiceAnswer("q", Collections.singletonList("c-red"))));
+        assertThat(sheet.calculateTotalScore(Collections.singletonList(question))).isZero();
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.quizdomainmodel.domain.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ContentFingerprintTest {
+
+    @Test
+    void shouldMatchForIdenticalBanksWithDifferentQuizIds() {
+        // 内容相同的两个题库，即使测验 ID 不同，指纹也应相同
+        Quiz first = new Quiz("Bank", "Same content", createQuestions());
+        Quiz second = new Quiz("Bank", "Same content", createQuestions());
+
+        assertThat(first).isNotEqualTo(second);
+        assertThat(first.contentFingerprint()).isEqualTo(second.contentFingerprint());
+    }
+
+    @Test
+    void shouldBeStableAcrossProcesses() {
+        // 指纹只依赖内容编码，跨进程和重启保持不变，可作为持久化缓存键
+        Question question = new Question("q1", "What is 1+1?", QuestionType.SINGLE_CHOICE,
+                Arrays.asList(new Choice("a", "1"), new Choice("b", "2")), "2", 10);
+
+        ContentFingerprint fingerprint = question.contentFingerprint();
+
+        assertThat(fingerprint.toString()).isEqualTo("74cb4bf44d4b989e87d84953410b2777");
+        assertThat(ContentFingerprint.fromHex(fingerprint.toString())).isEqualTo(fingerprint);
+    }
+
+    @Test
+    void shouldInvalidateOnQuestionMutation() {
+        // 修改题目答案后，题目和测验的指纹都应变化；改回后恢复
+        List<Question> questions = createQuestions();
+        Quiz quiz = new Quiz("Bank", null, questions);
+        ContentFingerprint quizBefore = quiz.contentFingerprint();
+        Question question = questions.get(1);
+        ContentFingerprint questionBefore = question.contentFingerprint();
+        assertThat(question.contentFingerprint()).isSameAs(questionBefore);
+
+        question.setCorrectAnswer("Blue");
+
+        assertThat(question.contentFingerprint()).isNotEqualTo(questionBefore);
+        assertThat(quiz.contentFingerprint()).isNotEqualTo(quizBefore);
+
+        question.setCorrectAnswer("Red");
+        assertThat(quiz.contentFingerprint()).isEqualTo(quizBefore);
+    }
+
+    @Test
+    void shouldIncludeSubQuestionsOfMaterialQuestions() {
+        // 材料题指纹应包含子题内容，子题变化时材料题指纹随之变化
+        Question sub = new Question("m-1", "Original name of Java?", QuestionType.FILL_IN_BLANK,
+                Collections.emptyList(), "Oak", 5);
+        MaterialQuestion material = new MaterialQuestion("m", "Java is an object oriented language",
+                Collections.emptyList(), "*N/A*", 0, Collections.singletonList(sub));
+        ContentFingerprint before = material.contentFingerprint();
+
+        sub.setPoints(6);
+        ContentFingerprint afterPoints = material.contentFingerprint();
+        material.addSubQuestion(new Question("m-2", "Creator of Java?", QuestionType.FILL_IN_BLANK,
+                Collections.emptyList(), "James Gosling", 5));
+
+        assertThat(afterPoints).isNotEqualTo(before);
+        assertThat(material.contentFingerprint()).isNotEqualTo(afterPoints);
+    }
+
+    @Test
+    void shouldKeepCachedFingerprintsWhenOtherObjectsChange() {
+        // 其他题目的构造和修改不应使本测验及其材料题的缓存失效
+        Question sub = new Question("m-1", "Original name of Java?", QuestionType.FILL_IN_BLANK,
+                Collections.emptyList(), "Oak", 5);
+        MaterialQuestion material = new MaterialQuestion("m", "Java is an object oriented language",
+                Collections.emptyList(), "*N/A*", 0, Collections.singletonList(sub));
+        List<Question> questions = createQuestions();
+        questions.add(material);
+        Quiz quiz = new Quiz("Bank", null, questions);
+        ContentFingerprint quizBefore = quiz.contentFingerprint();
+        ContentFingerprint materialBefore = material.contentFingerprint();
+
+        List<Question> unrelated = createQuestions();
+        unrelated.get(0).setPoints(99);
+        new Quiz("Other bank", null, unrelated).setTitle("Renamed");
+
+        assertThat(quiz.contentFingerprint()).isSameAs(quizBefore);
+        assertThat(material.contentFingerprint()).isSameAs(materialBefore);
+
+        // 子题变化仍会逐级传到材料题和测验
+        sub.setCorrectAnswer("Green");
+        assertThat(material.contentFingerprint()).isNotEqualTo(materialBefore);
+        assertThat(quiz.contentFingerprint()).isNotEqualTo(quizBefore);
+    }
+
+    @Test
+    void shouldDistinguishQuestionOrderAndAnswerTypes() {
+        List<Question> questions = createQuestions();
+        List<Question> reversed = new ArrayList<>(questions);
+        Collections.reverse(reversed);
+
+        assertThat(new Quiz("Bank", null, questions).contentFingerprint())
+                .isNotEqualTo(new Quiz("Bank", null, reversed).contentFingerprint());
+        assertThat(new Question("q", "Stem", QuestionType.FILL_IN_BLANK, Collections.emptyList(), "true", 1).contentFingerprint())
+                .isNotEqualTo(new Question("q", "Stem", QuestionType.FILL_IN_BLANK, Collections.emptyList(), Boolean.TRUE, 1).contentFingerprint());
+    }
+
+    private static List<Question> createQuestions() {
+        List<Question> questions = new ArrayList<>();
+        questions.add(new Question("q1", "What is 1+1?", QuestionType.SINGLE_CHOICE,
+                Arrays.asList(new Choice("a", "1"), new Choice("b", "2")), "2", 10));
+        questions.add(new Question("q2", "Pick a primary color", QuestionType.SINGLE_CHOICE,
+                Arrays.asList(new Choice("r", "Red"), new Choice("g", "Green"), new Choice("b", "Blue")), "Red", 5));
+        questions.add(new Question("q3", "Java is __ fun.", QuestionType.FILL_IN_BLANK,
+                Collections.emptyList(), "very", 5));
+        return questions;
+    }
+}
@@ -0,0 +1,221 @@
+package com.example.quizdomainmodel.domain.model;
+
+import com.example.quizdomainmodel.domain.intern.DomainInterner;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jol.info.ClassLayout;
+import org.openjdk.jol.info.GraphLayout;
+import org.openjdk.jol.vm.VM;
+import org.openjdk.jol.vm.VirtualMachine;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.IntFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Heap footprint regression suite for the domain model, measured with JOL.
+ * <p>
+ * Each shape is built {@value #INSTANCES} times with unique IDs and texts, the way a large bank or
+ * exam produces them, and the reachable graph of all instances is measured at once. Choices shared
+ * between instances are thus amortized, and the result is the heap one more instance costs. A
+ * shape failing its budget means a field or wrapper was added: either shrink it or raise the
+ * budget deliberately in the same change.
+ * <p>
+ * A second table compares whole banks built with a fresh {@link Choice} per question, as importers
+ * did before choices were shared, against the same banks built with {@link SharedChoice}s.
+ * <p>
+ * Budgets assume a 64-bit HotSpot with compressed oops and class pointers and 8 byte alignment (the
+ * default below 32 GB heaps); other layouts skip the suite.
+ */
+class FootprintRegressionTest {
+
+    private static final int INSTANCES = 1_000;
+    private static final List<String> REPORT = new ArrayList<>();
+    private static final List<String> SAVINGS = new ArrayList<>();
+
+    @BeforeAll
+    static void requireDefaultLayout() {
+        VirtualMachine vm = VM.current();
+        assumeTrue(vm.arrayIndexScale(Object[].class.getName()) == 4 && vm.classPointerSize() == 4 && vm.objectAlignment() == 8,
+                "Footprint budgets assume compressed oops/class pointers and 8 byte alignment");
+        REPORT.add(String.format("%-40s %8s %12s %8s %9s", "Shape", "Shallow", "Per instance", "Budget", "Headroom"));
+        SAVINGS.add(String.format("%-40s %8s %12s %8s", "Bank (per question)", "Unshared", "Shared", "Saved"));
+    }
+
+    @AfterAll
+    static void printBreakdown() {
+        // 打印各形状的内存占用明细，便于跟踪变化
+        System.out.println(String.join(System.lineSeparator(), REPORT));
+        System.out.println(String.join(System.lineSeparator(), SAVINGS));
+    }
+
+    // Budgets are the measured footprint plus about 10% headroom
+
+    @Test
+    void singleChoiceQuestion() {
+        measure("Question (single choice, 4 choices)", Question.class, 400, FootprintRegressionTest::choiceQuestion);
+    }
+
+    @Test
+    void fillInBlankQuestion() {
+        measure("Question (fill in blank)", Question.class, 480, i -> new Question("fill-" + i,
+                stem("Fill in the missing word of sentence", i), QuestionType.FILL_IN_BLANK,
+                Collections.emptyList(), "answer" + i, 5));
+    }
+
+    @Test
+    void materialQuestion() {
+        measure("MaterialQuestion (3 sub-questions)", MaterialQuestion.class, 1_920, i -> {
+            List<Question> subQuestions = new ArrayList<>();
+            for (int k = 0; k < 3; k++) {
+                subQuestions.add(choiceQuestion(i * 10 + k));
+            }
+            return new MaterialQuestion("material-" + i, stem("Read the following passage", i) + PASSAGE,
+                    Collections.emptyList(), "*N/A*", 0, subQuestions);
+        });
+    }
+
+    @Test
+    void choiceAnswer() {
+        measure("UserAnswer (single choice)", UserAnswer.class, 195, i ->
+                UserAnswer.createChoiceAnswer("q-" + (i % 50), Collections.singletonList("choice-" + (i % 4))));
+    }
+
+    @Test
+    void fillInAnswer() {
+        measure("UserAnswer (fill in blank)", UserAnswer.class, 150, i -> new UserAnswer("q-" + (i % 50), "typed text " + i));
+    }
+
+    @Test
+    void answerSheet() {
+        measure("AnswerSheet (50 choice answers)", AnswerSheet.class, 10_100, i -> {
+            List<UserAnswer> answers = new ArrayList<>(50);
+            for (int q = 0; q < 50; q++) {
+                answers.add(UserAnswer.createChoiceAnswer("q-" + q, Collections.singletonList("choice-" + ((i + q) % 4))));
+            }
+            return new AnswerSheet("sheet-" + i, "quiz", "user-" + i, 1_700_000_000_000L + i, answers);
+        });
+    }
+
+    @Test
+    void trueFalseBankSavings() {
+        long[] perQuestion = compareBanks("True/false", FootprintRegressionTest::trueFalseQuestion);
+        // Stems, IDs and answer keys stay unique; only the two choices per question are gone
+        assertThat(perQuestion[1]).isLessThan(perQuestion[0] * 2 / 3);
+    }
+
+    @Test
+    void mixedBankSavings() {
+        // 30% true/false, 50% four options from a 200-word vocabulary, 20% fill in blank
+        long[] perQuestion = compareBanks("Mixed (T/F, 4 options, fill in)", (i, shared) -> {
+            int kind = i % 10;
+            if (kind < 3) {
+                return trueFalseQuestion(i, shared);
+            }
+            if (kind < 8) {
+                List<Choice> choices = new ArrayList<>(4);
+                for (int k = 0; k < 4; k++) {
+                    choices.add(choice("Option word " + (i * 7 + k * 31) % 200, shared));
+                }
+                return new Question("mixed-" + i, stem("Pick the matching option for", i),
+                        QuestionType.SINGLE_CHOICE, choices, choices.get(i % 4).getText(), 5);
+            }
+            return new Question("mixed-" + i, stem("Fill in the missing word of sentence", i),
+                    QuestionType.FILL_IN_BLANK, Collections.emptyList(), "answer" + i, 5);
+        });
+        assertThat(perQuestion[1]).isLessThan(perQuestion[0]);
+    }
+
+    /**
+     * Builds a bank twice, once with a fresh choice per question and once with shared choices, and
+     * records the heap per question of both.
+     *
+     * @return The bytes per question without and with shared choices.
+     */
+    private static long[] compareBanks(String bank, BankFactory factory) {
+        long[] perQuestion = new long[2];
+        for (int pass = 0; pass < 2; pass++) {
+            Question[] questions = new Question[INSTANCES];
+            for (int i = 0; i < INSTANCES; i++) {
+                questions[i] = factory.create(i, pass == 1);
+                questions[i].getAnswerKey();
+            }
+            perQuestion[pass] = GraphLayout.parseInstance((Object[]) questions).totalSize() / INSTANCES;
+        }
+        SAVINGS.add(String.format("%-40s %8d %12d %7.0f%%", bank, perQuestion[0], perQuestion[1],
+                100.0 * (perQuestion[0] - perQuestion[1]) / perQuestion[0]));
+        return perQuestion;
+    }
+
+    private interface BankFactory {
+        Question create(int i, boolean sharedChoices);
+    }
+
+    private static void measure(String shape, Class<?> type, long budgetBytes, IntFunction<Object> factory) {
+        Object[] instances = new Object[INSTANCES];
+        for (int i = 0; i < INSTANCES; i++) {
+            instances[i] = factory.apply(i);
+            if (instances[i] instanceof Question) {
+                // Resolved at import, so part of every live question
+                ((Question) instances[i]).getAnswerKey();
+            }
+            if (instances[i] instanceof MaterialQuestion) {
+                ((MaterialQuestion) instances[i]).getSubQuestions().forEach(Question::getAnswerKey);
+            }
+        }
+        long shallow = ClassLayout.parseClass(type).instanceSize();
+        GraphLayout layout = GraphLayout.parseInstance(instances);
+        long perInstance = layout.totalSize() / INSTANCES;
+        REPORT.add(String.format("%-40s %8d %12d %8d %8.0f%%", shape, shallow, perInstance, budgetBytes,
+                100.0 * (budgetBytes - perInstance) / budgetBytes));
+        // Per class breakdown, largest first, so a regression points at its cause
+        List<Class<?>> classes = new ArrayList<>(layout.getClasses());
+        classes.sort(Comparator.comparingLong((Class<?> c) -> layout.getClassSizes().count(c)).reversed());
+        StringBuilder breakdown = new StringBuilder("    ");
+        for (Class<?> c : classes) {
+            double bytes = (double) layout.getClassSizes().count(c) / INSTANCES;
+            if (bytes >= 1) {
+                breakdown.append(String.format("%s %.0f  ", c.getSimpleName(), bytes));
+            }
+        }
+        REPORT.add(breakdown.toString());
+
+        assertThat(perInstance)
+                .as("Heap per %s regressed; see the footprint table", shape)
+                .isLessThanOrEqualTo(budgetBytes);
+    }
+
+    private static Question choiceQuestion(int i) {
+        List<Choice> choices = Arrays.asList(DomainInterner.choice("Red"), DomainInterner.choice("Green"),
+                DomainInterner.choice("Blue"), DomainInterner.choice("Yellow"));
+        return new Question("q-" + i, stem("Which color is described by clue", i), QuestionType.SINGLE_CHOICE,
+                choices, "Blue", 5);
+    }
+
+    private static Question trueFalseQuestion(int i, boolean shared) {
+        return new Question("tf-" + i, stem("Decide whether statement", i), QuestionType.TRUE_FALSE,
+                Arrays.asList(choice("True", shared), choice("False", shared)), "True", 1);
+    }
+
+    private static Choice choice(String text, boolean shared) {
+        // Importers used to create a random-UUID choice per row
+        return shared ? DomainInterner.choice(text) : new Choice(UUID.randomUUID().toString(), new String(text));
+    }
+
+    private static String stem(String prefix, int i) {
+        return String.format("%s number %06d, as written by the question author?", prefix, i);
+    }
+
+    private static final String PASSAGE = " Java is a high-level, class-based, object-oriented programming language"
+            + " designed to have as few implementation dependencies as possible. It is a general-purpose language"
+            + " intended to let programmers write once, run anywhere, meaning that compiled Java code can run on"
+            + " all platforms that support Java without the need to recompile.";
+}
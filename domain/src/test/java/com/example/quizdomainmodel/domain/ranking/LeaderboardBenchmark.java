@@ -0,0 +1,36 @@
+package com.example.quizdomainmodel.domain.ranking;
+
+import com.example.quizdomainmodel.domain.model.AnswerSheet;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+/**
+ * Measures submitting a graded sheet and reading its rank back on a 1,000,000-sheet leaderboard.
+ * Not part of the default test run; run with {@code mvn -Pbenchmark test -pl domain}.
+ */
+class LeaderboardBenchmark {
+
+    @Test
+    void rankMillionSheets() {
+        // Warm up the JIT
+        Leaderboard warmup = new Leaderboard("quiz");
+        Random random = new Random(9);
+        for (int i = 0; i < 100_000; i++) {
+            AnswerSheet sheet = LeaderboardTest.sheet("warmup-" + i, i);
+            warmup.onGraded(sheet, random.nextInt(1_000));
+            warmup.getStanding(sheet.getId());
+        }
+
+        Leaderboard leaderboard = new Leaderboard("quiz");
+        int sheets = 1_000_000;
+        long start = System.nanoTime();
+        for (int i = 0; i < sheets; i++) {
+            AnswerSheet sheet = LeaderboardTest.sheet("sheet-" + i, i);
+            leaderboard.onGraded(sheet, random.nextInt(1_000));
+            leaderboard.getStanding(sheet.getId());
+        }
+        double micros = (System.nanoTime() - start) / 1_000.0 / sheets;
+        System.out.printf("Leaderboard: %.2f us per submission and rank lookup over %d sheets%n", micros, sheets);
+    }
+}
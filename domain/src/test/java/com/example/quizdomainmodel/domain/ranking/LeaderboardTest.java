@@ -0,0 +1,145 @@
+package com.example.quizdomainmodel.domain.ranking;
+
+import com.example.quizdomainmodel.domain.grading.IncrementalRegrader.ScoreChange;
+import com.example.quizdomainmodel.domain.model.AnswerSheet;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.offset;
+
+class LeaderboardTest {
+
+    private static final Comparator<AnswerSheet> BY_SUBMISSION = Comparator.comparingLong(AnswerSheet::getSubmissionTime)
+            .thenComparing(AnswerSheet::getId);
+
+    @Test
+    void shouldMatchFullSortAfterRandomUpdates() {
+        // 随机插入、重评分和删除后，排名、Top-K 与百分位应与全量排序的结果一致
+        Leaderboard leaderboard = new Leaderboard("quiz");
+        Map<String, AnswerSheet> sheets = new HashMap<>();
+        Map<String, Integer> scores = new HashMap<>();
+        Random random = new Random(3);
+        for (int step = 0; step < 20_000; step++) {
+            int action = random.nextInt(10);
+            if (action < 7 || sheets.isEmpty()) {
+                AnswerSheet sheet = sheet("sheet-" + step, random.nextInt(1_000));
+                int score = random.nextInt(50);
+                leaderboard.onGraded(sheet, score);
+                sheets.put(sheet.getId(), sheet);
+                scores.put(sheet.getId(), score);
+            } else {
+                String sheetId = new ArrayList<>(sheets.keySet()).get(random.nextInt(sheets.size()));
+                if (action < 9) {
+                    int newScore = random.nextInt(50);
+                    leaderboard.onRegraded(Collections.singletonList(
+                            new ScoreChange(sheets.get(sheetId), scores.get(sheetId), newScore)));
+                    scores.put(sheetId, newScore);
+                } else {
+                    assertThat(leaderboard.remove(sheetId)).isTrue();
+                    sheets.remove(sheetId);
+                    scores.remove(sheetId);
+                }
+            }
+        }
+
+        List<AnswerSheet> expected = new ArrayList<>(sheets.values());
+        expected.sort(Comparator.<AnswerSheet>comparingInt(sheet -> -scores.get(sheet.getId())).thenComparing(BY_SUBMISSION));
+        assertThat(leaderboard.size()).isEqualTo(expected.size());
+        List<Standing> standings = new ArrayList<>(expected.size());
+        for (int i = 0; i < expected.size(); i++) {
+            AnswerSheet sheet = expected.get(i);
+            Standing standing = leaderboard.getStanding(sheet.getId());
+            int score = scores.get(sheet.getId());
+            long lower = scores.values().stream().filter(other -> other < score).count();
+            assertThat(standing.getRank()).isEqualTo(i + 1);
+            assertThat(standing.getScore()).isEqualTo(score);
+            assertThat(standing.getPercentile()).isCloseTo(100.0 * lower / expected.size(), offset(1e-9));
+            assertThat(leaderboard.getStandingAtRank(i + 1)).isEqualTo(standing);
+            standings.add(standing);
+        }
+        // Top-K 的百分位按顺序递推得出，应与逐个查询的结果完全相同
+        for (int k : new int[]{0, 1, 25, 500, expected.size(), expected.size() + 10}) {
+            assertThat(leaderboard.getTop(k)).containsExactlyElementsOf(standings.subList(0, Math.min(k, standings.size())));
+        }
+        assertThat(leaderboard.getStandingAtRank(expected.size() + 1)).isNull();
+        assertThat(leaderboard.snapshotSketch().getCount()).isEqualTo(expected.size());
+    }
+
+    @Test
+    void shouldBreakTiesByEarlierSubmission() {
+        Leaderboard leaderboard = new Leaderboard("quiz");
+        leaderboard.onGraded(sheet("late", 200), 80);
+        leaderboard.onGraded(sheet("early", 100), 80);
+        leaderboard.onGraded(sheet("best", 300), 90);
+        leaderboard.onGraded(sheet("low", 50), 10);
+
+        assertThat(leaderboard.getTop(4)).extracting(Standing::getSheetId).containsExactly("best", "early", "late", "low");
+        // 同分考生的百分位相同，只有名次不同
+        assertThat(leaderboard.getStanding("late").getPercentile()).isEqualTo(leaderboard.getStanding("early").getPercentile());
+        assertThat(leaderboard.getPercentile(80)).isEqualTo(25.0);
+        assertThatThrownBy(() -> leaderboard.onGraded(new AnswerSheet("x", "other-quiz", "u", 0L, null), 1))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void shouldAcceptConcurrentGraders() throws InterruptedException {
+        Leaderboard leaderboard = new Leaderboard("quiz");
+        ExecutorService graders = Executors.newFixedThreadPool(4);
+        for (int worker = 0; worker < 4; worker++) {
+            int offsetId = worker;
+            graders.execute(() -> {
+                Random random = new Random(offsetId);
+                for (int i = 0; i < 25_000; i++) {
+                    leaderboard.onGraded(sheet("w" + offsetId + "-" + i, random.nextInt(100_000)), random.nextInt(100));
+                }
+            });
+        }
+        graders.shutdown();
+        assertThat(graders.awaitTermination(1, TimeUnit.MINUTES)).isTrue();
+
+        assertThat(leaderboard.size()).isEqualTo(100_000);
+        List<Standing> all = leaderboard.getTop(100_000);
+        for (int i = 1; i < all.size(); i++) {
+            assertThat(all.get(i).getScore()).isLessThanOrEqualTo(all.get(i - 1).getScore());
+        }
+    }
+
+    @Test
+    void shouldReportRankRightAfterEachSubmission() {
+        // 逐份交卷后立即查询名次：新卷在同分者中交卷最晚，名次等于不低于其分数的考生人数；吞吐见 LeaderboardBenchmark
+        Leaderboard leaderboard = new Leaderboard("quiz");
+        Random random = new Random(9);
+        int[] atScore = new int[1_000];
+        for (int i = 0; i < 20_000; i++) {
+            AnswerSheet sheet = sheet("sheet-" + i, i);
+            int score = random.nextInt(atScore.length);
+            leaderboard.onGraded(sheet, score);
+            atScore[score]++;
+
+            int atLeast = 0;
+            for (int s = score; s < atScore.length; s++) {
+                atLeast += atScore[s];
+            }
+            Standing standing = leaderboard.getStanding(sheet.getId());
+            assertThat(standing.getRank()).isEqualTo(atLeast);
+            assertThat(standing.getTotal()).isEqualTo(i + 1);
+        }
+        assertThat(leaderboard.getStandingAtRank(1).getScore()).isEqualTo(999);
+    }
+
+    static AnswerSheet sheet(String id, long submissionTime) {
+        return new AnswerSheet(id, "quiz", "user-" + id, submissionTime, Collections.emptyList());
+    }
+}
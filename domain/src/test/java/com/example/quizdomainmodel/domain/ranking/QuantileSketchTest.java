@@ -0,0 +1,76 @@
+package com.example.quizdomainmodel.domain.ranking;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.offset;
+
+class QuantileSketchTest {
+
+    @Test
+    void shouldReturnQuantilesWithinRelativeAccuracy() {
+        // 百万个偏态分布的分数，各分位数的相对误差不超过 1%
+        QuantileSketch sketch = new QuantileSketch(0.01);
+        Random random = new Random(1);
+        double[] values = new double[1_000_000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = Math.exp(random.nextGaussian() * 1.5 + 4);
+            sketch.add(values[i]);
+        }
+        Arrays.sort(values);
+
+        for (double quantile : new double[]{0, 0.01, 0.1, 0.25, 0.5, 0.75, 0.9, 0.99, 0.999, 1}) {
+            double exact = values[(int) (quantile * (values.length - 1))];
+            assertThat(sketch.getValueAtQuantile(quantile)).isCloseTo(exact, offset(exact * 0.01 + 1e-9));
+        }
+        assertThat(sketch.getFractionBelow(values[500_000])).isCloseTo(0.5, offset(0.01));
+        assertThat(sketch.toBytes().length).isLessThan(16_000);
+    }
+
+    @Test
+    void shouldMergeSketchesFromSeparateProcesses() {
+        // 各判卷进程的草图序列化后合并，结果应与单个草图完全一致
+        QuantileSketch global = new QuantileSketch();
+        QuantileSketch merged = new QuantileSketch();
+        Random random = new Random(2);
+        int[] scores = new int[400_000];
+        for (int process = 0; process < 4; process++) {
+            QuantileSketch local = new QuantileSketch();
+            for (int i = 0; i < 100_000; i++) {
+                int score = random.nextInt(101) - (process == 0 ? 5 : 0);
+                local.add(score);
+                global.add(score);
+                scores[process * 100_000 + i] = score;
+            }
+            merged.merge(QuantileSketch.fromBytes(local.toBytes()));
+        }
+
+        assertThat(merged.getCount()).isEqualTo(400_000);
+        assertThat(merged.toBytes()).isEqualTo(global.toBytes());
+        Arrays.sort(scores);
+        double median = scores[(scores.length - 1) / 2];
+        assertThat(merged.getValueAtQuantile(0.5)).isCloseTo(median, offset(median * 0.01));
+        assertThat(merged.getMin()).isEqualTo(-5);
+        assertThatThrownBy(() -> merged.merge(new QuantileSketch(0.02))).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void shouldMoveRegradedScores() {
+        QuantileSketch sketch = new QuantileSketch();
+        for (int score = 0; score < 10; score++) {
+            sketch.add(score);
+        }
+        sketch.remove(0);
+        sketch.add(100);
+
+        assertThat(sketch.getCount()).isEqualTo(10);
+        assertThat(sketch.getValueAtQuantile(1)).isEqualTo(100);
+        assertThat(sketch.getFractionBelow(1)).isCloseTo(0.05, offset(1e-9));
+        assertThatThrownBy(() -> sketch.remove(1_000)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> QuantileSketch.fromBytes(new byte[]{1, 2})).isInstanceOf(IllegalArgumentException.class);
+    }
+}
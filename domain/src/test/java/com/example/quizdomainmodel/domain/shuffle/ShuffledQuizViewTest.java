@@ -0,0 +1,167 @@
+package com.example.quizdomainmodel.domain.shuffle;
+
+import com.example.quizdomainmodel.domain.model.AnswerSheet;
+import com.example.quizdomainmodel.domain.model.Choice;
+import com.example.quizdomainmodel.domain.model.MaterialQuestion;
+import com.example.quizdomainmodel.domain.model.Question;
+import com.example.quizdomainmodel.domain.model.QuestionType;
+import com.example.quizdomainmodel.domain.model.Quiz;
+import com.example.quizdomainmodel.domain.model.UserAnswer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ShuffledQuizViewTest {
+
+    private Quiz quiz;
+
+    @BeforeEach
+    void setUp() {
+        List<Question> questions = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            List<Choice> choices = Arrays.asList(
+                    new Choice("q" + i + "-a", "A"),
+                    new Choice("q" + i + "-b", "B"),
+                    new Choice("q" + i + "-c", "C"),
+                    new Choice("q" + i + "-d", "D"));
+            questions.add(new Question("q" + i, "Question " + i, QuestionType.SINGLE_CHOICE, choices,
+                    Collections.singletonList("q" + i + "-b"), 5));
+        }
+        quiz = new Quiz("Shuffle quiz", null, questions);
+    }
+
+    @Test
+    void shouldProduceSameOrderForSameUser() {
+        // 同一用户多次构建视图应得到完全相同的题目和选项顺序
+        ShuffledQuizView first = ShuffledQuizView.forUser(quiz, "user-1");
+        ShuffledQuizView second = ShuffledQuizView.forUser(quiz, "user-1");
+
+        assertThat(ids(first.getQuestions())).isEqualTo(ids(second.getQuestions()));
+        for (int i = 0; i < first.size(); i++) {
+            assertThat(first.getChoices(i)).containsExactlyElementsOf(second.getChoices(i));
+        }
+    }
+
+    @Test
+    void shouldProduceDifferentPermutationsForDifferentUsers() {
+        // 不同用户的题目顺序应不同，且都是原题目集合的排列
+        ShuffledQuizView alice = ShuffledQuizView.forUser(quiz, "alice");
+        ShuffledQuizView bob = ShuffledQuizView.forUser(quiz, "bob");
+
+        assertThat(ids(alice.getQuestions())).isNotEqualTo(ids(bob.getQuestions()));
+        assertThat(alice.getQuestions()).containsExactlyInAnyOrderElementsOf(quiz.getQuestions());
+        assertThat(bob.getQuestions()).containsExactlyInAnyOrderElementsOf(quiz.getQuestions());
+    }
+
+    @Test
+    void shouldShareCanonicalQuestionAndChoiceInstances() {
+        // 视图不复制题目和选项对象
+        ShuffledQuizView view = ShuffledQuizView.forUser(quiz, "user-2");
+        for (int i = 0; i < view.size(); i++) {
+            Question question = view.getQuestion(i);
+            assertThat(question).isSameAs(quiz.getQuestions().get(view.canonicalQuestionIndex(i)));
+            for (Choice choice : view.getChoices(i)) {
+                assertThat(question.getChoices()).anySatisfy(c -> assertThat(c).isSameAs(choice));
+            }
+        }
+    }
+
+    @Test
+    void shouldMapDisplayedPositionsBackToCanonicalChoiceIds() {
+        // 按显示位置作答时，答案应映射回规范的选项 ID，并按原评分逻辑得分
+        ShuffledQuizView view = ShuffledQuizView.forUser(quiz, "user-3");
+        List<UserAnswer> answers = new ArrayList<>();
+        for (int i = 0; i < view.size(); i++) {
+            List<Choice> displayed = view.getChoices(i);
+            int correctPosition = -1;
+            for (int p = 0; p < displayed.size(); p++) {
+                if (displayed.get(p).getId().endsWith("-b")) {
+                    correctPosition = p;
+                }
+            }
+            answers.add(view.toCanonicalAnswer(i, correctPosition));
+        }
+
+        AnswerSheet sheet = new AnswerSheet("s1", quiz.getId(), "user-3", 0L, answers);
+        assertThat(sheet.calculateTotalScore(quiz.getQuestions())).isEqualTo(100);
+    }
+
+    @Test
+    void shouldListMultipleChoiceSelectionsInCanonicalOrder() {
+        // 多选题按打乱后的位置作答（且点击顺序相反），答案仍按规范顺序列出选项 ID 并得满分
+        List<Question> questions = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            questions.add(new Question("m" + i, "Multiple " + i, QuestionType.MULTIPLE_CHOICE, choices("m" + i),
+                    Arrays.asList("m" + i + "-a", "m" + i + "-c", "m" + i + "-d"), 10));
+        }
+        Quiz multipleQuiz = new Quiz("Multiple quiz", null, questions);
+        ShuffledQuizView view = ShuffledQuizView.forUser(multipleQuiz, "user-4");
+        List<UserAnswer> answers = new ArrayList<>();
+        for (int i = 0; i < view.size(); i++) {
+            List<Choice> displayed = view.getChoices(i);
+            int[] positions = positionsOf(displayed, "-d", "-c", "-a");
+            UserAnswer answer = view.toCanonicalAnswer(i, positions);
+            String id = view.getQuestion(i).getId();
+            assertThat(answer.getSelectedChoiceIds()).containsExactly(id + "-a", id + "-c", id + "-d");
+            answers.add(answer);
+        }
+
+        AnswerSheet sheet = new AnswerSheet("s2", multipleQuiz.getId(), "user-4", 0L, answers);
+        assertThat(sheet.calculateTotalScore(multipleQuiz.getQuestions())).isEqualTo(100);
+    }
+
+    @Test
+    void shouldListMaterialSubQuestionSelectionsInCanonicalOrder() {
+        // 材料题的子题同样按规范顺序映射，并按原评分逻辑得分
+        List<Question> subQuestions = new ArrayList<>();
+        for (int s = 0; s < 4; s++) {
+            subQuestions.add(new Question("r-s" + s, "Sub " + s, QuestionType.MULTIPLE_CHOICE, choices("r-s" + s),
+                    Arrays.asList("r-s" + s + "-b", "r-s" + s + "-d"), 5));
+        }
+        MaterialQuestion material = new MaterialQuestion("r", "Reading", Collections.emptyList(), "*N/A*", 0, subQuestions);
+        Quiz materialQuiz = new Quiz("Material quiz", null, Collections.singletonList(material));
+        ShuffledQuizView view = ShuffledQuizView.forUser(materialQuiz, "user-5");
+        List<UserAnswer> subAnswers = new ArrayList<>();
+        for (Question subQuestion : material.getSubQuestions()) {
+            UserAnswer answer = view.toCanonicalAnswer(subQuestion, positionsOf(view.getChoices(subQuestion), "-d", "-b"));
+            assertThat(answer.getSelectedChoiceIds()).containsExactly(subQuestion.getId() + "-b", subQuestion.getId() + "-d");
+            subAnswers.add(answer);
+        }
+
+        AnswerSheet sheet = new AnswerSheet("s3", materialQuiz.getId(), "user-5", 0L,
+                Collections.singletonList(UserAnswer.createMaterialAnswer(material.getId(), subAnswers)));
+        // 材料题总分为子题分值之和，再加上各子题的得分
+        assertThat(sheet.calculateTotalScore(materialQuiz.getQuestions())).isEqualTo(40);
+    }
+
+    private static List<Choice> choices(String questionId) {
+        return Arrays.asList(
+                new Choice(questionId + "-a", "A"),
+                new Choice(questionId + "-b", "B"),
+                new Choice(questionId + "-c", "C"),
+                new Choice(questionId + "-d", "D"));
+    }
+
+    private static int[] positionsOf(List<Choice> displayed, String... suffixes) {
+        int[] positions = new int[suffixes.length];
+        for (int i = 0; i < suffixes.length; i++) {
+            for (int p = 0; p < displayed.size(); p++) {
+                if (displayed.get(p).getId().endsWith(suffixes[i])) {
+                    positions[i] = p;
+                }
+            }
+        }
+        return positions;
+    }
+
+    private static List<String> ids(List<Question> questions) {
+        return questions.stream().map(Question::getId).collect(Collectors.toList());
+    }
+}
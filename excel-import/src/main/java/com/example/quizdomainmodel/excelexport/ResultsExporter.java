@@ -0,0 +1,410 @@
+package com.example.quizdomainmodel.excelexport;
+
+import com.example.quizdomainmodel.domain.model.AnswerSheet;
+import com.example.quizdomainmodel.domain.model.MaterialQuestion;
+import com.example.quizdomainmodel.domain.model.Question;
+import com.example.quizdomainmodel.domain.model.Quiz;
+import com.example.quizdomainmodel.domain.model.UserAnswer;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Font;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Exports graded results to Excel through POI's streaming {@link SXSSFWorkbook}.
+ * <p>
+ * Only a bounded window of rows is kept in memory; older rows are flushed to a compressed temp
+ * file, so exams with hundreds of thousands of candidates can be exported with a small, constant
+ * heap. Answer sheets are consumed from an iterator and scored one at a time, and all summary and
+ * item statistics are accumulated on the fly, so the sheets never need to be held in memory.
+ * <p>
+ * The workbook contains three sheets:
+ * <ul>
+ *     <li>{@code Summary} - candidate count, score statistics and a score distribution</li>
+ *     <li>{@code Scores} - one row per candidate (rolled over into further sheets past the XLSX row limit)</li>
+ *     <li>{@code Item Analysis} - per question responses, facility and discrimination</li>
+ * </ul>
+ */
+public class ResultsExporter {
+
+    public static final int DEFAULT_ROW_WINDOW = 100;
+
+    static final String SUMMARY_SHEET = "Summary";
+    static final String SCORES_SHEET = "Scores";
+    static final String ITEM_ANALYSIS_SHEET = "Item Analysis";
+
+    // XLSX allows 1,048,576 rows per sheet, one of which is the header
+    private static final int MAX_DATA_ROWS_PER_SHEET = 1_048_575;
+    private static final int DISTRIBUTION_BANDS = 10;
+
+    private static final String[] SCORE_HEADERS = {
+            "Sheet ID", "User ID", "Submission Time", "Score", "Max Score", "Percent", "Answered"
+    };
+    private static final String[] ITEM_HEADERS = {
+            "Question ID", "Stem", "Type", "Max Score", "Responses", "Omitted", "Full Credit",
+            "Mean Score", "Facility", "Discrimination"
+    };
+
+    public static void exportResultsToExcel(String filePath, Quiz quiz, Iterator<AnswerSheet> answerSheets) throws IOException {
+        try (FileOutputStream fos = new FileOutputStream(filePath)) {
+            exportResults(fos, quiz, answerSheets, DEFAULT_ROW_WINDOW);
+        }
+    }
+
+    /**
+     * Streams the results of a quiz into an XLSX workbook.
+     *
+     * @param out The stream the workbook is written to. Not closed by this method.
+     * @param quiz The quiz the answer sheets belong to. Cannot be null.
+     * @param answerSheets The answer sheets to export, consumed once. Cannot be null.
+     * @param rowWindow The number of rows kept in memory per sheet. Must be >= 1.
+     * @return The number of candidates exported.
+     */
+    public static long exportResults(OutputStream out, Quiz quiz, Iterator<AnswerSheet> answerSheets, int rowWindow) throws IOException {
+        if (quiz == null) {
+            throw new IllegalArgumentException("Quiz cannot be null.");
+        }
+        if (answerSheets == null) {
+            throw new IllegalArgumentException("Answer sheets cannot be null.");
+        }
+        if (rowWindow < 1) {
+            throw new IllegalArgumentException("Row window must be at least 1.");
+        }
+
+        SXSSFWorkbook workbook = new SXSSFWorkbook(rowWindow);
+        workbook.setCompressTempFiles(true);
+        try {
+            Styles styles = new Styles(workbook);
+            // Created first so it is the first tab; filled once all sheets have been streamed
+            Sheet summarySheet = workbook.createSheet(SUMMARY_SHEET);
+
+            ItemStatistics items = new ItemStatistics(quiz.getQuestions());
+            ScoreStatistics scores = new ScoreStatistics(items.maxTotalScore);
+
+            Sheet scoresSheet = null;
+            int scoreRowNum = 0;
+            int scoresSheetCount = 0;
+            while (answerSheets.hasNext()) {
+                AnswerSheet answerSheet = answerSheets.next();
+                if (scoresSheet == null || scoreRowNum > MAX_DATA_ROWS_PER_SHEET) {
+                    scoresSheetCount++;
+                    scoresSheet = workbook.createSheet(scoresSheetCount == 1 ? SCORES_SHEET : SCORES_SHEET + " (" + scoresSheetCount + ")");
+                    writeHeader(scoresSheet, SCORE_HEADERS, styles.header);
+                    scoreRowNum = 1;
+                }
+                int score = items.score(answerSheet);
+                scores.add(score);
+                writeScoreRow(scoresSheet.createRow(scoreRowNum++), answerSheet, score, items, styles);
+            }
+            if (scoresSheet == null) {
+                writeHeader(workbook.createSheet(SCORES_SHEET), SCORE_HEADERS, styles.header);
+            }
+
+            writeItemAnalysis(workbook.createSheet(ITEM_ANALYSIS_SHEET), items, scores, styles);
+            writeSummary(summarySheet, quiz, scores, styles);
+
+            workbook.write(out);
+            return scores.count;
+        } finally {
+            // Deletes the temp files backing the flushed rows
+            workbook.dispose();
+            workbook.close();
+        }
+    }
+
+    private static void writeHeader(Sheet sheet, String[] headers, CellStyle style) {
+        Row header = sheet.createRow(0);
+        for (int i = 0; i < headers.length; i++) {
+            Cell cell = header.createCell(i);
+            cell.setCellValue(headers[i]);
+            cell.setCellStyle(style);
+        }
+    }
+
+    private static void writeScoreRow(Row row, AnswerSheet answerSheet, int score, ItemStatistics items, Styles styles) {
+        row.createCell(0).setCellValue(answerSheet.getId());
+        row.createCell(1).setCellValue(answerSheet.getUserId());
+        Cell time = row.createCell(2);
+        time.setCellValue(new Date(answerSheet.getSubmissionTime()));
+        time.setCellStyle(styles.timestamp);
+        row.createCell(3).setCellValue(score);
+        row.createCell(4).setCellValue(items.maxTotalScore);
+        Cell percent = row.createCell(5);
+        percent.setCellValue(items.maxTotalScore == 0 ? 0 : (double) score / items.maxTotalScore);
+        percent.setCellStyle(styles.percent);
+        row.createCell(6).setCellValue(answerSheet.getUserAnswers().size());
+    }
+
+    private static void writeItemAnalysis(Sheet sheet, ItemStatistics items, ScoreStatistics scores, Styles styles) {
+        writeHeader(sheet, ITEM_HEADERS, styles.header);
+        for (int i = 0; i < items.questions.size(); i++) {
+            Question question = items.questions.get(i);
+            long responses = items.responses[i];
+            double meanScore = scores.count == 0 ? 0 : items.scoreSum[i] / scores.count;
+
+            Row row = sheet.createRow(i + 1);
+            row.createCell(0).setCellValue(question.getId());
+            row.createCell(1).setCellValue(question.getStem());
+            row.createCell(2).setCellValue(question.getType().name());
+            row.createCell(3).setCellValue(items.maxScore[i]);
+            row.createCell(4).setCellValue(responses);
+            row.createCell(5).setCellValue(Math.max(0, scores.count - responses));
+            row.createCell(6).setCellValue(items.fullCredit[i]);
+            Cell mean = row.createCell(7);
+            mean.setCellValue(meanScore);
+            mean.setCellStyle(styles.decimal);
+            Cell facility = row.createCell(8);
+            facility.setCellValue(items.maxScore[i] == 0 ? 0 : meanScore / items.maxScore[i]);
+            facility.setCellStyle(styles.percent);
+            Cell discrimination = row.createCell(9);
+            discrimination.setCellValue(items.itemTotalCorrelation(i, scores));
+            discrimination.setCellStyle(styles.decimal);
+        }
+    }
+
+    private static void writeSummary(Sheet sheet, Quiz quiz, ScoreStatistics scores, Styles styles) {
+        int rowNum = 0;
+        rowNum = writeSummaryRow(sheet, rowNum, "Quiz ID", quiz.getId(), styles);
+        rowNum = writeSummaryRow(sheet, rowNum, "Quiz Title", quiz.getTitle(), styles);
+        rowNum = writeSummaryRow(sheet, rowNum, "Candidates", scores.count, styles);
+        rowNum = writeSummaryRow(sheet, rowNum, "Max Score", scores.maxPossible, styles);
+        rowNum = writeSummaryRow(sheet, rowNum, "Mean Score", scores.mean(), styles);
+        rowNum = writeSummaryRow(sheet, rowNum, "Std Deviation", scores.standardDeviation(), styles);
+        rowNum = writeSummaryRow(sheet, rowNum, "Lowest Score", scores.count == 0 ? 0 : scores.min, styles);
+        rowNum = writeSummaryRow(sheet, rowNum, "Median Score", scores.median(), styles);
+        rowNum = writeSummaryRow(sheet, rowNum, "Highest Score", scores.count == 0 ? 0 : scores.max, styles);
+
+        rowNum++;
+        Row header = sheet.createRow(rowNum++);
+        header.createCell(0).setCellValue("Score Band");
+        header.createCell(1).setCellValue("Candidates");
+        header.getCell(0).setCellStyle(styles.header);
+        header.getCell(1).setCellStyle(styles.header);
+        long[] bands = scores.distribution();
+        for (int band = 0; band < bands.length; band++) {
+            Row row = sheet.createRow(rowNum++);
+            int from = band * 100 / DISTRIBUTION_BANDS;
+            int to = (band + 1) * 100 / DISTRIBUTION_BANDS;
+            row.createCell(0).setCellValue(from + "% - " + to + "%" + (band == bands.length - 1 ? "" : " (excl.)"));
+            row.createCell(1).setCellValue(bands[band]);
+        }
+    }
+
+    private static int writeSummaryRow(Sheet sheet, int rowNum, String label, Object value, Styles styles) {
+        Row row = sheet.createRow(rowNum);
+        Cell labelCell = row.createCell(0);
+        labelCell.setCellValue(label);
+        labelCell.setCellStyle(styles.header);
+        Cell valueCell = row.createCell(1);
+        if (value instanceof Number) {
+            valueCell.setCellValue(((Number) value).doubleValue());
+            if (value instanceof Double) {
+                valueCell.setCellStyle(styles.decimal);
+            }
+        } else {
+            valueCell.setCellValue(value == null ? "" : value.toString());
+        }
+        return rowNum + 1;
+    }
+
+    /**
+     * Cell styles shared by all rows; a workbook supports a limited number of styles.
+     */
+    private static final class Styles {
+        private final CellStyle header;
+        private final CellStyle timestamp;
+        private final CellStyle percent;
+        private final CellStyle decimal;
+
+        private Styles(SXSSFWorkbook workbook) {
+            Font bold = workbook.createFont();
+            bold.setBold(true);
+            header = workbook.createCellStyle();
+            header.setFont(bold);
+            timestamp = workbook.createCellStyle();
+            timestamp.setDataFormat(workbook.createDataFormat().getFormat("yyyy-mm-dd hh:mm:ss"));
+            percent = workbook.createCellStyle();
+            percent.setDataFormat(workbook.createDataFormat().getFormat("0.0%"));
+            decimal = workbook.createCellStyle();
+            decimal.setDataFormat(workbook.createDataFormat().getFormat("0.00"));
+        }
+    }
+
+    /**
+     * Scores sheets per question and accumulates the sums needed for item analysis.
+     * Uses the same question matching as {@link AnswerSheet#calculateTotalScore(List)}.
+     */
+    private static final class ItemStatistics {
+        private final List<Question> questions;
+        private final Map<String, Integer> indexById;
+        private final int[] maxScore;
+        private final int maxTotalScore;
+        private final long[] responses;
+        private final long[] fullCredit;
+        private final double[] scoreSum;
+        private final double[] scoreSquareSum;
+        private final double[] scoreTotalProductSum;
+        // Per-sheet scratch buffer, reset after each sheet
+        private final int[] sheetScores;
+
+        private ItemStatistics(List<Question> questions) {
+            this.questions = questions;
+            int n = questions.size();
+            this.indexById = new HashMap<>(n * 2);
+            this.maxScore = new int[n];
+            int total = 0;
+            for (int i = 0; i < n; i++) {
+                Question question = questions.get(i);
+                // First match wins, like calculateTotalScore
+                indexById.putIfAbsent(question.getId(), i);
+                maxScore[i] = maxScore(question);
+                total += maxScore[i];
+            }
+            this.maxTotalScore = total;
+            this.responses = new long[n];
+            this.fullCredit = new long[n];
+            this.scoreSum = new double[n];
+            this.scoreSquareSum = new double[n];
+            this.scoreTotalProductSum = new double[n];
+            this.sheetScores = new int[n];
+        }
+
+        private static int maxScore(Question question) {
+            if (question instanceof MaterialQuestion) {
+                MaterialQuestion materialQuestion = (MaterialQuestion) question;
+                // AnswerSheet awards the material total plus each correct sub-question
+                return materialQuestion.calculateTotalScore() * 2;
+            }
+            return question.getPoints();
+        }
+
+        private int score(AnswerSheet answerSheet) {
+            int total = 0;
+            for (UserAnswer userAnswer : answerSheet.getUserAnswers()) {
+                Integer index = indexById.get(userAnswer.getQuestionId());
+                if (index == null) {
+                    continue;
+                }
+                int score = AnswerSheet.calculateAnswerScore(userAnswer, questions.get(index));
+                sheetScores[index] += score;
+                responses[index]++;
+                total += score;
+            }
+            for (int i = 0; i < sheetScores.length; i++) {
+                int score = sheetScores[i];
+                if (maxScore[i] > 0 && score >= maxScore[i]) {
+                    fullCredit[i]++;
+                }
+                scoreSum[i] += score;
+                scoreSquareSum[i] += (double) score * score;
+                scoreTotalProductSum[i] += (double) score * total;
+                sheetScores[i] = 0;
+            }
+            return total;
+        }
+
+        /**
+         * Pearson correlation between the item score and the total score, computed from the
+         * streamed sums. Returns 0 when either variance is zero.
+         */
+        private double itemTotalCorrelation(int i, ScoreStatistics scores) {
+            long n = scores.count;
+            if (n < 2) {
+                return 0;
+            }
+            double itemVariance = n * scoreSquareSum[i] - scoreSum[i] * scoreSum[i];
+            double totalVariance = n * scores.squareSum - scores.sum * scores.sum;
+            if (itemVariance <= 0 || totalVariance <= 0) {
+                return 0;
+            }
+            double covariance = n * scoreTotalProductSum[i] - scoreSum[i] * scores.sum;
+            return covariance / Math.sqrt(itemVariance * totalVariance);
+        }
+    }
+
+    /**
+     * Streaming total-score statistics. Scores are integers bounded by the quiz maximum, so an
+     * exact histogram gives the median and distribution without keeping individual scores.
+     */
+    private static final class ScoreStatistics {
+        private final int maxPossible;
+        private long[] histogram;
+        private long count;
+        private double sum;
+        private double squareSum;
+        private int min = Integer.MAX_VALUE;
+        private int max = Integer.MIN_VALUE;
+
+        private ScoreStatistics(int maxPossible) {
+            this.maxPossible = maxPossible;
+            this.histogram = new long[Math.max(1, maxPossible + 1)];
+        }
+
+        private void add(int score) {
+            int bucket = Math.max(0, score);
+            if (bucket >= histogram.length) {
+                histogram = Arrays.copyOf(histogram, bucket + 1);
+            }
+            histogram[bucket]++;
+            count++;
+            sum += score;
+            squareSum += (double) score * score;
+            min = Math.min(min, score);
+            max = Math.max(max, score);
+        }
+
+        private double mean() {
+            return count == 0 ? 0 : sum / count;
+        }
+
+        private double standardDeviation() {
+            if (count == 0) {
+                return 0;
+            }
+            double mean = mean();
+            return Math.sqrt(Math.max(0, squareSum / count - mean * mean));
+        }
+
+        private double median() {
+            if (count == 0) {
+                return 0;
+            }
+            return (valueAtRank((count - 1) / 2) + valueAtRank(count / 2)) / 2.0;
+        }
+
+        private int valueAtRank(long rank) {
+            long seen = 0;
+            for (int score = 0; score < histogram.length; score++) {
+                seen += histogram[score];
+                if (seen > rank) {
+                    return score;
+                }
+            }
+            return histogram.length - 1;
+        }
+
+        private long[] distribution() {
+            long[] bands = new long[DISTRIBUTION_BANDS];
+            for (int score = 0; score < histogram.length; score++) {
+                if (histogram[score] == 0) {
+                    continue;
+                }
+                int band = maxPossible == 0 ? 0 : (int) ((long) score * DISTRIBUTION_BANDS / maxPossible);
+                bands[Math.min(band, DISTRIBUTION_BANDS - 1)] += histogram[score];
+            }
+            return bands;
+        }
+    }
+}
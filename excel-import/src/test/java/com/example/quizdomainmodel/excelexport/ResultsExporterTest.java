@@ -0,0 +1,133 @@
+package com.example.quizdomainmodel.excelexport;
+
+import com.example.quizdomainmodel.domain.model.AnswerSheet;
+import com.example.quizdomainmodel.domain.model.Choice;
+import com.example.quizdomainmodel.domain.model.Question;
+import com.example.quizdomainmodel.domain.model.QuestionType;
+import com.example.quizdomainmodel.domain.model.Quiz;
+import com.example.quizdomainmodel.domain.model.UserAnswer;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ResultsExporterTest {
+
+    private static final int CANDIDATES = 3_000;
+
+    @Test
+    void shouldStreamScoresSummaryAndItemAnalysis() throws IOException {
+        // 验证流式导出生成三个工作表，且每个考生一行、分数与领域评分一致
+        Quiz quiz = createQuiz();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long exported = ResultsExporter.exportResults(out, quiz, new SheetIterator(quiz.getId(), CANDIDATES), 50);
+
+        assertThat(exported).isEqualTo(CANDIDATES);
+        try (Workbook workbook = new XSSFWorkbook(new ByteArrayInputStream(out.toByteArray()))) {
+            assertThat(workbook.getNumberOfSheets()).isEqualTo(3);
+            assertThat(workbook.getSheetName(0)).isEqualTo(ResultsExporter.SUMMARY_SHEET);
+
+            Sheet scores = workbook.getSheet(ResultsExporter.SCORES_SHEET);
+            assertThat(scores.getLastRowNum()).isEqualTo(CANDIDATES);
+            double scoreSum = 0;
+            for (int i = 1; i <= CANDIDATES; i++) {
+                Row row = scores.getRow(i);
+                AnswerSheet expected = createSheet(quiz.getId(), i - 1);
+                assertThat(row.getCell(0).getStringCellValue()).isEqualTo(expected.getId());
+                assertThat(row.getCell(3).getNumericCellValue())
+                        .isEqualTo(expected.calculateTotalScore(quiz.getQuestions()));
+                assertThat(row.getCell(4).getNumericCellValue()).isEqualTo(30);
+                scoreSum += row.getCell(3).getNumericCellValue();
+            }
+
+            Sheet summary = workbook.getSheet(ResultsExporter.SUMMARY_SHEET);
+            assertThat(summary.getRow(2).getCell(1).getNumericCellValue()).isEqualTo(CANDIDATES);
+            assertThat(summary.getRow(4).getCell(1).getNumericCellValue()).isEqualTo(scoreSum / CANDIDATES);
+
+            Sheet items = workbook.getSheet(ResultsExporter.ITEM_ANALYSIS_SHEET);
+            assertThat(items.getLastRowNum()).isEqualTo(3);
+            // Question 0 is answered correctly by every other candidate
+            Row first = items.getRow(1);
+            assertThat(first.getCell(0).getStringCellValue()).isEqualTo("q0");
+            assertThat(first.getCell(4).getNumericCellValue()).isEqualTo(CANDIDATES);
+            assertThat(first.getCell(6).getNumericCellValue()).isEqualTo(CANDIDATES / 2);
+            assertThat(first.getCell(8).getNumericCellValue()).isEqualTo(0.5);
+        }
+    }
+
+    @Test
+    void shouldExportHeadersForEmptyResults() throws IOException {
+        // 没有答卷时仍应生成带表头的工作簿
+        Quiz quiz = createQuiz();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long exported = ResultsExporter.exportResults(out, quiz, Collections.<AnswerSheet>emptyIterator(), 10);
+
+        assertThat(exported).isZero();
+        try (Workbook workbook = new XSSFWorkbook(new ByteArrayInputStream(out.toByteArray()))) {
+            assertThat(workbook.getSheet(ResultsExporter.SCORES_SHEET).getLastRowNum()).isZero();
+            assertThat(workbook.getSheet(ResultsExporter.ITEM_ANALYSIS_SHEET).getLastRowNum()).isEqualTo(3);
+        }
+    }
+
+    private static Quiz createQuiz() {
+        List<Question> questions = new ArrayList<>();
+        for (int q = 0; q < 3; q++) {
+            questions.add(new Question("q" + q, "Question " + q, QuestionType.SINGLE_CHOICE,
+                    Arrays.asList(new Choice("q" + q + "-a", "A"), new Choice("q" + q + "-b", "B")),
+                    Collections.singletonList("q" + q + "-a"), 10));
+        }
+        return new Quiz("Export quiz", "Streaming export", questions);
+    }
+
+    private static AnswerSheet createSheet(String quizId, int candidate) {
+        List<UserAnswer> answers = new ArrayList<>();
+        for (int q = 0; q < 3; q++) {
+            boolean correct = (candidate + q) % 2 == 0;
+            answers.add(UserAnswer.createChoiceAnswer("q" + q,
+                    Collections.singletonList("q" + q + (correct ? "-a" : "-b"))));
+        }
+        return new AnswerSheet("sheet-" + candidate, quizId, "user-" + candidate, 1_700_000_000_000L + candidate, answers);
+    }
+
+    /**
+     * Produces sheets on demand, like a database cursor would.
+     */
+    private static final class SheetIterator implements Iterator<AnswerSheet> {
+        private final String quizId;
+        private final int count;
+        private int next;
+
+        private SheetIterator(String quizId, int count) {
+            this.quizId = quizId;
+            this.count = count;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next < count;
+        }
+
+        @Override
+        public AnswerSheet next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return createSheet(quizId, next++);
+        }
+    }
+}
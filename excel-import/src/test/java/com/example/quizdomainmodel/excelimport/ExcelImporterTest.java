@@ -1,5 +1,7 @@
 package com.example.quizdomainmodel.excelimport;
 
+import com.example.quizdomainmodel.domain.intern.DomainInterner;
+import com.example.quizdomainmodel.domain.model.AnswerKey;
 import com.example.quizdomainmodel.domain.model.Question;
 import com.example.quizdomainmodel.domain.model.QuestionType;
 import org.junit.jupiter.api.BeforeAll;
@@ -136,6 +138,37 @@ class ExcelImporterTest {
         assertThat(q5.getChoices()).isNotNull().isEmpty();
     }
 
+    @Test
+    void shouldResolveTypedAnswerKeysAtImport() {
+        // 导入时应把答案文本解析为类型化答案键：选择题为选项位掩码，判断题为布尔值，填空题为规范化文本
+        Question q2 = importedQuestions.stream().filter(q -> "q2".equals(q.getId())).findFirst().get();
+        assertThat(q2.getAnswerKey().getKind()).isEqualTo(AnswerKey.Kind.CHOICES);
+        assertThat(q2.getAnswerKey().getCorrectMask()).isEqualTo(0b1011L); // Red, Blue, Yellow
+
+        Question q3 = importedQuestions.stream().filter(q -> "q3".equals(q.getId())).findFirst().get();
+        assertThat(q3.getAnswerKey().getKind()).isEqualTo(AnswerKey.Kind.TRUE_FALSE);
+        assertThat(q3.getAnswerKey().isTruth()).isTrue();
+
+        Question q4 = importedQuestions.stream().filter(q -> "q4".equals(q.getId())).findFirst().get();
+        assertThat(q4.getAnswerKey().getKind()).isEqualTo(AnswerKey.Kind.TEXT);
+        assertThat(q4.getAnswerKey().getAcceptedTexts()).containsExactly("very");
+    }
+
+    @Test
+    void shouldShareIdenticalChoicesAcrossImports() throws IOException {
+        // 相同文本的选项应共享同一个不可变实例，重复导入也不会产生新的选项对象
+        Optional<Question> questionOpt = importedQuestions.stream().filter(q -> "q3".equals(q.getId())).findFirst();
+        assertThat(questionOpt).isPresent();
+        Question q3 = questionOpt.get();
+
+        assertThat(q3.getChoices().get(0)).isSameAs(DomainInterner.choice("True"));
+        assertThat(q3.getChoices().get(1)).isSameAs(DomainInterner.choice("False"));
+
+        List<Question> reimported = ExcelImporter.importQuestionsFromExcel(resourcePath.toString());
+        Question again = reimported.stream().filter(q -> "q3".equals(q.getId())).findFirst().get();
+        assertThat(again.getChoices().get(0)).isSameAs(q3.getChoices().get(0));
+    }
+
     // ... 原有测试 ...
 
     @Test
@@ -0,0 +1,429 @@
+package com.example.quizdomainmodel.workload;
+
+import com.example.quizdomainmodel.domain.intern.DomainInterner;
+import com.example.quizdomainmodel.domain.model.AnswerSheet;
+import com.example.quizdomainmodel.domain.model.Choice;
+import com.example.quizdomainmodel.domain.model.ItemParameters;
+import com.example.quizdomainmodel.domain.model.MaterialQuestion;
+import com.example.quizdomainmodel.domain.model.Question;
+import com.example.quizdomainmodel.domain.model.QuestionType;
+import com.example.quizdomainmodel.domain.model.Quiz;
+import com.example.quizdomainmodel.domain.model.UserAnswer;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+/**
+ * Generates a synthetic {@link Quiz} and a matching population of {@link AnswerSheet}s from a
+ * {@link WorkloadSpec}.
+ * <p>
+ * Every question and every sheet is derived from its own random stream, seeded from the spec seed
+ * and its index, so generation is embarrassingly parallel and yet fully reproducible: sheet
+ * {@code i} is the same whichever thread builds it, in whatever order. Sheets are not stored;
+ * {@link #answerSheets()} builds them on demand, so millions can be streamed through grading or
+ * ingestion with a small heap, and {@link #sheet(long)} plugs directly into
+ * {@link com.example.quizdomainmodel.domain.ingest.SubmissionLoadGenerator}.
+ * <p>
+ * Choices are the shared instances from {@link DomainInterner#choice(String)}, exactly as the
+ * Excel importer creates them. Answers to questions outside material questions therefore also
+ * grade correctly against a bank that was written with {@link WorkloadWriter} and imported again.
+ * Answers to material questions do not: the importer flattens a {@code READING} row and its
+ * sub-questions into separate top-level questions, so their nested answers find no material
+ * question to score against.
+ */
+public final class WorkloadGenerator {
+
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+    private static final long QUESTION_STREAM = 1;
+    private static final long SHEET_STREAM = 2;
+    // Scale that makes the logistic curve approximate the normal ogive
+    private static final double LOGISTIC_SCALE = ItemParameters.SCALING;
+    private static final int FILL_IN_DISTRACTORS = 6;
+    private static final String MATERIAL_ANSWER = "*N/A*";
+    private static final String[] SYLLABLES = {
+            "ba", "ko", "ri", "ta", "mu", "se", "lo", "ni", "pa", "de", "gu", "fi",
+            "ve", "zo", "ha", "ju", "ne", "sa", "ti", "mo", "ra", "ke", "lu", "wi"
+    };
+
+    private final WorkloadSpec spec;
+    private final String[] vocabulary;
+    // Cumulative distractor probabilities, indexed by the number of distractors
+    private final double[][] distractorCdf;
+    private final Item[] items;
+    private final Quiz quiz;
+
+    /**
+     * Builds the quiz of the workload. Questions are generated in parallel.
+     *
+     * @param spec The workload parameters. Cannot be null.
+     * @throws IllegalArgumentException if the spec is invalid.
+     */
+    public WorkloadGenerator(WorkloadSpec spec) {
+        if (spec == null) {
+            throw new IllegalArgumentException("Workload spec cannot be null.");
+        }
+        spec.validate();
+        this.spec = spec;
+        this.vocabulary = buildVocabulary(spec.getVocabularySize());
+        this.distractorCdf = buildDistractorCdf(Math.max(spec.getChoicesPerQuestion(), FILL_IN_DISTRACTORS), spec.getDistractorSkew());
+        this.items = IntStream.range(0, spec.getQuestionCount()).parallel()
+                .mapToObj(this::buildItem)
+                .toArray(Item[]::new);
+
+        List<Question> questions = new ArrayList<>(items.length);
+        for (Item item : items) {
+            questions.add(item.question);
+        }
+        this.quiz = new Quiz(spec.getQuizTitle(), "Synthetic workload, seed " + spec.getSeed(), questions);
+        // Same seed, same quiz ID, so sheets generated in separate runs still belong together
+        quiz.setId(UUID.nameUUIDFromBytes(("workload:" + spec.getSeed()).getBytes(StandardCharsets.UTF_8)).toString());
+    }
+
+    public WorkloadSpec getSpec() {
+        return spec;
+    }
+
+    public Quiz getQuiz() {
+        return quiz;
+    }
+
+    /**
+     * Streams all answer sheets of the workload. The stream is parallel and ordered by sheet
+     * index; call {@code sequential()} or {@code forEachOrdered} where order matters.
+     */
+    public Stream<AnswerSheet> answerSheets() {
+        return LongStream.range(0, spec.getSheetCount()).parallel().mapToObj(this::sheet);
+    }
+
+    /**
+     * Builds one answer sheet. Thread-safe; the result depends only on the spec and the index.
+     *
+     * @param index The sheet index, from 0 (inclusive) to the sheet count (exclusive).
+     * @return The sheet of candidate {@code user-<index>}.
+     */
+    public AnswerSheet sheet(long index) {
+        if (index < 0 || index >= spec.getSheetCount()) {
+            throw new IllegalArgumentException("Sheet index out of range: " + index);
+        }
+        SplittableRandom random = random(SHEET_STREAM, index);
+        double ability = spec.getAbilityMean() + random.nextGaussian() * spec.getAbilityStdDev();
+        long submissionTime = spec.getStartTime()
+                + (long) (spec.getSubmissionWindowMillis() * Math.pow(random.nextDouble(), 1.0 / spec.getDeadlineSkew()));
+
+        List<UserAnswer> answers = new ArrayList<>(items.length);
+        for (Item item : items) {
+            UserAnswer answer = answer(item, ability, random);
+            if (answer != null) {
+                answers.add(answer);
+            }
+        }
+        return new AnswerSheet("sheet-" + index, quiz.getId(), "user-" + index, submissionTime, answers);
+    }
+
+    private UserAnswer answer(Item item, double ability, SplittableRandom random) {
+        if (random.nextDouble() < spec.getSkipRate()) {
+            return null;
+        }
+        String questionId = item.question.getId();
+        if (item.subItems != null) {
+            List<UserAnswer> subAnswers = new ArrayList<>(item.subItems.length);
+            for (Item subItem : item.subItems) {
+                UserAnswer subAnswer = answer(subItem, ability, random);
+                if (subAnswer != null) {
+                    subAnswers.add(subAnswer);
+                }
+            }
+            return subAnswers.isEmpty() ? null : UserAnswer.createMaterialAnswer(questionId, subAnswers);
+        }
+
+        boolean correct = random.nextDouble() < 1.0 / (1.0 + Math.exp(-LOGISTIC_SCALE * (ability - item.difficulty)));
+        if (item.question.getType() == QuestionType.FILL_IN_BLANK) {
+            String text = correct ? item.answerText : item.wrongTexts[distractor(random, item.wrongTexts.length)];
+            return new UserAnswer(questionId, text);
+        }
+        List<Choice> choices = item.question.getChoices();
+        if (item.question.getType() != QuestionType.MULTIPLE_CHOICE) {
+            int ordinal = correct ? item.correctOrdinals[0] : item.distractorOrdinals[distractor(random, item.distractorOrdinals.length)];
+            return UserAnswer.createChoiceAnswer(questionId, Collections.singletonList(choices.get(ordinal).getId()));
+        }
+
+        List<String> selected = new ArrayList<>(item.correctOrdinals.length + 1);
+        // Partial knowledge: a wrong answer keeps most correct choices, adds a distractor and may miss one
+        int missed = !correct && item.correctOrdinals.length > 1 && random.nextBoolean()
+                ? random.nextInt(item.correctOrdinals.length) : -1;
+        for (int i = 0; i < item.correctOrdinals.length; i++) {
+            if (i != missed) {
+                selected.add(choices.get(item.correctOrdinals[i]).getId());
+            }
+        }
+        if (!correct) {
+            selected.add(choices.get(item.distractorOrdinals[distractor(random, item.distractorOrdinals.length)]).getId());
+        }
+        return UserAnswer.createChoiceAnswer(questionId, selected);
+    }
+
+    private int distractor(SplittableRandom random, int count) {
+        double[] cdf = distractorCdf[count];
+        double u = random.nextDouble();
+        int i = 0;
+        while (i < count - 1 && u >= cdf[i]) {
+            i++;
+        }
+        return i;
+    }
+
+    private Item buildItem(int index) {
+        SplittableRandom random = random(QUESTION_STREAM, index);
+        String id = "q" + (index + 1);
+        QuestionType type = drawType(random, true);
+        if (type != QuestionType.READING) {
+            return buildLeaf(random, id, type);
+        }
+
+        int subCount = spec.getMinSubQuestions() + random.nextInt(spec.getMaxSubQuestions() - spec.getMinSubQuestions() + 1);
+        Item[] subItems = new Item[subCount];
+        List<Question> subQuestions = new ArrayList<>(subCount);
+        for (int k = 0; k < subCount; k++) {
+            // Same "<parent>-<n>" IDs the importer tests use for flattened sub-question rows
+            subItems[k] = buildLeaf(random, id + "-" + (k + 1), drawType(random, false));
+            subQuestions.add(subItems[k].question);
+        }
+        MaterialQuestion material = new MaterialQuestion(id, sentence(random, 60, 120) + ".",
+                Collections.emptyList(), MATERIAL_ANSWER, 0, subQuestions);
+        return new Item(material, 0, null, null, null, null, subItems);
+    }
+
+    private Item buildLeaf(SplittableRandom random, String id, QuestionType type) {
+        int points = 1 + random.nextInt(spec.getMaxPoints());
+        double difficulty = random.nextGaussian() * spec.getDifficultyStdDev();
+        String stem = sentence(random, 8, 20) + "?";
+
+        if (type == QuestionType.FILL_IN_BLANK) {
+            int[] words = distinctWords(random, 1 + FILL_IN_DISTRACTORS);
+            String[] wrongTexts = new String[FILL_IN_DISTRACTORS];
+            for (int i = 0; i < wrongTexts.length; i++) {
+                wrongTexts[i] = vocabulary[words[i + 1]];
+            }
+            String answerText = vocabulary[words[0]];
+            Question question = new Question(id, stem, type, Collections.emptyList(), answerText, points);
+            question.setItemParameters(ItemParameters.of(1.0, difficulty));
+            return new Item(question, difficulty, null, null, answerText, wrongTexts, null);
+        }
+
+        List<Choice> choices = new ArrayList<>();
+        int[] correctOrdinals;
+        int[] distractorOrdinals;
+        if (type == QuestionType.TRUE_FALSE) {
+            choices.add(DomainInterner.choice("True"));
+            choices.add(DomainInterner.choice("False"));
+            int correct = random.nextBoolean() ? 0 : 1;
+            correctOrdinals = new int[]{correct};
+            distractorOrdinals = new int[]{1 - correct};
+        } else {
+            int choiceCount = spec.getChoicesPerQuestion();
+            for (int word : distinctWords(random, choiceCount)) {
+                choices.add(DomainInterner.choice(vocabulary[word]));
+            }
+            // A random permutation: the head is correct, the tail ordered from most to least attractive
+            int[] permutation = permutation(random, choiceCount);
+            int correctCount = type == QuestionType.MULTIPLE_CHOICE ? 1 + random.nextInt(choiceCount - 1) : 1;
+            correctOrdinals = Arrays.copyOf(permutation, correctCount);
+            Arrays.sort(correctOrdinals);
+            distractorOrdinals = Arrays.copyOfRange(permutation, correctCount, choiceCount);
+        }
+
+        StringBuilder correctAnswer = new StringBuilder();
+        for (int ordinal : correctOrdinals) {
+            if (correctAnswer.length() > 0) {
+                correctAnswer.append(';');
+            }
+            correctAnswer.append(choices.get(ordinal).getText());
+        }
+        // Stored as text, the way the importer stores it, and resolved into a typed key
+        Question question = new Question(id, stem, type, choices, correctAnswer.toString(), points);
+        // The true calibration of the simulated population, for adaptive testing runs
+        question.setItemParameters(ItemParameters.of(1.0, difficulty));
+        return new Item(question, difficulty, correctOrdinals, distractorOrdinals, null, null, null);
+    }
+
+    private QuestionType drawType(SplittableRandom random, boolean allowReading) {
+        // Walk the enum rather than the map, so the draw never depends on map iteration order
+        int total = 0;
+        for (QuestionType type : QuestionType.values()) {
+            total += weight(type, allowReading);
+        }
+        int draw = random.nextInt(total);
+        for (QuestionType type : QuestionType.values()) {
+            draw -= weight(type, allowReading);
+            if (draw < 0) {
+                return type;
+            }
+        }
+        throw new IllegalStateException("Type weights changed during generation.");
+    }
+
+    private int weight(QuestionType type, boolean allowReading) {
+        Integer weight = spec.getTypeWeights().get(type);
+        return weight == null || (!allowReading && type == QuestionType.READING) ? 0 : weight;
+    }
+
+    private String sentence(SplittableRandom random, int minWords, int maxWords) {
+        int words = minWords + random.nextInt(maxWords - minWords + 1);
+        StringBuilder sb = new StringBuilder(words * 7);
+        for (int i = 0; i < words; i++) {
+            String word = vocabulary[random.nextInt(vocabulary.length)];
+            if (i == 0) {
+                sb.append(Character.toUpperCase(word.charAt(0))).append(word, 1, word.length());
+            } else {
+                sb.append(' ').append(word);
+            }
+        }
+        return sb.toString();
+    }
+
+    private int[] distinctWords(SplittableRandom random, int count) {
+        int[] words = new int[count];
+        for (int i = 0; i < count; i++) {
+            int word;
+            boolean duplicate;
+            do {
+                word = random.nextInt(vocabulary.length);
+                duplicate = false;
+                for (int j = 0; j < i && !duplicate; j++) {
+                    duplicate = words[j] == word;
+                }
+            } while (duplicate);
+            words[i] = word;
+        }
+        return words;
+    }
+
+    private static int[] permutation(SplittableRandom random, int n) {
+        int[] permutation = new int[n];
+        for (int i = 0; i < n; i++) {
+            permutation[i] = i;
+        }
+        for (int i = n - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int tmp = permutation[i];
+            permutation[i] = permutation[j];
+            permutation[j] = tmp;
+        }
+        return permutation;
+    }
+
+    private SplittableRandom random(long stream, long index) {
+        return new SplittableRandom(mix64(mix64(spec.getSeed() + stream * GOLDEN_GAMMA) + index * GOLDEN_GAMMA));
+    }
+
+    private static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private static String[] buildVocabulary(int size) {
+        String[] vocabulary = new String[size];
+        for (int i = 0; i < size; i++) {
+            // Base-24 digits of (i + 24) as syllables: distinct, pronounceable, at least two syllables
+            StringBuilder word = new StringBuilder();
+            for (int n = i + SYLLABLES.length; n > 0; n /= SYLLABLES.length) {
+                word.append(SYLLABLES[n % SYLLABLES.length]);
+            }
+            vocabulary[i] = word.toString();
+        }
+        return vocabulary;
+    }
+
+    private static double[][] buildDistractorCdf(int maxCount, double skew) {
+        double[][] cdf = new double[maxCount + 1][];
+        for (int count = 1; count <= maxCount; count++) {
+            double[] weights = new double[count];
+            double total = 0;
+            for (int rank = 0; rank < count; rank++) {
+                weights[rank] = Math.pow(rank + 1, -skew);
+                total += weights[rank];
+            }
+            double cumulative = 0;
+            for (int rank = 0; rank < count; rank++) {
+                cumulative += weights[rank] / total;
+                weights[rank] = cumulative;
+            }
+            cdf[count] = weights;
+        }
+        return cdf;
+    }
+
+    /**
+     * A generated question with what the generator needs to answer it: its difficulty, the
+     * ordinals of its correct choices and of its distractors (most attractive first), or its
+     * accepted and wrong texts.
+     */
+    private static final class Item {
+        final Question question;
+        final double difficulty;
+        final int[] correctOrdinals;
+        final int[] distractorOrdinals;
+        final String answerText;
+        final String[] wrongTexts;
+        final Item[] subItems;
+
+        Item(Question question, double difficulty, int[] correctOrdinals, int[] distractorOrdinals,
+             String answerText, String[] wrongTexts, Item[] subItems) {
+            this.question = question;
+            this.difficulty = difficulty;
+            this.correctOrdinals = correctOrdinals;
+            this.distractorOrdinals = distractorOrdinals;
+            this.answerText = answerText;
+            this.wrongTexts = wrongTexts;
+            this.subItems = subItems;
+        }
+    }
+
+    // Standalone execution: writes a bank for the importer and the matching answers
+    public static void main(String[] args) {
+        if (args.length < 1 || args.length > 4) {
+            System.err.println("Usage: WorkloadGenerator <output-dir> [question-count] [sheet-count] [seed]");
+            System.exit(1);
+        }
+
+        try {
+            WorkloadSpec.WorkloadSpecBuilder builder = WorkloadSpec.builder();
+            if (args.length > 1) {
+                builder.questionCount(Integer.parseInt(args[1]));
+            }
+            if (args.length > 2) {
+                builder.sheetCount(Long.parseLong(args[2]));
+            }
+            if (args.length > 3) {
+                builder.seed(Long.parseLong(args[3]));
+            }
+            WorkloadGenerator generator = new WorkloadGenerator(builder.build());
+            File outputDir = new File(args[0]);
+            if (!outputDir.isDirectory() && !outputDir.mkdirs()) {
+                throw new IOException("Cannot create output directory " + outputDir);
+            }
+
+            long start = System.nanoTime();
+            WorkloadWriter.writeQuestionsToExcel(new File(outputDir, "questions.xlsx").getPath(), generator.getQuiz());
+            WorkloadWriter.writeQuestionsToCsv(new File(outputDir, "questions.csv").getPath(), generator.getQuiz());
+            long rows = WorkloadWriter.writeAnswerSheetsToCsv(new File(outputDir, "answers.csv").getPath(), generator);
+            System.out.printf("Wrote %d questions and %d sheets (%d answer rows) to %s in %d ms%n",
+                    generator.getQuiz().getQuestions().size(), generator.getSpec().getSheetCount(), rows,
+                    outputDir, (System.nanoTime() - start) / 1_000_000);
+        } catch (Exception e) {
+            System.err.println("Error generating workload: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+}
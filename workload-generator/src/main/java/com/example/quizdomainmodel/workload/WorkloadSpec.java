@@ -0,0 +1,132 @@
+package com.example.quizdomainmodel.workload;
+
+import com.example.quizdomainmodel.domain.model.QuestionType;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Parameters of a synthetic workload: the shape of the generated quiz and the population of
+ * candidates answering it. Everything is derived from {@link #getSeed()}, so a spec always
+ * produces the same quiz and the same answer sheets.
+ * <p>
+ * Correctness follows a logistic (Rasch-style) model: candidate {@code i} has an ability drawn
+ * from {@code N(abilityMean, abilityStdDev)}, each question a difficulty drawn from
+ * {@code N(0, difficultyStdDev)}, and the candidate answers correctly with probability
+ * {@code 1 / (1 + exp(-1.7 * (ability - difficulty)))}. Wrong answers favor some distractors over
+ * others according to {@link #getDistractorSkew()}, as real cohorts do. Generated questions carry
+ * their difficulty as {@link com.example.quizdomainmodel.domain.model.ItemParameters}, so the
+ * same workload can drive adaptive exams.
+ */
+@Getter
+@ToString
+@Builder(toBuilder = true)
+public final class WorkloadSpec {
+
+    /** Seed for every random decision of the workload. */
+    @Builder.Default private final long seed = 42L;
+
+    @Builder.Default private final String quizTitle = "Synthetic quiz";
+    /** Number of top-level questions. */
+    @Builder.Default private final int questionCount = 50;
+    /**
+     * Relative weights of the top-level question types. {@link QuestionType#READING} produces a
+     * {@link com.example.quizdomainmodel.domain.model.MaterialQuestion}; sub-question types are
+     * drawn from the remaining weights. {@link QuestionType#MATERIAL} is not generated.
+     */
+    @Builder.Default private final Map<QuestionType, Integer> typeWeights = defaultTypeWeights();
+    @Builder.Default private final int minSubQuestions = 2;
+    @Builder.Default private final int maxSubQuestions = 5;
+    /** Choices per single/multiple choice question; at most 63, the answer key limit. */
+    @Builder.Default private final int choicesPerQuestion = 4;
+    /** Number of distinct words stems and choice texts are built from. */
+    @Builder.Default private final int vocabularySize = 2_000;
+    @Builder.Default private final int maxPoints = 5;
+    @Builder.Default private final double difficultyStdDev = 1.0;
+
+    /** Number of answer sheets, one candidate each. */
+    @Builder.Default private final long sheetCount = 10_000L;
+    @Builder.Default private final double abilityMean = 0.0;
+    @Builder.Default private final double abilityStdDev = 1.0;
+    /**
+     * Zipf exponent for choosing among distractors: 0 picks wrong answers uniformly, larger values
+     * concentrate wrong answers on the most attractive distractor.
+     */
+    @Builder.Default private final double distractorSkew = 1.0;
+    /** Probability that a candidate leaves a question unanswered. */
+    @Builder.Default private final double skipRate = 0.02;
+
+    @Builder.Default private final long startTime = 1_700_000_000_000L;
+    @Builder.Default private final long submissionWindowMillis = 3_600_000L;
+    /**
+     * Shape of the submission times within the window: 1 spreads them evenly, larger values pile
+     * them up just before the deadline.
+     */
+    @Builder.Default private final double deadlineSkew = 3.0;
+
+    /**
+     * Checks that the parameters describe a workload that can be generated.
+     *
+     * @throws IllegalArgumentException if a parameter is out of range.
+     */
+    public void validate() {
+        if (questionCount < 0) {
+            throw new IllegalArgumentException("Question count cannot be negative.");
+        }
+        if (sheetCount < 0) {
+            throw new IllegalArgumentException("Sheet count cannot be negative.");
+        }
+        if (typeWeights == null || typeWeights.isEmpty()) {
+            throw new IllegalArgumentException("At least one question type weight is required.");
+        }
+        int leafWeight = 0;
+        for (Map.Entry<QuestionType, Integer> weight : typeWeights.entrySet()) {
+            if (weight.getKey() == QuestionType.MATERIAL) {
+                throw new IllegalArgumentException("MATERIAL questions are not generated; use READING.");
+            }
+            if (weight.getValue() == null || weight.getValue() < 0) {
+                throw new IllegalArgumentException("Type weights cannot be negative.");
+            }
+            if (weight.getKey() != QuestionType.READING) {
+                leafWeight += weight.getValue();
+            }
+        }
+        if (leafWeight == 0) {
+            throw new IllegalArgumentException("At least one non-READING type needs a positive weight.");
+        }
+        if (minSubQuestions < 1 || maxSubQuestions < minSubQuestions) {
+            throw new IllegalArgumentException("Sub-question range must satisfy 1 <= min <= max.");
+        }
+        if (choicesPerQuestion < 2 || choicesPerQuestion > 63) {
+            throw new IllegalArgumentException("Choices per question must be between 2 and 63.");
+        }
+        if (vocabularySize < choicesPerQuestion + 8) {
+            throw new IllegalArgumentException("Vocabulary is too small for the number of choices.");
+        }
+        if (maxPoints < 1) {
+            throw new IllegalArgumentException("Max points must be >= 1.");
+        }
+        if (difficultyStdDev < 0 || abilityStdDev < 0 || distractorSkew < 0) {
+            throw new IllegalArgumentException("Standard deviations and skew cannot be negative.");
+        }
+        if (skipRate < 0 || skipRate >= 1) {
+            throw new IllegalArgumentException("Skip rate must be in [0, 1).");
+        }
+        if (submissionWindowMillis < 0 || deadlineSkew <= 0) {
+            throw new IllegalArgumentException("Submission window cannot be negative and deadline skew must be > 0.");
+        }
+    }
+
+    private static Map<QuestionType, Integer> defaultTypeWeights() {
+        Map<QuestionType, Integer> weights = new EnumMap<>(QuestionType.class);
+        weights.put(QuestionType.SINGLE_CHOICE, 40);
+        weights.put(QuestionType.MULTIPLE_CHOICE, 20);
+        weights.put(QuestionType.TRUE_FALSE, 15);
+        weights.put(QuestionType.FILL_IN_BLANK, 15);
+        weights.put(QuestionType.READING, 10);
+        return weights;
+    }
+}
@@ -0,0 +1,262 @@
+package com.example.quizdomainmodel.workload;
+
+import com.example.quizdomainmodel.domain.model.AnswerSheet;
+import com.example.quizdomainmodel.domain.model.Choice;
+import com.example.quizdomainmodel.domain.model.MaterialQuestion;
+import com.example.quizdomainmodel.domain.model.Question;
+import com.example.quizdomainmodel.domain.model.Quiz;
+import com.example.quizdomainmodel.domain.model.UserAnswer;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+
+import java.io.BufferedWriter;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.LongStream;
+
+/**
+ * Writes generated workloads in the formats the rest of the tooling reads.
+ * <p>
+ * Question banks are written in the Excel importer's column layout (ID, stem, type,
+ * {@code ;}-separated choices, correct answer, points), as XLSX through the streaming
+ * {@link SXSSFWorkbook} or as CSV. The importer has no notion of nesting, so a material question is
+ * written as a {@code READING} row followed by one row per sub-question.
+ * <p>
+ * Answer sheets are written as CSV, one row per answered leaf question; answers to sub-questions
+ * carry the ID of their material question in {@code parent_question_id}.
+ */
+public class WorkloadWriter {
+
+    public static final String[] QUESTION_HEADERS = {"ID", "Stem", "Type", "Choices", "Correct Answer", "Points"};
+    public static final String[] ANSWER_HEADERS = {
+            "sheet_id", "quiz_id", "user_id", "submission_time", "question_id", "parent_question_id",
+            "selected_choice_ids", "filled_text"
+    };
+
+    private static final int ROW_WINDOW = 100;
+    // Sheets formatted in parallel per chunk, then written in order
+    private static final int CSV_CHUNK_SIZE = 8_192;
+
+    public static void writeQuestionsToExcel(String filePath, Quiz quiz) throws IOException {
+        try (FileOutputStream fos = new FileOutputStream(filePath)) {
+            writeQuestions(fos, quiz);
+        }
+    }
+
+    /**
+     * Writes the quiz's questions as an XLSX workbook the Excel importer can read.
+     *
+     * @param out The stream the workbook is written to. Not closed by this method.
+     * @param quiz The quiz to write. Cannot be null.
+     * @return The number of question rows written.
+     */
+    public static int writeQuestions(OutputStream out, Quiz quiz) throws IOException {
+        if (quiz == null) {
+            throw new IllegalArgumentException("Quiz cannot be null.");
+        }
+        SXSSFWorkbook workbook = new SXSSFWorkbook(ROW_WINDOW);
+        workbook.setCompressTempFiles(true);
+        try {
+            Sheet sheet = workbook.createSheet("Questions");
+            Row header = sheet.createRow(0);
+            for (int i = 0; i < QUESTION_HEADERS.length; i++) {
+                header.createCell(i).setCellValue(QUESTION_HEADERS[i]);
+            }
+            int rowNum = 1;
+            for (Question question : flatten(quiz)) {
+                String[] cells = questionCells(question);
+                Row row = sheet.createRow(rowNum++);
+                for (int i = 0; i < cells.length; i++) {
+                    row.createCell(i).setCellValue(cells[i]);
+                }
+                // The importer reads points from a numeric cell
+                row.createCell(cells.length).setCellValue(question.getPoints());
+            }
+            workbook.write(out);
+            return rowNum - 1;
+        } finally {
+            // Delete the temp files backing the flushed rows
+            workbook.dispose();
+            workbook.close();
+        }
+    }
+
+    public static void writeQuestionsToCsv(String filePath, Quiz quiz) throws IOException {
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(filePath), StandardCharsets.UTF_8))) {
+            writeQuestionsCsv(writer, quiz);
+        }
+    }
+
+    /**
+     * Writes the quiz's questions as CSV in the importer's column layout.
+     *
+     * @return The number of question rows written.
+     */
+    public static int writeQuestionsCsv(Writer writer, Quiz quiz) throws IOException {
+        if (quiz == null) {
+            throw new IllegalArgumentException("Quiz cannot be null.");
+        }
+        writeCsvRow(writer, QUESTION_HEADERS);
+        int rows = 0;
+        for (Question question : flatten(quiz)) {
+            String[] cells = questionCells(question);
+            String[] row = new String[cells.length + 1];
+            System.arraycopy(cells, 0, row, 0, cells.length);
+            row[cells.length] = String.valueOf(question.getPoints());
+            writeCsvRow(writer, row);
+            rows++;
+        }
+        return rows;
+    }
+
+    public static long writeAnswerSheetsToCsv(String filePath, WorkloadGenerator generator) throws IOException {
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(filePath), StandardCharsets.UTF_8), 1 << 16)) {
+            return writeAnswerSheetsCsv(writer, generator);
+        }
+    }
+
+    /**
+     * Writes every sheet of a workload as CSV. Sheets are generated and formatted in parallel,
+     * one chunk at a time, and written in sheet order, so the output is identical to a
+     * sequential run and the heap holds one chunk at most.
+     *
+     * @return The number of answer rows written.
+     */
+    public static long writeAnswerSheetsCsv(Writer writer, WorkloadGenerator generator) throws IOException {
+        if (generator == null) {
+            throw new IllegalArgumentException("Generator cannot be null.");
+        }
+        writeCsvRow(writer, ANSWER_HEADERS);
+        long sheetCount = generator.getSpec().getSheetCount();
+        long rows = 0;
+        for (long start = 0; start < sheetCount; start += CSV_CHUNK_SIZE) {
+            AnswerSheet[] chunk = LongStream.range(start, Math.min(start + CSV_CHUNK_SIZE, sheetCount)).parallel()
+                    .mapToObj(generator::sheet)
+                    .toArray(AnswerSheet[]::new);
+            String[] formatted = new String[chunk.length];
+            Arrays.parallelSetAll(formatted, i -> formatAnswerSheet(chunk[i]));
+            for (int i = 0; i < chunk.length; i++) {
+                writer.write(formatted[i]);
+                rows += answerRowCount(chunk[i]);
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Writes arbitrary answer sheets as CSV, sequentially.
+     *
+     * @return The number of answer rows written.
+     */
+    public static long writeAnswerSheetsCsv(Writer writer, Iterator<AnswerSheet> answerSheets) throws IOException {
+        if (answerSheets == null) {
+            throw new IllegalArgumentException("Answer sheets cannot be null.");
+        }
+        writeCsvRow(writer, ANSWER_HEADERS);
+        long rows = 0;
+        while (answerSheets.hasNext()) {
+            AnswerSheet sheet = answerSheets.next();
+            writer.write(formatAnswerSheet(sheet));
+            rows += answerRowCount(sheet);
+        }
+        return rows;
+    }
+
+    private static List<Question> flatten(Quiz quiz) {
+        List<Question> rows = new ArrayList<>();
+        for (Question question : quiz.getQuestions()) {
+            rows.add(question);
+            if (question instanceof MaterialQuestion) {
+                rows.addAll(((MaterialQuestion) question).getSubQuestions());
+            }
+        }
+        return rows;
+    }
+
+    private static String[] questionCells(Question question) {
+        StringBuilder choices = new StringBuilder();
+        for (Choice choice : question.getChoices()) {
+            if (choices.length() > 0) {
+                choices.append(';');
+            }
+            choices.append(choice.getText());
+        }
+        Object correctAnswer = question.getCorrectAnswer();
+        String correctAnswerText;
+        if (correctAnswer instanceof Iterable) {
+            StringBuilder joined = new StringBuilder();
+            for (Object element : (Iterable<?>) correctAnswer) {
+                if (joined.length() > 0) {
+                    joined.append(';');
+                }
+                joined.append(element);
+            }
+            correctAnswerText = joined.toString();
+        } else {
+            correctAnswerText = String.valueOf(correctAnswer);
+        }
+        return new String[]{question.getId(), question.getStem(), question.getType().name(), choices.toString(), correctAnswerText};
+    }
+
+    private static String formatAnswerSheet(AnswerSheet sheet) {
+        StringBuilder sb = new StringBuilder(sheet.getUserAnswers().size() * 64);
+        String prefix = csv(sheet.getId()) + ',' + csv(sheet.getQuizId()) + ',' + csv(sheet.getUserId()) + ','
+                + sheet.getSubmissionTime() + ',';
+        for (UserAnswer answer : sheet.getUserAnswers()) {
+            if (answer.getSubAnswers().isEmpty()) {
+                appendAnswer(sb, prefix, answer, "");
+            } else {
+                for (UserAnswer subAnswer : answer.getSubAnswers()) {
+                    appendAnswer(sb, prefix, subAnswer, answer.getQuestionId());
+                }
+            }
+        }
+        return sb.toString();
+    }
+
+    private static void appendAnswer(StringBuilder sb, String prefix, UserAnswer answer, String parentQuestionId) {
+        sb.append(prefix).append(csv(answer.getQuestionId())).append(',').append(csv(parentQuestionId)).append(',')
+                .append(csv(String.join(";", answer.getSelectedChoiceIds()))).append(',')
+                .append(csv(answer.getFilledText())).append('\n');
+    }
+
+    private static void writeCsvRow(Writer writer, String[] cells) throws IOException {
+        for (int i = 0; i < cells.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writer.write(csv(cells[i]));
+        }
+        writer.write('\n');
+    }
+
+    private static String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+                return '"' + value.replace("\"", "\"\"") + '"';
+            }
+        }
+        return value;
+    }
+
+    private static int answerRowCount(AnswerSheet sheet) {
+        int rows = 0;
+        for (UserAnswer answer : sheet.getUserAnswers()) {
+            rows += answer.getSubAnswers().isEmpty() ? 1 : answer.getSubAnswers().size();
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,131 @@
+package com.example.quizdomainmodel.workload;
+
+import com.example.quizdomainmodel.domain.model.AnswerSheet;
+import com.example.quizdomainmodel.domain.model.MaterialQuestion;
+import com.example.quizdomainmodel.domain.model.Question;
+import com.example.quizdomainmodel.domain.model.QuestionType;
+import com.example.quizdomainmodel.domain.model.UserAnswer;
+import com.example.quizdomainmodel.excelimport.ExcelImporter;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.StringWriter;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class WorkloadGeneratorTest {
+
+    @Test
+    void shouldBeReproducibleFromSeedRegardlessOfParallelism() {
+        // 相同种子生成相同的题库和答卷，与并行顺序无关
+        WorkloadSpec spec = WorkloadSpec.builder().seed(7).questionCount(40).sheetCount(500).build();
+        WorkloadGenerator first = new WorkloadGenerator(spec);
+        WorkloadGenerator second = new WorkloadGenerator(spec);
+
+        assertThat(first.getQuiz().getId()).isEqualTo(second.getQuiz().getId());
+        assertThat(first.getQuiz().contentFingerprint()).isEqualTo(second.getQuiz().contentFingerprint());
+        List<AnswerSheet> parallel = first.answerSheets().collect(Collectors.toList());
+        List<AnswerSheet> sequential = second.answerSheets().sequential().collect(Collectors.toList());
+        assertThat(parallel).isEqualTo(sequential);
+        assertThat(first.sheet(123)).isEqualTo(parallel.get(123));
+
+        WorkloadGenerator other = new WorkloadGenerator(spec.toBuilder().seed(8).build());
+        assertThat(other.getQuiz().contentFingerprint()).isNotEqualTo(first.getQuiz().contentFingerprint());
+    }
+
+    @Test
+    void shouldFollowTypeMixAndMaterialNesting() {
+        // 题型比例和材料题子题数量应符合配置
+        Map<QuestionType, Integer> weights = new EnumMap<>(QuestionType.class);
+        weights.put(QuestionType.SINGLE_CHOICE, 1);
+        weights.put(QuestionType.READING, 1);
+        WorkloadGenerator generator = new WorkloadGenerator(WorkloadSpec.builder()
+                .questionCount(2_000).typeWeights(weights).minSubQuestions(2).maxSubQuestions(3).sheetCount(0).build());
+
+        int materials = 0;
+        for (Question question : generator.getQuiz().getQuestions()) {
+            if (question instanceof MaterialQuestion) {
+                materials++;
+                List<Question> subQuestions = ((MaterialQuestion) question).getSubQuestions();
+                assertThat(subQuestions).hasSizeBetween(2, 3);
+                assertThat(subQuestions).allMatch(q -> q.getType() == QuestionType.SINGLE_CHOICE && q.getAnswerKey().isResolved());
+            } else {
+                assertThat(question.getType()).isEqualTo(QuestionType.SINGLE_CHOICE);
+            }
+        }
+        assertThat(materials).isBetween(900, 1_100);
+    }
+
+    @Test
+    void shouldControlCorrectnessThroughAbility() {
+        // 能力均值越高，平均得分率越高；跳过率决定未作答比例
+        WorkloadSpec spec = WorkloadSpec.builder().questionCount(60).sheetCount(2_000).skipRate(0.1).build();
+        WorkloadGenerator weak = new WorkloadGenerator(spec.toBuilder().abilityMean(-1.5).build());
+        WorkloadGenerator strong = new WorkloadGenerator(spec.toBuilder().abilityMean(1.5).build());
+
+        double weakScore = meanScore(weak);
+        double strongScore = meanScore(strong);
+        double answered = strong.answerSheets().mapToInt(sheet -> sheet.getUserAnswers().size()).average().orElse(0);
+
+        assertThat(strongScore).isGreaterThan(weakScore * 2);
+        assertThat(answered).isBetween(60 * 0.85, 60 * 0.95);
+    }
+
+    @Test
+    void shouldRoundTripQuestionsThroughImporter(@TempDir Path dir) throws Exception {
+        // 生成的题库可被导入器读取；材料题以外的答案对导入后的题目评分一致
+        WorkloadGenerator generator = new WorkloadGenerator(WorkloadSpec.builder().seed(3).questionCount(30).sheetCount(50).build());
+        String file = dir.resolve("questions.xlsx").toString();
+        WorkloadWriter.writeQuestionsToExcel(file, generator.getQuiz());
+
+        List<Question> imported = ExcelImporter.importQuestionsFromExcel(file);
+        List<Question> flattened = new ArrayList<>();
+        for (Question question : generator.getQuiz().getQuestions()) {
+            flattened.add(question);
+            if (question instanceof MaterialQuestion) {
+                flattened.addAll(((MaterialQuestion) question).getSubQuestions());
+            }
+        }
+        assertThat(imported).hasSameSizeAs(flattened);
+        for (int i = 0; i < imported.size(); i++) {
+            assertThat(imported.get(i).getId()).isEqualTo(flattened.get(i).getId());
+            assertThat(imported.get(i).getChoices()).isEqualTo(flattened.get(i).getChoices());
+        }
+
+        // The importer flattens material questions, so only answers outside them round-trip
+        List<Question> leaves = generator.getQuiz().getQuestions().stream()
+                .filter(q -> !(q instanceof MaterialQuestion)).collect(Collectors.toList());
+        generator.answerSheets().forEach(sheet -> {
+            List<UserAnswer> leafAnswers = sheet.getUserAnswers().stream()
+                    .filter(a -> a.getSubAnswers().isEmpty()).collect(Collectors.toList());
+            AnswerSheet leafSheet = new AnswerSheet(sheet.getId(), sheet.getQuizId(), sheet.getUserId(),
+                    sheet.getSubmissionTime(), leafAnswers);
+            assertThat(leafSheet.calculateTotalScore(imported)).isEqualTo(leafSheet.calculateTotalScore(leaves));
+        });
+    }
+
+    @Test
+    void shouldWriteOneCsvRowPerLeafAnswer() throws Exception {
+        WorkloadGenerator generator = new WorkloadGenerator(WorkloadSpec.builder().questionCount(20).sheetCount(10_000).build());
+        StringWriter out = new StringWriter();
+
+        long rows = WorkloadWriter.writeAnswerSheetsCsv(out, generator);
+
+        String[] lines = out.toString().split("\n");
+        assertThat(lines).hasSize((int) rows + 1);
+        assertThat(lines[0]).isEqualTo(String.join(",", WorkloadWriter.ANSWER_HEADERS));
+        assertThat(lines[1]).startsWith("sheet-0," + generator.getQuiz().getId() + ",user-0,");
+        assertThat(lines[lines.length - 1]).startsWith("sheet-9999,");
+    }
+
+    private static double meanScore(WorkloadGenerator generator) {
+        List<Question> questions = generator.getQuiz().getQuestions();
+        return generator.answerSheets().mapToInt(sheet -> sheet.calculateTotalScore(questions)).average().orElse(0);
+    }
+}